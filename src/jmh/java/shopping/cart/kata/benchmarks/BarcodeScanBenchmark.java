@@ -0,0 +1,95 @@
+package shopping.cart.kata.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import shopping.cart.kata.barcode.BarcodeIndex;
+import shopping.cart.kata.barcode.Barcodes;
+import shopping.cart.kata.catalog.ArraySkuCatalog;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.io.AsciiSequence;
+import shopping.cart.kata.models.ScanResult;
+import shopping.cart.kata.services.CartService;
+
+/**
+ * Compares scanning a barcode as a SKU ID, the way the till reads typed IDs, with validating it and resolving the
+ * packed barcode through a {@link BarcodeIndex}. Both read the barcode from the bytes of an input line, and should
+ * report 0 B/op with the GC profiler enabled.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BarcodeScanBenchmark {
+  private static final int BASKET_SIZE = 1024;
+
+  @Param({"10000", "1000000"})
+  private int catalogSize;
+
+  private SkuCatalog catalog;
+
+  private BarcodeIndex barcodes;
+
+  private ByteBuffer lines;
+
+  private AsciiSequence line;
+
+  private CartService cartService;
+
+  private int next;
+
+  @Setup
+  public void setup() {
+    final ArraySkuCatalog.Builder builder = ArraySkuCatalog.builder(this.catalogSize);
+    for (int index = 0; index < this.catalogSize; index++) {
+      builder.add(barcodeOf(index), BenchmarkFixtures.priceOf(index), 0, 0, 0);
+    }
+    this.catalog = builder.build();
+    this.barcodes = BarcodeIndex.of(this.catalog);
+
+    // Each scanned barcode is a 13 byte line, as it would arrive from a scanner
+    final String[] basket = BenchmarkFixtures.basket(this.catalogSize, BASKET_SIZE);
+    this.lines = ByteBuffer.allocate(BASKET_SIZE * 13);
+    for (String item : basket) {
+      final int index = Integer.parseInt(item.substring("SKU".length()));
+      this.lines.put(barcodeOf(index).getBytes(StandardCharsets.US_ASCII));
+    }
+    this.line = new AsciiSequence();
+  }
+
+  @Setup(Level.Iteration)
+  public void newCart() {
+    this.cartService = new CartService(this.catalog);
+    this.next = 0;
+  }
+
+  @Benchmark
+  public ScanResult scanBarcodeAsId() {
+    return this.cartService.scanItem(this.nextLine());
+  }
+
+  @Benchmark
+  public ScanResult scanPackedBarcode() {
+    return this.cartService.scanBarcode(Barcodes.pack(this.nextLine()), this.barcodes);
+  }
+
+  private AsciiSequence nextLine() {
+    final AsciiSequence line = this.line.wrap(this.lines, this.next * 13, 13);
+    this.next = (this.next + 1) & (BASKET_SIZE - 1);
+    return line;
+  }
+
+  private static String barcodeOf(int index) {
+    final String digits = String.format("50%010d", index);
+    return digits + Barcodes.checkDigitOf(digits);
+  }
+}
@@ -0,0 +1,67 @@
+package shopping.cart.kata.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.models.CartTotals;
+import shopping.cart.kata.services.BasketPricer;
+
+/**
+ * Measures how re-pricing a large set of baskets scales with the number of cores. Compare the score at each level of
+ * parallelism with the score at 1.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BasketPricerBenchmark {
+  private static final int BASKETS = 100_000;
+
+  private static final int BASKET_SIZE = 20;
+
+  @Param({"1", "2", "4", "8", "16"})
+  private int parallelism;
+
+  @Param({"10000"})
+  private int catalogSize;
+
+  private List<List<String>> baskets;
+
+  private ForkJoinPool pool;
+
+  private BasketPricer basketPricer;
+
+  @Setup
+  public void setup() {
+    final SkuCatalog catalog = SkuCatalog.from(BenchmarkFixtures.catalog(this.catalogSize));
+    final String[] scans = BenchmarkFixtures.basket(this.catalogSize, BASKETS * BASKET_SIZE);
+    this.baskets = new ArrayList<>(BASKETS);
+    for (int basket = 0; basket < BASKETS; basket++) {
+      this.baskets.add(Arrays.asList(scans).subList(basket * BASKET_SIZE, (basket + 1) * BASKET_SIZE));
+    }
+    this.pool = new ForkJoinPool(this.parallelism);
+    this.basketPricer = new BasketPricer(catalog, this.pool);
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.pool.shutdown();
+  }
+
+  @Benchmark
+  public List<CartTotals> price() {
+    return this.basketPricer.price(this.baskets);
+  }
+}
@@ -0,0 +1,84 @@
+package shopping.cart.kata.benchmarks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.models.PricedBasket;
+import shopping.cart.kata.services.BasketPricingCache;
+
+/**
+ * Measures re-pricing a stream of online baskets where a share of the requests repeat a basket already seen, as when a
+ * basket is priced on the cart view, at checkout and again on confirmation. Compare {@code cached} with
+ * {@code uncached} at each percentage of repeated requests.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BasketPricingCacheBenchmark {
+  private static final int REQUESTS = 1 << 16;
+
+  private static final int BASKET_SIZE = 20;
+
+  private static final int CATALOG_SIZE = 10_000;
+
+  @Param({"60", "90"})
+  private int repeatPercent;
+
+  private List<Map<String, Integer>> requests;
+
+  private BasketPricingCache cache;
+
+  private int next;
+
+  @Setup
+  public void setup() {
+    final SkuCatalog catalog = SkuCatalog.from(BenchmarkFixtures.catalog(CATALOG_SIZE));
+    final String[] scans = BenchmarkFixtures.basket(CATALOG_SIZE, REQUESTS * BASKET_SIZE);
+    final SplittableRandom random = new SplittableRandom(25L);
+    this.requests = new ArrayList<>(REQUESTS);
+    for (int request = 0; request < REQUESTS; request++) {
+      if (request > 0 && random.nextInt(100) < this.repeatPercent) {
+        // Most repeats are of a basket priced moments ago
+        this.requests.add(this.requests.get(Math.max(0, request - 1 - random.nextInt(Math.min(request, 256)))));
+        continue;
+      }
+      final Map<String, Integer> basket = new HashMap<>();
+      for (int item = request * BASKET_SIZE; item < (request + 1) * BASKET_SIZE; item++) {
+        basket.merge(scans[item], 1, Integer::sum);
+      }
+      this.requests.add(basket);
+    }
+    this.cache = new BasketPricingCache(catalog, 10_000, Duration.ofMinutes(5));
+    this.next = 0;
+  }
+
+  @Benchmark
+  public PricedBasket cached() {
+    return this.cache.price(this.nextRequest());
+  }
+
+  @Benchmark
+  public PricedBasket uncached() {
+    return this.cache.priceUncached(this.nextRequest());
+  }
+
+  private Map<String, Integer> nextRequest() {
+    final Map<String, Integer> request = this.requests.get(this.next);
+    this.next = (this.next + 1) & (REQUESTS - 1);
+    return request;
+  }
+}
@@ -0,0 +1,121 @@
+package shopping.cart.kata.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import shopping.cart.kata.models.Sku;
+import shopping.cart.kata.models.SkuSpecialPricing;
+
+final class BenchmarkFixtures {
+  private static final long SEED = 42L;
+
+  private BenchmarkFixtures() {
+  }
+
+  static String skuId(int index) {
+    return "SKU" + index;
+  }
+
+  static int priceOf(int index) {
+    return 10 + (index % 490);
+  }
+
+  static boolean hasPromotionalPricing(int index) {
+    return index % 2 == 0;
+  }
+
+  static int promotionalQuantityOf(int index) {
+    return 2 + (index % 3);
+  }
+
+  static int promotionalPriceOf(int index) {
+    return priceOf(index) * promotionalQuantityOf(index) - 5;
+  }
+
+  static Map<String, Sku> catalog(int catalogSize) {
+    final Map<String, Sku> skus = new HashMap<>();
+    for (int index = 0; index < catalogSize; index++) {
+      final Sku.SkuBuilder skuBuilder = Sku.builder().price(priceOf(index));
+      if (hasPromotionalPricing(index)) {
+        final int quantity = promotionalQuantityOf(index);
+        final int overriddenPrice = promotionalPriceOf(index);
+        skuBuilder.skuSpecialPricing(
+            SkuSpecialPricing.builder()
+                .quantity(quantity)
+                .overriddenPrice(overriddenPrice)
+                .priceDiscount(priceOf(index) * quantity - overriddenPrice)
+                .build()
+        );
+      }
+      skus.put(skuId(index), skuBuilder.build());
+    }
+    return skus;
+  }
+
+  /**
+   * Builds a basket of scans drawn from a small pool of SKUs so that repeat scans (and therefore promotions) occur
+   * in the same way they would at a real till.
+   */
+  static String[] basket(int catalogSize, int basketSize) {
+    final int[] indices = basketIndices(catalogSize, basketSize);
+    final String[] basket = new String[basketSize];
+    for (int index = 0; index < basketSize; index++) {
+      basket[index] = skuId(indices[index]);
+    }
+    return basket;
+  }
+
+  /**
+   * Builds a basket which only contains SKUs with promotional pricing so that every scan exercises the discount
+   * calculation.
+   */
+  static String[] promotionalBasket(int catalogSize, int basketSize) {
+    final int[] indices = basketIndices(catalogSize, basketSize);
+    final String[] basket = new String[basketSize];
+    for (int index = 0; index < basketSize; index++) {
+      basket[index] = skuId(indices[index] & ~1);
+    }
+    return basket;
+  }
+
+  private static int[] basketIndices(int catalogSize, int basketSize) {
+    final SplittableRandom random = new SplittableRandom(SEED);
+    final int distinctItems = Math.min(catalogSize, Math.max(1, basketSize / 4));
+    final int[] pool = new int[distinctItems];
+    for (int index = 0; index < distinctItems; index++) {
+      pool[index] = random.nextInt(catalogSize);
+    }
+
+    final int[] indices = new int[basketSize];
+    for (int index = 0; index < basketSize; index++) {
+      indices[index] = pool[random.nextInt(distinctItems)];
+    }
+    return indices;
+  }
+
+  /**
+   * Renders the answers a user would type at the prompts of {@link shopping.cart.kata.services.CheckoutService} to
+   * configure the catalog, scan the basket and end the session.
+   */
+  static byte[] checkoutInput(int catalogSize, String[] basket) {
+    final StringBuilder input = new StringBuilder();
+    for (int index = 0; index < catalogSize; index++) {
+      input.append(skuId(index)).append('\n');
+      input.append(priceOf(index)).append('\n');
+      if (hasPromotionalPricing(index)) {
+        input.append("Y\n");
+        input.append(promotionalQuantityOf(index)).append('\n');
+        input.append(promotionalPriceOf(index)).append('\n');
+      } else {
+        input.append("N\n");
+      }
+      input.append(index == catalogSize - 1 ? "N\n" : "Y\n");
+    }
+    for (String item : basket) {
+      input.append(item).append('\n');
+    }
+    input.append('\n');
+    return input.toString().getBytes();
+  }
+}
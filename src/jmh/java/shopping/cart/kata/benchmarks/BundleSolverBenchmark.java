@@ -0,0 +1,101 @@
+package shopping.cart.kata.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.collections.OrdinalIntCounter;
+import shopping.cart.kata.promotions.BundleSolver;
+
+/**
+ * Compares re-solving a 200 item basket after a scan, starting from the cart's previous best combination, against
+ * solving it from scratch. The deals are adversarial: each covers a large, overlapping share of the SKUs and saves
+ * only a little, so many combinations come close to the best and the bound has little room to prune.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BundleSolverBenchmark {
+  private static final int BASKET_SIZE = 200;
+
+  private static final int CATALOG_SIZE = 40;
+
+  private static final long SEED = 11L;
+
+  @Param({"3", "6"})
+  private int deals;
+
+  private SkuCatalog catalog;
+
+  private BundleSolver solver;
+
+  private int[] scans;
+
+  private OrdinalIntCounter basket;
+
+  private BundleSolver.Solution solution;
+
+  private int next;
+
+  private boolean scanned;
+
+  @Setup
+  public void setup() {
+    this.catalog = SkuCatalog.from(BenchmarkFixtures.catalog(CATALOG_SIZE));
+
+    final SplittableRandom random = new SplittableRandom(SEED);
+    final BundleSolver.Builder builder = BundleSolver.builder(this.catalog);
+    for (int deal = 0; deal < this.deals; deal++) {
+      final int quantity = 2 + random.nextInt(4);
+      final String[] items = random.ints(15, 0, CATALOG_SIZE).distinct().mapToObj(BenchmarkFixtures::skuId).toArray(String[]::new);
+      // Priced around the average item so bundles only just save money
+      builder.deal(quantity, quantity * (20 + random.nextInt(15)), items);
+    }
+    this.solver = builder.build();
+    this.scans = random.ints(BASKET_SIZE * 2L, 0, CATALOG_SIZE).toArray();
+  }
+
+  @Setup(Level.Iteration)
+  public void newBasket() {
+    this.basket = new OrdinalIntCounter(this.catalog);
+    this.solution = this.solver.newState();
+    for (int scan = 0; scan < BASKET_SIZE; scan++) {
+      this.basket.add(this.ordinalOf(this.scans[scan]), 1);
+      this.solver.discountFor(this.catalog, this.basket, this.solution);
+    }
+    this.next = BASKET_SIZE;
+    this.scanned = false;
+  }
+
+  /**
+   * Scans an item, or takes the last one back out, and re-solves from the previous best combination.
+   */
+  @Benchmark
+  public long incrementalScan() {
+    final int ordinal = this.ordinalOf(this.scans[this.next]);
+    this.basket.add(ordinal, this.scanned ? -1 : 1);
+    if (this.scanned) {
+      this.next = this.next + 1 == this.scans.length ? BASKET_SIZE : this.next + 1;
+    }
+    this.scanned = !this.scanned;
+    return this.solver.discountFor(this.catalog, this.basket, this.solution);
+  }
+
+  @Benchmark
+  public long coldSolve() {
+    return this.solver.discountFor(this.catalog, this.basket);
+  }
+
+  private int ordinalOf(int index) {
+    return this.catalog.ordinalOf(BenchmarkFixtures.skuId(index));
+  }
+}
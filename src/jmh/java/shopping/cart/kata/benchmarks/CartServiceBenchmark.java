@@ -0,0 +1,68 @@
+package shopping.cart.kata.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.services.CartService;
+
+/**
+ * Measures the scan path of {@link CartService}. Each invocation scans a complete basket into a new cart, so scores
+ * are baskets per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CartServiceBenchmark {
+
+  @Param({"4", "10000", "1000000"})
+  private int catalogSize;
+
+  @Param({"1", "100", "10000", "100000"})
+  private int basketSize;
+
+  private SkuCatalog catalog;
+
+  private String[] basket;
+
+  private String[] promotionalBasket;
+
+  @Setup
+  public void setup() {
+    this.catalog = SkuCatalog.from(BenchmarkFixtures.catalog(this.catalogSize));
+    this.basket = BenchmarkFixtures.basket(this.catalogSize, this.basketSize);
+    this.promotionalBasket = BenchmarkFixtures.promotionalBasket(this.catalogSize, this.basketSize);
+  }
+
+  @Benchmark
+  public CartService addItem() {
+    final CartService cartService = new CartService(this.catalog);
+    for (String item : this.basket) {
+      cartService.addItem(item);
+    }
+    return cartService;
+  }
+
+  @Benchmark
+  public CartService addItems() {
+    final CartService cartService = new CartService(this.catalog);
+    cartService.addItems(this.basket);
+    return cartService;
+  }
+
+  @Benchmark
+  public long accumulateDiscounts() {
+    final CartService cartService = new CartService(this.catalog);
+    for (String item : this.promotionalBasket) {
+      cartService.addItem(item);
+    }
+    return cartService.getTotalDiscount();
+  }
+}
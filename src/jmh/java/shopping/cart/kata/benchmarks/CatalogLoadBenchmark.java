@@ -0,0 +1,75 @@
+package shopping.cart.kata.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import shopping.cart.kata.catalog.BinaryCatalogWriter;
+import shopping.cart.kata.catalog.CsvCatalogReader;
+import shopping.cart.kata.catalog.MappedSkuCatalog;
+import shopping.cart.kata.catalog.SkuCatalog;
+
+/**
+ * Compares the time taken for a till to be ready to scan when its catalog is parsed from CSV against mapping a binary
+ * catalog file. Each benchmark prices the first scan, so the mapped catalog pays for touching its pages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CatalogLoadBenchmark {
+  @Param({"10000", "200000"})
+  private int catalogSize;
+
+  private Path csvFile;
+
+  private Path binaryFile;
+
+  private String firstScan;
+
+  @Setup
+  public void setup() throws IOException {
+    final StringBuilder csv = new StringBuilder();
+    for (int index = 0; index < this.catalogSize; index++) {
+      csv.append(BenchmarkFixtures.skuId(index)).append(',').append(BenchmarkFixtures.priceOf(index));
+      if (BenchmarkFixtures.hasPromotionalPricing(index)) {
+        csv.append(',').append(BenchmarkFixtures.promotionalQuantityOf(index)).append(',').append(BenchmarkFixtures.promotionalPriceOf(index));
+      }
+      csv.append('\n');
+    }
+    this.csvFile = Files.createTempFile("catalog", ".csv");
+    Files.write(this.csvFile, csv.toString().getBytes(StandardCharsets.UTF_8));
+
+    this.binaryFile = Files.createTempFile("catalog", ".bin");
+    BinaryCatalogWriter.write(CsvCatalogReader.read(this.csvFile), this.binaryFile);
+    this.firstScan = BenchmarkFixtures.skuId(this.catalogSize / 2);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(this.csvFile);
+    Files.deleteIfExists(this.binaryFile);
+  }
+
+  @Benchmark
+  public int readCsv() throws IOException {
+    final SkuCatalog catalog = CsvCatalogReader.read(this.csvFile);
+    return catalog.priceOf(catalog.ordinalOf(this.firstScan));
+  }
+
+  @Benchmark
+  public int openMapped() throws IOException {
+    final SkuCatalog catalog = MappedSkuCatalog.open(this.binaryFile);
+    return catalog.priceOf(catalog.ordinalOf(this.firstScan));
+  }
+}
@@ -0,0 +1,66 @@
+package shopping.cart.kata.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import shopping.cart.kata.catalog.ArraySkuCatalog;
+import shopping.cart.kata.catalog.CatalogBuilder;
+import shopping.cart.kata.catalog.OffHeapSkuCatalog;
+import shopping.cart.kata.catalog.SkuCatalog;
+
+/**
+ * Measures resolving a SKU ID and reading its pricing from very large catalogs held on the heap and off it. Run with
+ * {@code -prof gc} to compare the heap each catalog leaves behind after setup, which is what lengthens full GCs on a
+ * head office pricing server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CatalogLookupBenchmark {
+  private static final int LOOKUPS = 1024;
+
+  @Param({"1000000", "10000000"})
+  private int catalogSize;
+
+  @Param({"array", "offHeap"})
+  private String implementation;
+
+  private SkuCatalog catalog;
+
+  private String[] items;
+
+  private int next;
+
+  @Setup
+  public void setup() {
+    final CatalogBuilder builder = "offHeap".equals(this.implementation)
+        ? OffHeapSkuCatalog.builder(this.catalogSize)
+        : ArraySkuCatalog.builder(this.catalogSize);
+    for (int index = 0; index < this.catalogSize; index++) {
+      if (BenchmarkFixtures.hasPromotionalPricing(index)) {
+        final int quantity = BenchmarkFixtures.promotionalQuantityOf(index);
+        final int promotionalPrice = BenchmarkFixtures.promotionalPriceOf(index);
+        builder.add(BenchmarkFixtures.skuId(index), BenchmarkFixtures.priceOf(index), quantity, promotionalPrice, BenchmarkFixtures.priceOf(index) * quantity - promotionalPrice);
+      } else {
+        builder.add(BenchmarkFixtures.skuId(index), BenchmarkFixtures.priceOf(index), 0, 0, 0);
+      }
+    }
+    this.catalog = builder.build();
+    this.items = BenchmarkFixtures.basket(this.catalogSize, LOOKUPS);
+    this.next = 0;
+  }
+
+  @Benchmark
+  public int lookUpPrice() {
+    final String item = this.items[this.next];
+    this.next = (this.next + 1) & (LOOKUPS - 1);
+    return this.catalog.priceOf(this.catalog.ordinalOf(item));
+  }
+}
@@ -0,0 +1,120 @@
+package shopping.cart.kata.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.server.CheckoutServer;
+import shopping.cart.kata.server.SessionExecutors;
+
+/**
+ * Opens many concurrent checkout sessions against a {@link CheckoutServer} and reports the session creation time and
+ * the latency of each scan, measured from sending the item until its running total has been received.
+ *
+ * <p>Usage: {@code ./gradlew loadTest --args="<sessions> <scans per session> <catalog size>"}
+ */
+public class CheckoutServerLoadGenerator {
+  private static final String SCAN_PROMPT = "Please scan your next item. Press enter when all items have been scanned";
+
+  private static final String RUNNING_TOTAL = "Running total -- ";
+
+  public static void main(String[] args) throws Exception {
+    final int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+    final int scansPerSession = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+    final int catalogSize = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+
+    final SkuCatalog catalog = SkuCatalog.from(BenchmarkFixtures.catalog(catalogSize));
+    final String[] basket = BenchmarkFixtures.basket(catalogSize, scansPerSession);
+
+    try (CheckoutServer checkoutServer = new CheckoutServer(catalog, 0)) {
+      checkoutServer.start();
+
+      final ExecutorService tills = SessionExecutors.newSessionExecutor();
+      final CountDownLatch connected = new CountDownLatch(sessions);
+      final CountDownLatch start = new CountDownLatch(1);
+      final List<Future<long[]>> results = new ArrayList<>(sessions);
+      final long[] connectLatencies = new long[sessions];
+
+      for (int session = 0; session < sessions; session++) {
+        final int sessionIndex = session;
+        results.add(tills.submit(() -> runSession(checkoutServer.getPort(), basket, connectLatencies, sessionIndex, connected, start)));
+      }
+      connected.await();
+      final long startTime = System.nanoTime();
+      start.countDown();
+
+      final long[] scanLatencies = new long[sessions * scansPerSession];
+      int recorded = 0;
+      for (Future<long[]> result : results) {
+        final long[] latencies = result.get();
+        System.arraycopy(latencies, 0, scanLatencies, recorded, latencies.length);
+        recorded += latencies.length;
+      }
+      final long elapsed = System.nanoTime() - startTime;
+      tills.shutdown();
+
+      System.out.printf("Sessions: %d, scans per session: %d, catalog size: %d%n", sessions, scansPerSession, catalogSize);
+      System.out.printf("Session creation p50 = %dus, p99 = %dus%n", percentile(connectLatencies, 50) / 1000, percentile(connectLatencies, 99) / 1000);
+      System.out.printf("Scan latency p50 = %dus, p99 = %dus, max = %dus%n", percentile(scanLatencies, 50) / 1000, percentile(scanLatencies, 99) / 1000, percentile(scanLatencies, 100) / 1000);
+      System.out.printf("Throughput = %.0f scans/s%n", recorded / (elapsed / (double) TimeUnit.SECONDS.toNanos(1)));
+    }
+  }
+
+  private static long[] runSession(int port, String[] basket, long[] connectLatencies, int sessionIndex, CountDownLatch connected, CountDownLatch start) throws IOException, InterruptedException {
+    final long connectStart = System.nanoTime();
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+      socket.setTcpNoDelay(true);
+      final OutputStream out = socket.getOutputStream();
+      final BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+      awaitLine(in, SCAN_PROMPT);
+      connectLatencies[sessionIndex] = System.nanoTime() - connectStart;
+      connected.countDown();
+      start.await();
+
+      final long[] latencies = new long[basket.length];
+      for (int index = 0; index < basket.length; index++) {
+        final long scanStart = System.nanoTime();
+        out.write((basket[index] + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        awaitLine(in, RUNNING_TOTAL);
+        latencies[index] = System.nanoTime() - scanStart;
+        awaitLine(in, SCAN_PROMPT);
+      }
+      out.write('\n');
+      out.flush();
+      while (in.readLine() != null) {
+        // Drain the summary until the server ends the session
+      }
+      return latencies;
+    }
+  }
+
+  private static void awaitLine(BufferedReader in, String prefix) throws IOException {
+    String line;
+    while ((line = in.readLine()) != null) {
+      if (line.startsWith(prefix)) {
+        return;
+      }
+    }
+    throw new IOException("The session ended before the expected response was received");
+  }
+
+  private static long percentile(long[] values, int percentile) {
+    final long[] sorted = values.clone();
+    Arrays.sort(sorted);
+    final int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+  }
+}
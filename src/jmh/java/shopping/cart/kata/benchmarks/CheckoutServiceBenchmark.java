@@ -0,0 +1,48 @@
+package shopping.cart.kata.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import shopping.cart.kata.services.CheckoutService;
+
+/**
+ * Measures a complete checkout session, from configuring the SKUs through to the summary, driven from an in-memory
+ * input stream. Output is discarded so the score reflects the cost of the checkout itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CheckoutServiceBenchmark {
+
+  @Param({"4", "10000", "1000000"})
+  private int catalogSize;
+
+  @Param({"1", "100", "10000", "100000"})
+  private int basketSize;
+
+  private byte[] input;
+
+  private PrintStream out;
+
+  @Setup
+  public void setup() {
+    this.input = BenchmarkFixtures.checkoutInput(this.catalogSize, BenchmarkFixtures.basket(this.catalogSize, this.basketSize));
+    this.out = new PrintStream(OutputStream.nullOutputStream());
+  }
+
+  @Benchmark
+  public void run() {
+    final CheckoutService checkoutService = new CheckoutService(new ByteArrayInputStream(this.input), this.out);
+    checkoutService.run();
+  }
+}
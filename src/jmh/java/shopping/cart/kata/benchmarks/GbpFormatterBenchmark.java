@@ -0,0 +1,53 @@
+package shopping.cart.kata.benchmarks;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import shopping.cart.kata.formatting.GbpFormatter;
+
+/**
+ * Compares rendering a running total with {@link GbpFormatter} against the {@link NumberFormat} it replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GbpFormatterBenchmark {
+  private final StringBuilder builder = new StringBuilder(32);
+
+  private final byte[] buffer = new byte[GbpFormatter.MAX_UTF_8_LENGTH];
+
+  private int amountInPence = 123_456;
+
+  @Benchmark
+  public String numberFormat() {
+    final NumberFormat formatter = NumberFormat.getCurrencyInstance(new Locale.Builder().setLanguage("en").setRegion("GB").build());
+    return formatter.format((double) this.nextAmount() / 100);
+  }
+
+  @Benchmark
+  public String format() {
+    return GbpFormatter.format(this.nextAmount());
+  }
+
+  @Benchmark
+  public StringBuilder appendToReusedBuilder() {
+    this.builder.setLength(0);
+    return GbpFormatter.appendTo(this.builder, this.nextAmount());
+  }
+
+  @Benchmark
+  public int writeToReusedBuffer() {
+    return GbpFormatter.writeTo(this.buffer, 0, this.nextAmount());
+  }
+
+  private int nextAmount() {
+    return this.amountInPence = (this.amountInPence * 31 + 7) & 0xFFFFFF;
+  }
+}
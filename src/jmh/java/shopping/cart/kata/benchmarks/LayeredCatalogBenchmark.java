@@ -0,0 +1,71 @@
+package shopping.cart.kata.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import shopping.cart.kata.catalog.LayeredSkuCatalog;
+import shopping.cart.kata.catalog.SkuCatalog;
+
+/**
+ * Measures reading the pricing of a scanned SKU through a store's overlay on a shared national catalog, against the
+ * flattened copy of the same store. An overlay of {@code 0} SKUs should cost no more than reading the national
+ * catalog itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LayeredCatalogBenchmark {
+  private static final int CATALOG_SIZE = 100_000;
+
+  private static final int LOOKUPS = 1024;
+
+  @Param({"0", "100", "10000"})
+  private int overrides;
+
+  private SkuCatalog store;
+
+  private SkuCatalog flattened;
+
+  private String[] items;
+
+  private int next;
+
+  @Setup
+  public void setup() {
+    final SkuCatalog national = SkuCatalog.from(BenchmarkFixtures.catalog(CATALOG_SIZE));
+    final LayeredSkuCatalog.Builder builder = LayeredSkuCatalog.builder(national);
+    for (int override = 0; override < this.overrides; override++) {
+      final int index = (int) ((long) override * CATALOG_SIZE / this.overrides);
+      builder.add(BenchmarkFixtures.skuId(index), BenchmarkFixtures.priceOf(index) + 1, 0, 0, 0);
+    }
+    final LayeredSkuCatalog store = builder.build();
+    this.store = store;
+    this.flattened = store.flatten();
+    this.items = BenchmarkFixtures.basket(CATALOG_SIZE, LOOKUPS);
+    this.next = 0;
+  }
+
+  @Benchmark
+  public int layeredPrice() {
+    return this.priceIn(this.store);
+  }
+
+  @Benchmark
+  public int flattenedPrice() {
+    return this.priceIn(this.flattened);
+  }
+
+  private int priceIn(SkuCatalog catalog) {
+    final String item = this.items[this.next];
+    this.next = (this.next + 1) & (LOOKUPS - 1);
+    final int ordinal = catalog.ordinalOf(item);
+    return catalog.priceOf(ordinal) + catalog.priceDiscountOf(ordinal);
+  }
+}
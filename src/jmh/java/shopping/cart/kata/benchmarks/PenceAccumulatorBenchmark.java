@@ -0,0 +1,67 @@
+package shopping.cart.kata.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import shopping.cart.kata.money.PenceAccumulator;
+
+/**
+ * Totals the line amounts of a normal basket with the plain int arithmetic the cart used to use, and with the overflow
+ * checked accumulator which replaced it, which should cost the same as the baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PenceAccumulatorBenchmark {
+  private static final int BASKET_SIZE = 1024;
+
+  private static final long SEED = 42L;
+
+  private int[] amounts;
+
+  private PenceAccumulator accumulator;
+
+  @Setup
+  public void setup() {
+    final SplittableRandom random = new SplittableRandom(SEED);
+    this.amounts = new int[BASKET_SIZE];
+    for (int line = 0; line < BASKET_SIZE; line++) {
+      this.amounts[line] = BenchmarkFixtures.priceOf(random.nextInt(BASKET_SIZE)) * (1 + random.nextInt(3));
+    }
+    this.accumulator = new PenceAccumulator();
+  }
+
+  @Benchmark
+  public int intTotal() {
+    int total = 0;
+    for (int amount : this.amounts) {
+      total += amount;
+    }
+    return total;
+  }
+
+  @Benchmark
+  public long addExactTotal() {
+    long total = 0;
+    for (int amount : this.amounts) {
+      total = Math.addExact(total, amount);
+    }
+    return total;
+  }
+
+  @Benchmark
+  public long accumulatorTotal() {
+    this.accumulator.reset();
+    for (int amount : this.amounts) {
+      this.accumulator.add(amount);
+    }
+    return this.accumulator.longValue();
+  }
+}
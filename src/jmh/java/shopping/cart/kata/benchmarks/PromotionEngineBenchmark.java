@@ -0,0 +1,98 @@
+package shopping.cart.kata.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.models.ScanResult;
+import shopping.cart.kata.promotions.MealDealPromotion;
+import shopping.cart.kata.promotions.PromotionEngine;
+import shopping.cart.kata.services.CartService;
+
+/**
+ * Measures a single scan into a warmed up cart while hundreds of overlapping promotions are running. The scan only
+ * evaluates the promotions of the scanned SKU, so its cost should barely change with the number of promotions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PromotionEngineBenchmark {
+  private static final int BASKET_SIZE = 1024;
+
+  private static final long SEED = 7L;
+
+  @Param({"10000"})
+  private int catalogSize;
+
+  @Param({"0", "100", "1000"})
+  private int promotions;
+
+  private SkuCatalog catalog;
+
+  private PromotionEngine promotionEngine;
+
+  private String[] basket;
+
+  private CartService cartService;
+
+  private int next;
+
+  @Setup
+  public void setup() {
+    this.catalog = SkuCatalog.from(BenchmarkFixtures.catalog(this.catalogSize));
+    this.basket = BenchmarkFixtures.basket(this.catalogSize, BASKET_SIZE);
+
+    final SplittableRandom random = new SplittableRandom(SEED);
+    final PromotionEngine.Builder builder = PromotionEngine.builder(this.catalog);
+    for (int promotion = 0; promotion < this.promotions; promotion++) {
+      // Draw most promotions from the basket so scans keep hitting them, as they would on a promoted shelf
+      final String item = random.nextInt(4) == 0 ? BenchmarkFixtures.skuId(random.nextInt(this.catalogSize)) : this.basket[random.nextInt(BASKET_SIZE)];
+      switch (promotion % 5) {
+        case 0:
+          builder.multiBuy(item, 3, BenchmarkFixtures.priceOf(0));
+          break;
+        case 1:
+          builder.buyXGetYFree(item, 2, 1);
+          break;
+        case 2:
+          builder.tieredPrice(item, new int[]{5, 10}, new int[]{9, 8});
+          break;
+        case 3:
+          builder.percentageOff(10, item, this.basket[random.nextInt(BASKET_SIZE)]);
+          break;
+        default:
+          final int ordinal = this.catalog.ordinalOf(item);
+          builder.add(new MealDealPromotion(this.catalog, new int[][]{
+              {ordinal},
+              {(ordinal + 1) % this.catalogSize, (ordinal + 2) % this.catalogSize}
+          }, 10));
+      }
+    }
+    this.promotionEngine = builder.build();
+  }
+
+  @Setup(Level.Iteration)
+  public void newCart() {
+    this.cartService = new CartService(this.catalog, this.promotionEngine);
+    for (String item : this.basket) {
+      this.cartService.scanItem(item);
+    }
+    this.next = 0;
+  }
+
+  @Benchmark
+  public ScanResult scanItem() {
+    final String item = this.basket[this.next];
+    this.next = (this.next + 1) & (BASKET_SIZE - 1);
+    return this.cartService.scanItem(item);
+  }
+}
@@ -0,0 +1,74 @@
+package shopping.cart.kata.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.metrics.CheckoutMetrics;
+import shopping.cart.kata.metrics.RecordingCheckoutMetrics;
+import shopping.cart.kata.models.ScanResult;
+import shopping.cart.kata.services.CartService;
+
+/**
+ * Measures a single scan into a cart which has already been warmed up. With the GC profiler enabled
+ * {@code gc.alloc.rate.norm} should report 0 B/op for both known and unknown items. The {@code metrics} parameter
+ * shows the cost of instrumenting the scan path: {@code none} should match an uninstrumented cart.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScanItemBenchmark {
+  private static final int BASKET_SIZE = 1024;
+
+  @Param({"4", "10000", "1000000"})
+  private int catalogSize;
+
+  @Param({"none", "recording"})
+  private String metrics;
+
+  private SkuCatalog catalog;
+
+  private CheckoutMetrics checkoutMetrics;
+
+  private String[] basket;
+
+  private CartService cartService;
+
+  private int next;
+
+  @Setup
+  public void setup() {
+    this.catalog = SkuCatalog.from(BenchmarkFixtures.catalog(this.catalogSize));
+    this.basket = BenchmarkFixtures.basket(this.catalogSize, BASKET_SIZE);
+    this.checkoutMetrics = "recording".equals(this.metrics) ? new RecordingCheckoutMetrics() : CheckoutMetrics.NONE;
+  }
+
+  @Setup(Level.Iteration)
+  public void newCart() {
+    this.cartService = new CartService(this.catalog, this.checkoutMetrics);
+    for (String item : this.basket) {
+      this.cartService.scanItem(item);
+    }
+    this.next = 0;
+  }
+
+  @Benchmark
+  public ScanResult scanKnownItem() {
+    final String item = this.basket[this.next];
+    this.next = (this.next + 1) & (BASKET_SIZE - 1);
+    return this.cartService.scanItem(item);
+  }
+
+  @Benchmark
+  public ScanResult scanUnknownItem() {
+    return this.cartService.scanItem("UNKNOWN");
+  }
+}
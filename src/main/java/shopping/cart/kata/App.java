@@ -1,11 +1,68 @@
 package shopping.cart.kata;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
+import javax.management.JMException;
+
+import shopping.cart.kata.catalog.BinaryCatalogWriter;
+import shopping.cart.kata.catalog.CatalogFileWatcher;
+import shopping.cart.kata.catalog.CatalogPublisher;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.metrics.RecordingCheckoutMetrics;
+import shopping.cart.kata.server.CheckoutServer;
+import shopping.cart.kata.services.BatchCheckoutService;
 import shopping.cart.kata.services.CheckoutService;
 
 public class App {
+    private static final int DEFAULT_SERVER_PORT = 7070;
+
+    public static void main(String[] args) throws IOException, JMException {
+        if (args.length == 3 && "batch".equals(args[0])) {
+            runBatch(Path.of(args[1]), Path.of(args[2]));
+            return;
+        }
+        if (args.length == 3 && "import".equals(args[0])) {
+            BinaryCatalogWriter.write(SkuCatalog.read(Path.of(args[1])), Path.of(args[2]));
+            return;
+        }
+
+        final RecordingCheckoutMetrics metrics = new RecordingCheckoutMetrics();
+        metrics.register("checkout");
 
-    public static void main(String[] args) {
-        final CheckoutService checkoutService = new CheckoutService(System.in, System.out);
+        final CheckoutService checkoutService = new CheckoutService(System.in, System.out, metrics);
+        if (args.length > 0 && "server".equals(args[0])) {
+            final int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SERVER_PORT;
+            if (args.length > 2) {
+                final Path catalogFile = Path.of(args[2]);
+                final boolean barcodeScanning = args.length > 3 && "barcodes".equals(args[3]);
+                final CatalogPublisher catalogs = new CatalogPublisher(SkuCatalog.read(catalogFile), barcodeScanning);
+                new CatalogFileWatcher(catalogFile, catalogs, e -> System.err.printf("Unable to reload the catalog: %s%n", e.getMessage())).start();
+                runServer(catalogs, port, metrics, barcodeScanning);
+            } else {
+                runServer(new CatalogPublisher(checkoutService.configureCatalog()), port, metrics, false);
+            }
+            return;
+        }
         checkoutService.run();
     }
+
+    private static void runBatch(Path catalogFile, Path transactionLog) throws IOException {
+        final SkuCatalog catalog = SkuCatalog.read(catalogFile);
+        final BatchCheckoutService batchCheckoutService = new BatchCheckoutService(catalog, System.out);
+        batchCheckoutService.run(transactionLog);
+    }
+
+    private static void runServer(CatalogPublisher catalogs, int port, RecordingCheckoutMetrics metrics, boolean barcodeScanning) throws IOException {
+        final CheckoutServer checkoutServer = new CheckoutServer(catalogs, port, metrics, barcodeScanning);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                checkoutServer.close();
+            } catch (IOException e) {
+                // The JVM is exiting, so there is nothing more to do
+            }
+        }));
+        checkoutServer.start();
+        System.out.printf("Checkout server is accepting sessions on port %d%n", checkoutServer.getPort());
+    }
 }
@@ -0,0 +1,100 @@
+package shopping.cart.kata.barcode;
+
+import java.util.Arrays;
+
+import shopping.cart.kata.collections.OrdinalIndex;
+
+/**
+ * Maps packed barcodes (see {@link Barcodes#pack(CharSequence)}) to the ordinals of a catalog whose IDs are barcodes.
+ * Keys and ordinals are held in parallel primitive arrays with open addressing, so a scan is resolved from the long
+ * without hashing or comparing the characters of the barcode. IDs which are not valid barcodes are left out of the
+ * index.
+ */
+public final class BarcodeIndex {
+  private static final long EMPTY_SLOT = Barcodes.NOT_A_BARCODE;
+
+  private final OrdinalIndex items;
+
+  private final long[] keys;
+
+  private final int[] ordinals;
+
+  private final int mask;
+
+  private final int size;
+
+  private BarcodeIndex(OrdinalIndex items) {
+    final int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, items.size()) - 1) << 2);
+    this.items = items;
+    this.keys = new long[capacity];
+    this.ordinals = new int[capacity];
+    this.mask = capacity - 1;
+    Arrays.fill(this.keys, EMPTY_SLOT);
+
+    int size = 0;
+    for (int ordinal = 0; ordinal < items.size(); ordinal++) {
+      final long key = Barcodes.pack(items.itemOf(ordinal));
+      if (key == Barcodes.NOT_A_BARCODE) {
+        continue;
+      }
+
+      int slot = spread(key) & this.mask;
+      while (this.keys[slot] != EMPTY_SLOT) {
+        if (this.keys[slot] == key) {
+          throw new IllegalArgumentException(String.format("Items (%s) and (%s) have the same barcode", items.itemOf(this.ordinals[slot]), items.itemOf(ordinal)));
+        }
+        slot = (slot + 1) & this.mask;
+      }
+      this.keys[slot] = key;
+      this.ordinals[slot] = ordinal;
+      size++;
+    }
+    this.size = size;
+  }
+
+  /**
+   * Indexes the items which are EAN-13 or UPC-A barcodes.
+   *
+   * @throws IllegalArgumentException if two items are the same barcode, such as a UPC-A barcode and its EAN-13 form
+   */
+  public static BarcodeIndex of(OrdinalIndex items) {
+    return new BarcodeIndex(items);
+  }
+
+  /**
+   * Returns the ordinal of the packed barcode or {@link OrdinalIndex#NOT_FOUND} if no item has the barcode.
+   */
+  public int ordinalOf(long barcode) {
+    if (barcode == EMPTY_SLOT) {
+      return OrdinalIndex.NOT_FOUND;
+    }
+    int slot = spread(barcode) & this.mask;
+    long key;
+    while ((key = this.keys[slot]) != EMPTY_SLOT) {
+      if (key == barcode) {
+        return this.ordinals[slot];
+      }
+      slot = (slot + 1) & this.mask;
+    }
+    return OrdinalIndex.NOT_FOUND;
+  }
+
+  /**
+   * Returns the number of items which have a barcode.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  public boolean isFor(OrdinalIndex items) {
+    return this.items == items;
+  }
+
+  /**
+   * Barcodes of one manufacturer share their leading digits, so the bits are mixed before the low bits pick a slot.
+   */
+  private static int spread(long key) {
+    final long hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32));
+  }
+}
@@ -0,0 +1,75 @@
+package shopping.cart.kata.barcode;
+
+/**
+ * Validates EAN-13 and UPC-A barcodes and packs them into a long. The key is the numeric value of the 13 digits, with
+ * a UPC-A barcode read as its EAN-13 form (a leading 0), so the same product scans to the same key either way and
+ * the key can be looked up without building a String.
+ */
+public final class Barcodes {
+  /**
+   * Returned by {@link #pack(CharSequence)} when the characters are not a barcode or its check digit is wrong.
+   */
+  public static final long NOT_A_BARCODE = -1L;
+
+  private static final int EAN_13_LENGTH = 13;
+
+  private static final int UPC_A_LENGTH = 12;
+
+  private Barcodes() {
+  }
+
+  /**
+   * Packs a 13 digit EAN-13 or 12 digit UPC-A barcode into a long, returning {@link #NOT_A_BARCODE} if the characters
+   * are anything else or the check digit does not match the other digits.
+   */
+  public static long pack(CharSequence barcode) {
+    final int length = barcode.length();
+    if (length != EAN_13_LENGTH && length != UPC_A_LENGTH) {
+      return NOT_A_BARCODE;
+    }
+
+    // Weights alternate 1, 3 from the left of the EAN-13 form, so a UPC-A barcode starts on the other foot
+    long key = 0;
+    int sum = 0;
+    int weight = length == EAN_13_LENGTH ? 1 : 3;
+    for (int index = 0; index < length - 1; index++) {
+      final int digit = barcode.charAt(index) - '0';
+      if (digit < 0 || digit > 9) {
+        return NOT_A_BARCODE;
+      }
+      key = key * 10 + digit;
+      sum += digit * weight;
+      weight ^= 2;
+    }
+
+    final int checkDigit = barcode.charAt(length - 1) - '0';
+    if (checkDigit != (10 - sum % 10) % 10) {
+      return NOT_A_BARCODE;
+    }
+    return key * 10 + checkDigit;
+  }
+
+  public static boolean isValid(CharSequence barcode) {
+    return pack(barcode) != NOT_A_BARCODE;
+  }
+
+  /**
+   * Returns the check digit for the first 12 digits of an EAN-13 barcode.
+   *
+   * @throws IllegalArgumentException if the digits are not 12 decimal digits
+   */
+  public static int checkDigitOf(CharSequence digits) {
+    if (digits.length() != EAN_13_LENGTH - 1) {
+      throw new IllegalArgumentException(String.format("Expected 12 digits but was (%s)", digits));
+    }
+    int sum = 0;
+    for (int index = 0; index < digits.length(); index++) {
+      final int digit = digits.charAt(index) - '0';
+      if (digit < 0 || digit > 9) {
+        throw new IllegalArgumentException(String.format("Expected 12 digits but was (%s)", digits));
+      }
+      sum += digit * ((index & 1) == 0 ? 1 : 3);
+    }
+    return (10 - sum % 10) % 10;
+  }
+}
@@ -0,0 +1,220 @@
+package shopping.cart.kata.catalog;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import shopping.cart.kata.models.Sku;
+import shopping.cart.kata.models.SkuSpecialPricing;
+
+/**
+ * A {@link SkuCatalog} which holds the pricing of each SKU in parallel arrays indexed by ordinal, so reading the
+ * pricing of a scanned item touches a handful of array slots rather than following references from a {@link Sku} to
+ * its {@link SkuSpecialPricing}. IDs are resolved through an open addressing hash index.
+ */
+public final class ArraySkuCatalog implements SkuCatalog {
+  private static final int EMPTY_SLOT = -1;
+
+  private final String[] ids;
+
+  private final int[] hashes;
+
+  private final int[] prices;
+
+  private final int[] promotionalQuantities;
+
+  private final int[] promotionalPrices;
+
+  private final int[] priceDiscounts;
+
+  private final int[] slots;
+
+  private final int mask;
+
+  private ArraySkuCatalog(Builder builder) {
+    final int size = builder.size;
+    this.ids = Arrays.copyOf(builder.ids, size);
+    this.hashes = Arrays.copyOf(builder.hashes, size);
+    this.prices = Arrays.copyOf(builder.prices, size);
+    this.promotionalQuantities = Arrays.copyOf(builder.promotionalQuantities, size);
+    this.promotionalPrices = Arrays.copyOf(builder.promotionalPrices, size);
+    this.priceDiscounts = Arrays.copyOf(builder.priceDiscounts, size);
+    this.slots = Arrays.copyOf(builder.slots, builder.slots.length);
+    this.mask = builder.mask;
+  }
+
+  public static ArraySkuCatalog from(Map<String, Sku> skus) {
+    final Builder builder = builder(skus.size());
+    skus.forEach(builder::add);
+    return builder.build();
+  }
+
+  public static Builder builder() {
+    return new Builder(16);
+  }
+
+  public static Builder builder(int expectedSkus) {
+    return new Builder(expectedSkus);
+  }
+
+  @Override
+  public int size() {
+    return this.ids.length;
+  }
+
+  @Override
+  public int ordinalOf(CharSequence item) {
+    final int hash = hashOf(item);
+    int slot = spread(hash) & this.mask;
+    int ordinal;
+    while ((ordinal = this.slots[slot]) != EMPTY_SLOT) {
+      if (this.hashes[ordinal] == hash && this.ids[ordinal].contentEquals(item)) {
+        return ordinal;
+      }
+      slot = (slot + 1) & this.mask;
+    }
+    return NOT_FOUND;
+  }
+
+  @Override
+  public String itemOf(int ordinal) {
+    return this.ids[ordinal];
+  }
+
+  @Override
+  public int priceOf(int ordinal) {
+    return this.prices[ordinal];
+  }
+
+  @Override
+  public int promotionalQuantityOf(int ordinal) {
+    return this.promotionalQuantities[ordinal];
+  }
+
+  @Override
+  public int promotionalPriceOf(int ordinal) {
+    return this.promotionalPrices[ordinal];
+  }
+
+  @Override
+  public int priceDiscountOf(int ordinal) {
+    return this.priceDiscounts[ordinal];
+  }
+
+  /**
+   * Hashes the characters in the same way as {@link String#hashCode()}, so a String reuses its cached hash and any
+   * other sequence of characters can be looked up without being copied into a String.
+   */
+  static int hashOf(CharSequence item) {
+    if (item instanceof String) {
+      return item.hashCode();
+    }
+    int hash = 0;
+    for (int index = 0; index < item.length(); index++) {
+      hash = 31 * hash + item.charAt(index);
+    }
+    return hash;
+  }
+
+  static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  public static final class Builder implements CatalogBuilder {
+    private String[] ids;
+
+    private int[] hashes;
+
+    private int[] prices;
+
+    private int[] promotionalQuantities;
+
+    private int[] promotionalPrices;
+
+    private int[] priceDiscounts;
+
+    private int[] slots;
+
+    private int mask;
+
+    private int size;
+
+    private Builder(int expectedSkus) {
+      final int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, expectedSkus) - 1) << 1);
+      this.ids = new String[capacity];
+      this.hashes = new int[capacity];
+      this.prices = new int[capacity];
+      this.promotionalQuantities = new int[capacity];
+      this.promotionalPrices = new int[capacity];
+      this.priceDiscounts = new int[capacity];
+      this.slots = newSlots(capacity << 1);
+      this.mask = (capacity << 1) - 1;
+      this.size = 0;
+    }
+
+    public Builder add(String id, Sku sku) {
+      final SkuSpecialPricing skuSpecialPricing = sku.getSkuSpecialPricing();
+      if (skuSpecialPricing == null) {
+        return this.add(id, sku.getPrice(), 0, 0, 0);
+      }
+      return this.add(id, sku.getPrice(), skuSpecialPricing.getQuantity(), skuSpecialPricing.getOverriddenPrice(), skuSpecialPricing.getPriceDiscount());
+    }
+
+    @Override
+    public Builder add(String id, int price, int promotionalQuantity, int promotionalPrice, int priceDiscount) {
+      if (this.size == this.ids.length) {
+        this.grow();
+      }
+
+      final int hash = id.hashCode();
+      int slot = spread(hash) & this.mask;
+      int ordinal;
+      while ((ordinal = this.slots[slot]) != EMPTY_SLOT) {
+        if (this.hashes[ordinal] == hash && this.ids[ordinal].equals(id)) {
+          throw new IllegalArgumentException(String.format("A SKU has already been configured for item (%s)", id));
+        }
+        slot = (slot + 1) & this.mask;
+      }
+
+      ordinal = this.size++;
+      this.ids[ordinal] = id;
+      this.hashes[ordinal] = hash;
+      this.prices[ordinal] = price;
+      this.promotionalQuantities[ordinal] = promotionalQuantity;
+      this.promotionalPrices[ordinal] = promotionalPrice;
+      this.priceDiscounts[ordinal] = priceDiscount;
+      this.slots[slot] = ordinal;
+      return this;
+    }
+
+    @Override
+    public ArraySkuCatalog build() {
+      return new ArraySkuCatalog(this);
+    }
+
+    private void grow() {
+      final int capacity = this.ids.length << 1;
+      this.ids = Arrays.copyOf(this.ids, capacity);
+      this.hashes = Arrays.copyOf(this.hashes, capacity);
+      this.prices = Arrays.copyOf(this.prices, capacity);
+      this.promotionalQuantities = Arrays.copyOf(this.promotionalQuantities, capacity);
+      this.promotionalPrices = Arrays.copyOf(this.promotionalPrices, capacity);
+      this.priceDiscounts = Arrays.copyOf(this.priceDiscounts, capacity);
+      this.slots = newSlots(capacity << 1);
+      this.mask = (capacity << 1) - 1;
+
+      for (int ordinal = 0; ordinal < this.size; ordinal++) {
+        int slot = spread(this.hashes[ordinal]) & this.mask;
+        while (this.slots[slot] != EMPTY_SLOT) {
+          slot = (slot + 1) & this.mask;
+        }
+        this.slots[slot] = ordinal;
+      }
+    }
+
+    private static int[] newSlots(int length) {
+      final int[] slots = new int[length];
+      Arrays.fill(slots, EMPTY_SLOT);
+      return slots;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package shopping.cart.kata.catalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Saves a catalog in the binary format read by {@link MappedSkuCatalog}, keeping the ordinals of the catalog.
+ */
+public final class BinaryCatalogWriter {
+  private BinaryCatalogWriter() {
+  }
+
+  /**
+   * Writes the catalog to a temporary file which then replaces the file at the path, so a till opening the catalog
+   * never sees a partly written file.
+   */
+  public static void write(SkuCatalog catalog, Path path) throws IOException {
+    final ByteBuffer buffer = encode(catalog);
+    final Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(true);
+    }
+    Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  static ByteBuffer encode(SkuCatalog catalog) {
+    final int size = catalog.size();
+    final byte[][] ids = new byte[size][];
+    long idsLength = 0;
+    for (int ordinal = 0; ordinal < size; ordinal++) {
+      ids[ordinal] = catalog.itemOf(ordinal).getBytes(StandardCharsets.UTF_8);
+      idsLength += ids[ordinal].length;
+    }
+
+    final int slotCount = Math.max(16, Integer.highestOneBit(Math.max(1, size) - 1) << 2);
+    final long slotsOffset = MappedSkuCatalog.HEADER_SIZE + (long) size * MappedSkuCatalog.RECORD_SIZE;
+    final long idsOffset = slotsOffset + (long) slotCount * Integer.BYTES;
+    if (idsOffset + idsLength > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(String.format("A catalog of %d SKUs is too large to be saved", size));
+    }
+
+    final ByteBuffer buffer = ByteBuffer.allocate((int) (idsOffset + idsLength));
+    buffer.putInt(0, MappedSkuCatalog.MAGIC)
+        .putInt(4, MappedSkuCatalog.VERSION)
+        .putInt(8, size)
+        .putInt(12, slotCount)
+        .putInt(16, MappedSkuCatalog.HEADER_SIZE)
+        .putInt(20, (int) slotsOffset)
+        .putInt(24, (int) idsOffset)
+        .putInt(28, (int) idsLength);
+
+    final int mask = slotCount - 1;
+    int idOffset = 0;
+    for (int ordinal = 0; ordinal < size; ordinal++) {
+      final String id = catalog.itemOf(ordinal);
+      final int hash = id.hashCode();
+      final int record = MappedSkuCatalog.HEADER_SIZE + ordinal * MappedSkuCatalog.RECORD_SIZE;
+      buffer.putInt(record + MappedSkuCatalog.PRICE, catalog.priceOf(ordinal))
+          .putInt(record + MappedSkuCatalog.PROMOTIONAL_QUANTITY, catalog.promotionalQuantityOf(ordinal))
+          .putInt(record + MappedSkuCatalog.PROMOTIONAL_PRICE, catalog.promotionalPriceOf(ordinal))
+          .putInt(record + MappedSkuCatalog.PRICE_DISCOUNT, catalog.priceDiscountOf(ordinal))
+          .putInt(record + MappedSkuCatalog.HASH, hash)
+          .putInt(record + MappedSkuCatalog.ID_OFFSET, idOffset)
+          .putInt(record + MappedSkuCatalog.ID_LENGTH, ids[ordinal].length)
+          .putInt(record + MappedSkuCatalog.FLAGS, ids[ordinal].length == id.length() ? MappedSkuCatalog.ASCII_ID : 0);
+      buffer.put((int) idsOffset + idOffset, ids[ordinal]);
+      idOffset += ids[ordinal].length;
+
+      int slot = ArraySkuCatalog.spread(hash) & mask;
+      while (buffer.getInt((int) slotsOffset + slot * Integer.BYTES) != 0) {
+        slot = (slot + 1) & mask;
+      }
+      buffer.putInt((int) slotsOffset + slot * Integer.BYTES, ordinal + 1);
+    }
+    return buffer;
+  }
+}
@@ -0,0 +1,17 @@
+package shopping.cart.kata.catalog;
+
+/**
+ * Builds a {@link SkuCatalog} a SKU at a time, so a catalog reader can fill whichever implementation suits the size of
+ * the catalog.
+ */
+public interface CatalogBuilder {
+  /**
+   * Adds a SKU to the catalog. The promotional quantity, price and discount should all be 0 if the SKU has no
+   * promotional pricing.
+   *
+   * @throws IllegalArgumentException if a SKU with the same ID has already been added
+   */
+  CatalogBuilder add(String id, int price, int promotionalQuantity, int promotionalPrice, int priceDiscount);
+
+  SkuCatalog build();
+}
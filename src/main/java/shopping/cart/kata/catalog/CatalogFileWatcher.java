@@ -0,0 +1,82 @@
+package shopping.cart.kata.catalog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.function.Consumer;
+
+/**
+ * Publishes a new version of a catalog whenever its file is replaced by moving another file over it, as
+ * {@link BinaryCatalogWriter} does. Changes made to the file in place are ignored, since the file could be read while
+ * it is only partly written and publish a catalog with SKUs missing. A replacement which cannot be read or published,
+ * such as one whose barcodes cannot be indexed, is reported to the error handler and the current version is kept until
+ * the next replacement.
+ *
+ * <p>Replacing the file with a move is also safe for mapped catalogs: baskets pinned to the previous version keep
+ * reading the replaced file until they end.
+ */
+public final class CatalogFileWatcher implements Closeable {
+  private final Path file;
+
+  private final CatalogPublisher publisher;
+
+  private final Consumer<Exception> errorHandler;
+
+  private final WatchService watchService;
+
+  private final Thread watcher;
+
+  public CatalogFileWatcher(Path file, CatalogPublisher publisher, Consumer<Exception> errorHandler) throws IOException {
+    this.file = file.toAbsolutePath();
+    this.publisher = publisher;
+    this.errorHandler = errorHandler;
+    this.watchService = FileSystems.getDefault().newWatchService();
+    // A file moved into the directory is reported as created, whereas writes to the file in place are modifications
+    this.file.getParent().register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE);
+    this.watcher = new Thread(this::watch, "catalog-file-watcher");
+    this.watcher.setDaemon(true);
+  }
+
+  public void start() {
+    this.watcher.start();
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.watchService.close();
+  }
+
+  private void watch() {
+    try {
+      while (true) {
+        final WatchKey key = this.watchService.take();
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+          changed |= this.file.getFileName().equals(event.context());
+        }
+        if (changed) {
+          this.reload();
+        }
+        key.reset();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ClosedWatchServiceException e) {
+      // The watcher has been closed
+    }
+  }
+
+  private void reload() {
+    try {
+      this.publisher.publish(SkuCatalog.read(this.file));
+    } catch (IOException | RuntimeException e) {
+      this.errorHandler.accept(e);
+    }
+  }
+}
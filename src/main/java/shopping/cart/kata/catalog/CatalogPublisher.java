@@ -0,0 +1,56 @@
+package shopping.cart.kata.catalog;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import shopping.cart.kata.barcode.BarcodeIndex;
+
+/**
+ * Publishes new versions of a catalog to running tills without stopping them. Catalogs are immutable, so publishing a
+ * version is a single atomic swap and reading the current version never locks. A basket pins the version current when
+ * it starts and keeps pricing against it, so a price change applies from the next basket rather than part way through
+ * one.
+ */
+public final class CatalogPublisher {
+  private final boolean indexingBarcodes;
+
+  private final AtomicReference<CatalogVersion> current;
+
+  public CatalogPublisher(SkuCatalog catalog) {
+    this(catalog, false);
+  }
+
+  /**
+   * Creates a publisher which, when indexing barcodes, builds the {@link BarcodeIndex} of each catalog before it is
+   * published. A catalog whose barcodes cannot be indexed is rejected and never reaches the tills.
+   *
+   * @throws IllegalArgumentException if barcodes are indexed and two items in the catalog are the same barcode
+   */
+  public CatalogPublisher(SkuCatalog catalog, boolean indexingBarcodes) {
+    this.indexingBarcodes = indexingBarcodes;
+    this.current = new AtomicReference<>(new CatalogVersion(1, catalog, this.barcodesOf(catalog)));
+  }
+
+  public boolean isIndexingBarcodes() {
+    return this.indexingBarcodes;
+  }
+
+  public CatalogVersion current() {
+    return this.current.get();
+  }
+
+  /**
+   * Makes the catalog the current version for baskets started from now on, and returns its version.
+   *
+   * @throws IllegalArgumentException if barcodes are indexed and two items in the catalog are the same barcode, in
+   * which case the current version is kept
+   */
+  public CatalogVersion publish(SkuCatalog catalog) {
+    // Built outside the update, which may be retried
+    final BarcodeIndex barcodes = this.barcodesOf(catalog);
+    return this.current.updateAndGet(previous -> new CatalogVersion(previous.getVersion() + 1, catalog, barcodes));
+  }
+
+  private BarcodeIndex barcodesOf(SkuCatalog catalog) {
+    return this.indexingBarcodes ? BarcodeIndex.of(catalog) : null;
+  }
+}
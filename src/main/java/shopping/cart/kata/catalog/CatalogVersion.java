@@ -0,0 +1,40 @@
+package shopping.cart.kata.catalog;
+
+import shopping.cart.kata.barcode.BarcodeIndex;
+
+/**
+ * A catalog as published by a {@link CatalogPublisher}, numbered in the order it was published.
+ */
+public final class CatalogVersion {
+  private final long version;
+
+  private final SkuCatalog catalog;
+
+  private final BarcodeIndex barcodes;
+
+  CatalogVersion(long version, SkuCatalog catalog, BarcodeIndex barcodes) {
+    this.version = version;
+    this.catalog = catalog;
+    this.barcodes = barcodes;
+  }
+
+  public long getVersion() {
+    return this.version;
+  }
+
+  public SkuCatalog getCatalog() {
+    return this.catalog;
+  }
+
+  /**
+   * Returns the barcode index of the catalog, which was built before the catalog was published.
+   *
+   * @throws IllegalStateException if the catalog was published without indexing its barcodes
+   */
+  public BarcodeIndex getBarcodes() {
+    if (this.barcodes == null) {
+      throw new IllegalStateException("The catalog was published without indexing its barcodes");
+    }
+    return this.barcodes;
+  }
+}
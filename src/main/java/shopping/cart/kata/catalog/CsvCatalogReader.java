@@ -0,0 +1,90 @@
+package shopping.cart.kata.catalog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import shopping.cart.kata.money.PenceAccumulator;
+
+/**
+ * Reads a catalog from a CSV file with a line per SKU of the form {@code id,price[,promotional quantity,promotional
+ * price]}. Blank lines and lines starting with {@code #} are ignored. The same rules are applied as when the SKUs are
+ * configured interactively, and IDs are stored in uppercase.
+ */
+public final class CsvCatalogReader {
+  private CsvCatalogReader() {
+  }
+
+  public static SkuCatalog read(Path path) throws IOException {
+    return read(path, ArraySkuCatalog.builder());
+  }
+
+  /**
+   * Reads the SKUs into the builder, such as an {@link OffHeapSkuCatalog.Builder} for a catalog too large to hold on
+   * the heap.
+   */
+  public static SkuCatalog read(Path path, CatalogBuilder builder) throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      return read(reader, builder);
+    }
+  }
+
+  public static SkuCatalog read(BufferedReader reader) throws IOException {
+    return read(reader, ArraySkuCatalog.builder());
+  }
+
+  public static SkuCatalog read(BufferedReader reader, CatalogBuilder builder) throws IOException {
+    String line;
+    int lineNumber = 0;
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      final String trimmed = line.trim();
+      if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+        continue;
+      }
+
+      final String[] fields = trimmed.split(",", -1);
+      if (fields.length != 2 && fields.length != 4) {
+        throw new IllegalArgumentException(String.format("Line %d must contain an ID, a price and optionally a promotional quantity and price", lineNumber));
+      }
+
+      final String id = fields[0].trim().toUpperCase(Locale.ROOT);
+      if (id.isEmpty()) {
+        throw new IllegalArgumentException(String.format("Line %d has no ID", lineNumber));
+      }
+
+      final int price = parsePositiveInt(fields[1], lineNumber, "price");
+      if (fields.length == 2) {
+        builder.add(id, price, 0, 0, 0);
+        continue;
+      }
+
+      final int promotionalQuantity = parsePositiveInt(fields[2], lineNumber, "promotional quantity");
+      final int promotionalPrice = parsePositiveInt(fields[3], lineNumber, "promotional price");
+      final long pricePriorToDiscount = PenceAccumulator.priceOf(price, promotionalQuantity);
+      if (!PenceAccumulator.fitsInInt(pricePriorToDiscount)) {
+        throw new IllegalArgumentException(String.format("The full price of the promotional quantity on line %d is too large", lineNumber));
+      }
+      if (promotionalPrice >= pricePriorToDiscount) {
+        throw new IllegalArgumentException(String.format("The promotional price on line %d must be less than the full price of all items", lineNumber));
+      }
+      builder.add(id, price, promotionalQuantity, promotionalPrice, (int) (pricePriorToDiscount - promotionalPrice));
+    }
+    return builder.build();
+  }
+
+  private static int parsePositiveInt(String field, int lineNumber, String name) {
+    final int value;
+    try {
+      value = Integer.parseInt(field.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(String.format("The %s on line %d is not a number", name, lineNumber));
+    }
+    if (value <= 0) {
+      throw new IllegalArgumentException(String.format("The %s on line %d must be greater than 0", name, lineNumber));
+    }
+    return value;
+  }
+}
@@ -0,0 +1,262 @@
+package shopping.cart.kata.catalog;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import shopping.cart.kata.money.PenceAccumulator;
+
+/**
+ * Reads a catalog from a JSON array with an object per SKU, using the field names of the models:
+ *
+ * <pre>
+ * [
+ *   {"id": "A", "price": 50, "skuSpecialPricing": {"quantity": 3, "overriddenPrice": 130}},
+ *   {"id": "C", "price": 20}
+ * ]
+ * </pre>
+ *
+ * Unknown fields are ignored. The same rules are applied as when the SKUs are configured interactively, and IDs are
+ * stored in uppercase.
+ */
+public final class JsonCatalogReader {
+  private final String json;
+
+  private int position;
+
+  private JsonCatalogReader(String json) {
+    this.json = json;
+    this.position = 0;
+  }
+
+  public static SkuCatalog read(Path path) throws IOException {
+    return read(Files.readString(path, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @throws IllegalArgumentException if the JSON is malformed or a SKU is invalid
+   */
+  public static SkuCatalog read(String json) {
+    return new JsonCatalogReader(json).readCatalog();
+  }
+
+  private SkuCatalog readCatalog() {
+    final ArraySkuCatalog.Builder builder = ArraySkuCatalog.builder();
+    this.expect('[');
+    if (!this.consume(']')) {
+      do {
+        this.readSku(builder);
+      } while (this.consume(','));
+      this.expect(']');
+    }
+    this.skipWhitespace();
+    if (this.position != this.json.length()) {
+      throw this.error("Unexpected content after the catalog");
+    }
+    return builder.build();
+  }
+
+  private void readSku(ArraySkuCatalog.Builder builder) {
+    String id = null;
+    int price = 0;
+    int promotionalQuantity = 0;
+    int promotionalPrice = 0;
+
+    this.expect('{');
+    if (!this.consume('}')) {
+      do {
+        final String field = this.readString();
+        this.expect(':');
+        switch (field) {
+          case "id":
+            id = this.readString().trim().toUpperCase(Locale.ROOT);
+            break;
+          case "price":
+            price = this.readInt();
+            break;
+          case "skuSpecialPricing":
+            if (this.consumeLiteral("null")) {
+              break;
+            }
+            this.expect('{');
+            if (!this.consume('}')) {
+              do {
+                final String pricingField = this.readString();
+                this.expect(':');
+                if ("quantity".equals(pricingField)) {
+                  promotionalQuantity = this.readInt();
+                } else if ("overriddenPrice".equals(pricingField)) {
+                  promotionalPrice = this.readInt();
+                } else {
+                  this.skipValue();
+                }
+              } while (this.consume(','));
+              this.expect('}');
+            }
+            if (promotionalQuantity == 0 && promotionalPrice == 0) {
+              throw this.error("The promotional pricing must have a quantity and an overridden price");
+            }
+            break;
+          default:
+            this.skipValue();
+        }
+      } while (this.consume(','));
+      this.expect('}');
+    }
+
+    if (id == null || id.isEmpty()) {
+      throw this.error("A SKU has no ID");
+    }
+    if (price <= 0) {
+      throw new IllegalArgumentException(String.format("The price of item (%s) must be greater than 0", id));
+    }
+    if (promotionalQuantity == 0 && promotionalPrice == 0) {
+      builder.add(id, price, 0, 0, 0);
+      return;
+    }
+    if (promotionalQuantity <= 0 || promotionalPrice <= 0) {
+      throw new IllegalArgumentException(String.format("The promotional quantity and price of item (%s) must be greater than 0", id));
+    }
+    final long pricePriorToDiscount = PenceAccumulator.priceOf(price, promotionalQuantity);
+    if (!PenceAccumulator.fitsInInt(pricePriorToDiscount)) {
+      throw new IllegalArgumentException(String.format("The full price of the promotional quantity of item (%s) is too large", id));
+    }
+    if (promotionalPrice >= pricePriorToDiscount) {
+      throw new IllegalArgumentException(String.format("The promotional price of item (%s) must be less than the full price of all items", id));
+    }
+    builder.add(id, price, promotionalQuantity, promotionalPrice, (int) (pricePriorToDiscount - promotionalPrice));
+  }
+
+  private String readString() {
+    this.expect('"');
+    final StringBuilder value = new StringBuilder();
+    while (this.position < this.json.length()) {
+      final char character = this.json.charAt(this.position++);
+      if (character == '"') {
+        return value.toString();
+      }
+      if (character != '\\') {
+        value.append(character);
+        continue;
+      }
+      if (this.position == this.json.length()) {
+        break;
+      }
+      final char escaped = this.json.charAt(this.position++);
+      switch (escaped) {
+        case 'b':
+          value.append('\b');
+          break;
+        case 'f':
+          value.append('\f');
+          break;
+        case 'n':
+          value.append('\n');
+          break;
+        case 'r':
+          value.append('\r');
+          break;
+        case 't':
+          value.append('\t');
+          break;
+        case 'u':
+          if (this.position + 4 > this.json.length()) {
+            throw this.error("Incomplete unicode escape");
+          }
+          try {
+            value.append((char) Integer.parseInt(this.json.substring(this.position, this.position + 4), 16));
+          } catch (NumberFormatException e) {
+            throw this.error("Invalid unicode escape");
+          }
+          this.position += 4;
+          break;
+        default:
+          value.append(escaped);
+      }
+    }
+    throw this.error("Unterminated string");
+  }
+
+  private int readInt() {
+    this.skipWhitespace();
+    final int start = this.position;
+    if (this.position < this.json.length() && this.json.charAt(this.position) == '-') {
+      this.position++;
+    }
+    while (this.position < this.json.length() && Character.isDigit(this.json.charAt(this.position))) {
+      this.position++;
+    }
+    try {
+      return Integer.parseInt(this.json.substring(start, this.position));
+    } catch (NumberFormatException e) {
+      throw this.error("Expected a whole number");
+    }
+  }
+
+  private void skipValue() {
+    this.skipWhitespace();
+    if (this.position == this.json.length()) {
+      throw this.error("Expected a value");
+    }
+    final char character = this.json.charAt(this.position);
+    if (character == '"') {
+      this.readString();
+    } else if (character == '{' || character == '[') {
+      final char close = character == '{' ? '}' : ']';
+      this.position++;
+      if (!this.consume(close)) {
+        do {
+          if (close == '}') {
+            this.readString();
+            this.expect(':');
+          }
+          this.skipValue();
+        } while (this.consume(','));
+        this.expect(close);
+      }
+    } else if (!this.consumeLiteral("true") && !this.consumeLiteral("false") && !this.consumeLiteral("null")) {
+      final int start = this.position;
+      while (this.position < this.json.length() && "+-.eE0123456789".indexOf(this.json.charAt(this.position)) >= 0) {
+        this.position++;
+      }
+      if (this.position == start) {
+        throw this.error("Expected a value");
+      }
+    }
+  }
+
+  private boolean consumeLiteral(String literal) {
+    this.skipWhitespace();
+    if (this.json.startsWith(literal, this.position)) {
+      this.position += literal.length();
+      return true;
+    }
+    return false;
+  }
+
+  private boolean consume(char expected) {
+    this.skipWhitespace();
+    if (this.position < this.json.length() && this.json.charAt(this.position) == expected) {
+      this.position++;
+      return true;
+    }
+    return false;
+  }
+
+  private void expect(char expected) {
+    if (!this.consume(expected)) {
+      throw this.error(String.format("Expected '%s'", expected));
+    }
+  }
+
+  private void skipWhitespace() {
+    while (this.position < this.json.length() && Character.isWhitespace(this.json.charAt(this.position))) {
+      this.position++;
+    }
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(String.format("%s at character %d of the catalog", message, this.position));
+  }
+}
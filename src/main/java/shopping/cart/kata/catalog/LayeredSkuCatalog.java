@@ -0,0 +1,288 @@
+package shopping.cart.kata.catalog;
+
+import java.util.Arrays;
+
+/**
+ * A {@link SkuCatalog} made of a shared base catalog and a small overlay of the SKUs one store prices differently or
+ * sells on its own, so thousands of stores can share one copy of the national catalog. Overridden SKUs keep their
+ * ordinal in the base, and SKUs only sold by the store are numbered after the base's SKUs. A store with no overrides
+ * reads straight through to the base, and otherwise a SKU which is not overridden costs a single probe of the
+ * overlay's index before reading the base. The base can itself be layered, such as a regional overlay on the national
+ * catalog.
+ *
+ * <p>Once an overlay holds a sizeable share of the catalog a dense copy is cheaper to read than the layers, which
+ * {@link #compact()} and {@link #flatten()} build.
+ */
+public final class LayeredSkuCatalog implements SkuCatalog {
+  private static final int EMPTY_SLOT = -1;
+
+  private static final int FLATTEN_RATIO = 8;
+
+  private final SkuCatalog base;
+
+  private final int baseSize;
+
+  private final ArraySkuCatalog additions;
+
+  private final int overrides;
+
+  private final int[] slots;
+
+  private final int[] positions;
+
+  private final int mask;
+
+  private final int[] prices;
+
+  private final int[] promotionalQuantities;
+
+  private final int[] promotionalPrices;
+
+  private final int[] priceDiscounts;
+
+  private LayeredSkuCatalog(Builder builder) {
+    this.base = builder.base;
+    this.baseSize = builder.base.size();
+    this.additions = builder.additions.build();
+    this.overrides = builder.overrides;
+    this.slots = Arrays.copyOf(builder.slots, builder.slots.length);
+    this.positions = Arrays.copyOf(builder.positions, builder.positions.length);
+    this.mask = builder.mask;
+    this.prices = Arrays.copyOf(builder.prices, builder.overrides);
+    this.promotionalQuantities = Arrays.copyOf(builder.promotionalQuantities, builder.overrides);
+    this.promotionalPrices = Arrays.copyOf(builder.promotionalPrices, builder.overrides);
+    this.priceDiscounts = Arrays.copyOf(builder.priceDiscounts, builder.overrides);
+  }
+
+  public static Builder builder(SkuCatalog base) {
+    return new Builder(base);
+  }
+
+  public SkuCatalog getBase() {
+    return this.base;
+  }
+
+  /**
+   * Returns the number of SKUs of the base whose pricing is overridden.
+   */
+  public int overrideCount() {
+    return this.overrides;
+  }
+
+  /**
+   * Returns the number of SKUs only sold by this layer.
+   */
+  public int additionCount() {
+    return this.additions.size();
+  }
+
+  @Override
+  public int size() {
+    return this.baseSize + this.additions.size();
+  }
+
+  @Override
+  public int ordinalOf(CharSequence item) {
+    final int ordinal = this.base.ordinalOf(item);
+    if (ordinal != NOT_FOUND || this.additions.size() == 0) {
+      return ordinal;
+    }
+    final int addition = this.additions.ordinalOf(item);
+    return addition == NOT_FOUND ? NOT_FOUND : this.baseSize + addition;
+  }
+
+  @Override
+  public String itemOf(int ordinal) {
+    return ordinal < this.baseSize ? this.base.itemOf(ordinal) : this.additions.itemOf(ordinal - this.baseSize);
+  }
+
+  @Override
+  public int priceOf(int ordinal) {
+    if (ordinal >= this.baseSize) {
+      return this.additions.priceOf(ordinal - this.baseSize);
+    }
+    final int position = this.overrideOf(ordinal);
+    return position == EMPTY_SLOT ? this.base.priceOf(ordinal) : this.prices[position];
+  }
+
+  @Override
+  public int promotionalQuantityOf(int ordinal) {
+    if (ordinal >= this.baseSize) {
+      return this.additions.promotionalQuantityOf(ordinal - this.baseSize);
+    }
+    final int position = this.overrideOf(ordinal);
+    return position == EMPTY_SLOT ? this.base.promotionalQuantityOf(ordinal) : this.promotionalQuantities[position];
+  }
+
+  @Override
+  public int promotionalPriceOf(int ordinal) {
+    if (ordinal >= this.baseSize) {
+      return this.additions.promotionalPriceOf(ordinal - this.baseSize);
+    }
+    final int position = this.overrideOf(ordinal);
+    return position == EMPTY_SLOT ? this.base.promotionalPriceOf(ordinal) : this.promotionalPrices[position];
+  }
+
+  @Override
+  public int priceDiscountOf(int ordinal) {
+    if (ordinal >= this.baseSize) {
+      return this.additions.priceDiscountOf(ordinal - this.baseSize);
+    }
+    final int position = this.overrideOf(ordinal);
+    return position == EMPTY_SLOT ? this.base.priceDiscountOf(ordinal) : this.priceDiscounts[position];
+  }
+
+  /**
+   * Copies the layers into a dense catalog with the same ordinals, so reading a SKU no longer goes through the
+   * overlay.
+   */
+  public ArraySkuCatalog flatten() {
+    final ArraySkuCatalog.Builder builder = ArraySkuCatalog.builder(this.size());
+    for (int ordinal = 0; ordinal < this.size(); ordinal++) {
+      builder.add(this.itemOf(ordinal), this.priceOf(ordinal), this.promotionalQuantityOf(ordinal), this.promotionalPriceOf(ordinal), this.priceDiscountOf(ordinal));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Returns a flattened copy of the catalog once its overlay has grown to more than an eighth of the catalog, where
+   * the overlay saves little memory and costs a probe on every read, or this catalog otherwise.
+   */
+  public SkuCatalog compact() {
+    return (long) (this.overrides + this.additions.size()) * FLATTEN_RATIO > this.size() ? this.flatten() : this;
+  }
+
+  /**
+   * Returns the position of the ordinal's overridden pricing, or {@link #EMPTY_SLOT} if the base's pricing applies.
+   */
+  private int overrideOf(int ordinal) {
+    if (this.overrides == 0) {
+      return EMPTY_SLOT;
+    }
+    int slot = spread(ordinal) & this.mask;
+    int key;
+    while ((key = this.slots[slot]) != EMPTY_SLOT) {
+      if (key == ordinal) {
+        return this.positions[slot];
+      }
+      slot = (slot + 1) & this.mask;
+    }
+    return EMPTY_SLOT;
+  }
+
+  private static int spread(int ordinal) {
+    final int hash = ordinal * 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Builds the overlay of a store. Adding a SKU which is in the base overrides its pricing, and adding any other SKU
+   * sells it in this store only, so a CSV file of a store's differences can be read straight into the builder.
+   */
+  public static final class Builder implements CatalogBuilder {
+    private final SkuCatalog base;
+
+    private final ArraySkuCatalog.Builder additions;
+
+    private int[] slots;
+
+    private int[] positions;
+
+    private int mask;
+
+    private int overrides;
+
+    private int[] prices;
+
+    private int[] promotionalQuantities;
+
+    private int[] promotionalPrices;
+
+    private int[] priceDiscounts;
+
+    private Builder(SkuCatalog base) {
+      this.base = base;
+      this.additions = ArraySkuCatalog.builder();
+      this.slots = newSlots(16);
+      this.positions = new int[16];
+      this.mask = 15;
+      this.overrides = 0;
+      this.prices = new int[8];
+      this.promotionalQuantities = new int[8];
+      this.promotionalPrices = new int[8];
+      this.priceDiscounts = new int[8];
+    }
+
+    /**
+     * @throws IllegalArgumentException if the SKU has already been added to this overlay
+     */
+    @Override
+    public Builder add(String id, int price, int promotionalQuantity, int promotionalPrice, int priceDiscount) {
+      final int ordinal = this.base.ordinalOf(id);
+      if (ordinal == NOT_FOUND) {
+        this.additions.add(id, price, promotionalQuantity, promotionalPrice, priceDiscount);
+        return this;
+      }
+
+      int slot = spread(ordinal) & this.mask;
+      while (this.slots[slot] != EMPTY_SLOT) {
+        if (this.slots[slot] == ordinal) {
+          throw new IllegalArgumentException(String.format("A SKU has already been configured for item (%s)", id));
+        }
+        slot = (slot + 1) & this.mask;
+      }
+
+      if (this.overrides == this.prices.length) {
+        final int capacity = this.prices.length << 1;
+        this.prices = Arrays.copyOf(this.prices, capacity);
+        this.promotionalQuantities = Arrays.copyOf(this.promotionalQuantities, capacity);
+        this.promotionalPrices = Arrays.copyOf(this.promotionalPrices, capacity);
+        this.priceDiscounts = Arrays.copyOf(this.priceDiscounts, capacity);
+      }
+      final int position = this.overrides++;
+      this.prices[position] = price;
+      this.promotionalQuantities[position] = promotionalQuantity;
+      this.promotionalPrices[position] = promotionalPrice;
+      this.priceDiscounts[position] = priceDiscount;
+      this.slots[slot] = ordinal;
+      this.positions[slot] = position;
+
+      if (this.overrides * 2 > this.mask) {
+        this.growSlots();
+      }
+      return this;
+    }
+
+    @Override
+    public LayeredSkuCatalog build() {
+      return new LayeredSkuCatalog(this);
+    }
+
+    private void growSlots() {
+      final int[] slots = this.slots;
+      final int[] positions = this.positions;
+      final int length = slots.length << 1;
+      this.slots = newSlots(length);
+      this.positions = new int[length];
+      this.mask = length - 1;
+
+      for (int index = 0; index < slots.length; index++) {
+        if (slots[index] == EMPTY_SLOT) {
+          continue;
+        }
+        int slot = spread(slots[index]) & this.mask;
+        while (this.slots[slot] != EMPTY_SLOT) {
+          slot = (slot + 1) & this.mask;
+        }
+        this.slots[slot] = slots[index];
+        this.positions[slot] = positions[index];
+      }
+    }
+
+    private static int[] newSlots(int length) {
+      final int[] slots = new int[length];
+      Arrays.fill(slots, EMPTY_SLOT);
+      return slots;
+    }
+  }
+}
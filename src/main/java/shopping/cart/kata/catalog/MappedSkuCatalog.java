@@ -0,0 +1,169 @@
+package shopping.cart.kata.catalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link SkuCatalog} read in place from a catalog file written by {@link BinaryCatalogWriter}. Opening the catalog
+ * maps the file and checks its header, so startup takes the same time however many SKUs the file holds, and pricing is
+ * read straight from the mapped bytes rather than being copied onto the heap.
+ *
+ * <p>The file starts with a header of the format version, the number of SKUs and the positions of three sections:
+ * a fixed width record of the pricing of each SKU in ordinal order, an open addressing hash index of ordinals, and the
+ * UTF-8 IDs.
+ */
+public final class MappedSkuCatalog implements SkuCatalog {
+  static final int MAGIC = 0x534B5543;
+
+  static final int VERSION = 1;
+
+  static final int HEADER_SIZE = 32;
+
+  static final int RECORD_SIZE = 32;
+
+  static final int PRICE = 0;
+
+  static final int PROMOTIONAL_QUANTITY = 4;
+
+  static final int PROMOTIONAL_PRICE = 8;
+
+  static final int PRICE_DISCOUNT = 12;
+
+  static final int HASH = 16;
+
+  static final int ID_OFFSET = 20;
+
+  static final int ID_LENGTH = 24;
+
+  static final int FLAGS = 28;
+
+  static final int ASCII_ID = 1;
+
+  private final ByteBuffer buffer;
+
+  private final int size;
+
+  private final int mask;
+
+  private final int slotsOffset;
+
+  private final int idsOffset;
+
+  MappedSkuCatalog(ByteBuffer buffer) {
+    if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("The buffer does not contain a SKU catalog");
+    }
+    if (buffer.getInt(4) != VERSION) {
+      throw new IllegalArgumentException(String.format("Version %d SKU catalogs are not supported", buffer.getInt(4)));
+    }
+
+    this.buffer = buffer;
+    this.size = buffer.getInt(8);
+    final int slotCount = buffer.getInt(12);
+    this.slotsOffset = buffer.getInt(20);
+    this.idsOffset = buffer.getInt(24);
+    final int idsLength = buffer.getInt(28);
+    if (this.size < 0 || Integer.bitCount(slotCount) != 1 || slotCount < this.size
+        || buffer.getInt(16) != HEADER_SIZE
+        || this.slotsOffset != HEADER_SIZE + (long) this.size * RECORD_SIZE
+        || this.idsOffset != this.slotsOffset + (long) slotCount * Integer.BYTES
+        || (long) this.idsOffset + idsLength > buffer.limit()) {
+      throw new IllegalArgumentException("The SKU catalog is truncated or corrupt");
+    }
+    this.mask = slotCount - 1;
+  }
+
+  /**
+   * Maps the catalog file. The mapping stays valid after the file is closed, for as long as the catalog is reachable.
+   *
+   * @throws IOException if the file cannot be read or is not a SKU catalog
+   */
+  public static MappedSkuCatalog open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException(String.format("%s is too large to be a SKU catalog", path));
+      }
+      return new MappedSkuCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    } catch (IllegalArgumentException e) {
+      throw new IOException(String.format("%s is not a valid SKU catalog", path), e);
+    }
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public int ordinalOf(CharSequence item) {
+    final int hash = ArraySkuCatalog.hashOf(item);
+    int slot = ArraySkuCatalog.spread(hash) & this.mask;
+    int entry;
+    while ((entry = this.buffer.getInt(this.slotsOffset + slot * Integer.BYTES)) != 0) {
+      final int ordinal = entry - 1;
+      if (this.buffer.getInt(recordOffset(ordinal) + HASH) == hash && this.idEquals(ordinal, item)) {
+        return ordinal;
+      }
+      slot = (slot + 1) & this.mask;
+    }
+    return NOT_FOUND;
+  }
+
+  @Override
+  public String itemOf(int ordinal) {
+    final int record = recordOffset(ordinal);
+    final byte[] id = new byte[this.buffer.getInt(record + ID_LENGTH)];
+    this.buffer.get(this.idsOffset + this.buffer.getInt(record + ID_OFFSET), id);
+    return new String(id, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public int priceOf(int ordinal) {
+    return this.buffer.getInt(recordOffset(ordinal) + PRICE);
+  }
+
+  @Override
+  public int promotionalQuantityOf(int ordinal) {
+    return this.buffer.getInt(recordOffset(ordinal) + PROMOTIONAL_QUANTITY);
+  }
+
+  @Override
+  public int promotionalPriceOf(int ordinal) {
+    return this.buffer.getInt(recordOffset(ordinal) + PROMOTIONAL_PRICE);
+  }
+
+  @Override
+  public int priceDiscountOf(int ordinal) {
+    return this.buffer.getInt(recordOffset(ordinal) + PRICE_DISCOUNT);
+  }
+
+  /**
+   * Compares an ASCII ID byte by byte with the item, so looking up an item does not decode the ID.
+   */
+  private boolean idEquals(int ordinal, CharSequence item) {
+    final int record = recordOffset(ordinal);
+    if ((this.buffer.getInt(record + FLAGS) & ASCII_ID) == 0) {
+      return this.itemOf(ordinal).contentEquals(item);
+    }
+
+    final int length = this.buffer.getInt(record + ID_LENGTH);
+    if (length != item.length()) {
+      return false;
+    }
+    final int offset = this.idsOffset + this.buffer.getInt(record + ID_OFFSET);
+    for (int index = 0; index < length; index++) {
+      if (this.buffer.get(offset + index) != item.charAt(index)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int recordOffset(int ordinal) {
+    return HEADER_SIZE + ordinal * RECORD_SIZE;
+  }
+}
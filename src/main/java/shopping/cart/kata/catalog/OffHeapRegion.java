@@ -0,0 +1,116 @@
+package shopping.cart.kata.catalog;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * A growable run of direct memory addressed by a long. A single {@link ByteBuffer} cannot hold more than 2GB, so the
+ * region is split into fixed size chunks, and only the last chunk is grown (by copying) until it reaches the full
+ * chunk size. Values are read and written at offsets which never cross a chunk, which callers ensure by keeping
+ * fixed width values aligned and by {@link #reserve(long, int) reserving} space for variable width ones.
+ */
+final class OffHeapRegion {
+  static final int CHUNK_SHIFT = 27;
+
+  static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  private static final int MINIMUM_CHUNK_SIZE = 4096;
+
+  private ByteBuffer[] chunks;
+
+  private long capacity;
+
+  OffHeapRegion(long capacity) {
+    this.chunks = new ByteBuffer[0];
+    this.capacity = 0;
+    this.ensureCapacity(capacity);
+  }
+
+  /**
+   * Grows the region so it can hold at least the number of bytes. New memory is zeroed.
+   */
+  void ensureCapacity(long required) {
+    if (required <= this.capacity) {
+      return;
+    }
+
+    final int lastChunk = this.chunks.length - 1;
+    if (lastChunk >= 0 && this.chunks[lastChunk].capacity() < CHUNK_SIZE) {
+      final long lastStart = (long) lastChunk << CHUNK_SHIFT;
+      final int grownSize = chunkSizeFor(Math.min(CHUNK_SIZE, required - lastStart), this.chunks[lastChunk].capacity());
+      final ByteBuffer grown = allocate(grownSize);
+      grown.put(0, this.chunks[lastChunk], 0, this.chunks[lastChunk].capacity());
+      this.chunks[lastChunk] = grown;
+      this.capacity = lastStart + grownSize;
+    }
+
+    while (this.capacity < required) {
+      final int chunkSize = chunkSizeFor(Math.min(CHUNK_SIZE, required - this.capacity), MINIMUM_CHUNK_SIZE);
+      this.chunks = Arrays.copyOf(this.chunks, this.chunks.length + 1);
+      this.chunks[this.chunks.length - 1] = allocate(chunkSize);
+      this.capacity += chunkSize;
+    }
+  }
+
+  /**
+   * Returns where a value of the length can be written at or after the position without crossing a chunk, growing the
+   * region to hold it.
+   *
+   * @throws IllegalArgumentException if the value is longer than a chunk
+   */
+  long reserve(long position, int length) {
+    if (length > CHUNK_SIZE) {
+      throw new IllegalArgumentException(String.format("A value of %d bytes cannot be held off heap", length));
+    }
+    final long start = (position & CHUNK_MASK) + length > CHUNK_SIZE ? ((position >>> CHUNK_SHIFT) + 1) << CHUNK_SHIFT : position;
+    this.ensureCapacity(start + length);
+    return start;
+  }
+
+  long capacity() {
+    return this.capacity;
+  }
+
+  int getInt(long offset) {
+    return this.chunks[(int) (offset >>> CHUNK_SHIFT)].getInt((int) offset & CHUNK_MASK);
+  }
+
+  void putInt(long offset, int value) {
+    this.chunks[(int) (offset >>> CHUNK_SHIFT)].putInt((int) offset & CHUNK_MASK, value);
+  }
+
+  long getLong(long offset) {
+    return this.chunks[(int) (offset >>> CHUNK_SHIFT)].getLong((int) offset & CHUNK_MASK);
+  }
+
+  void putLong(long offset, long value) {
+    this.chunks[(int) (offset >>> CHUNK_SHIFT)].putLong((int) offset & CHUNK_MASK, value);
+  }
+
+  byte get(long offset) {
+    return this.chunks[(int) (offset >>> CHUNK_SHIFT)].get((int) offset & CHUNK_MASK);
+  }
+
+  void get(long offset, byte[] destination) {
+    this.chunks[(int) (offset >>> CHUNK_SHIFT)].get((int) offset & CHUNK_MASK, destination);
+  }
+
+  void put(long offset, byte[] source) {
+    this.chunks[(int) (offset >>> CHUNK_SHIFT)].put((int) offset & CHUNK_MASK, source);
+  }
+
+  private static int chunkSizeFor(long required, int current) {
+    int size = current;
+    while (size < required) {
+      size <<= 1;
+    }
+    return size;
+  }
+
+  private static ByteBuffer allocate(int size) {
+    return ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+  }
+}
@@ -0,0 +1,276 @@
+package shopping.cart.kata.catalog;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link SkuCatalog} held in direct memory, for catalogs of tens of millions of SKUs such as the pricing of every
+ * store on a head office server. The pricing of each SKU is a fixed width record, IDs are resolved through an open
+ * addressing hash index of ordinals and the IDs themselves are UTF-8 bytes, all outside the heap. The heap only holds a
+ * handful of buffers however large the catalog is, so the catalog adds nothing for the garbage collector to trace and
+ * its footprint is a predictable number of bytes per SKU. The memory is released once the catalog is unreachable.
+ *
+ * <p>Each record holds the price, promotional quantity, promotional price and discount, the hash of the ID, and the
+ * length and position of the ID's bytes, in the same way as the records of a {@link MappedSkuCatalog}.
+ */
+public final class OffHeapSkuCatalog implements SkuCatalog {
+  static final int RECORD_SIZE = 32;
+
+  static final int PRICE = 0;
+
+  static final int PROMOTIONAL_QUANTITY = 4;
+
+  static final int PROMOTIONAL_PRICE = 8;
+
+  static final int PRICE_DISCOUNT = 12;
+
+  static final int HASH = 16;
+
+  static final int ID_LENGTH = 20;
+
+  static final int ID_POSITION = 24;
+
+  private static final int MAXIMUM_SLOTS = 1 << 30;
+
+  private final OffHeapRegion records;
+
+  private final OffHeapRegion ids;
+
+  private final OffHeapRegion slots;
+
+  private final int mask;
+
+  private final int size;
+
+  private OffHeapSkuCatalog(Builder builder) {
+    this.records = builder.records;
+    this.ids = builder.ids;
+    this.slots = builder.slots;
+    this.mask = builder.mask;
+    this.size = builder.size;
+  }
+
+  public static Builder builder() {
+    return new Builder(16);
+  }
+
+  public static Builder builder(int expectedSkus) {
+    return new Builder(expectedSkus);
+  }
+
+  /**
+   * Copies the catalog off the heap, keeping its ordinals.
+   */
+  public static OffHeapSkuCatalog copyOf(SkuCatalog catalog) {
+    final Builder builder = builder(catalog.size());
+    for (int ordinal = 0; ordinal < catalog.size(); ordinal++) {
+      builder.add(catalog.itemOf(ordinal), catalog.priceOf(ordinal), catalog.promotionalQuantityOf(ordinal), catalog.promotionalPriceOf(ordinal), catalog.priceDiscountOf(ordinal));
+    }
+    return builder.build();
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public int ordinalOf(CharSequence item) {
+    final int entry = this.slots.getInt(slotOffset(find(this.records, this.ids, this.slots, this.mask, item, ArraySkuCatalog.hashOf(item))));
+    return entry - 1;
+  }
+
+  @Override
+  public String itemOf(int ordinal) {
+    return idOf(this.records, this.ids, ordinal);
+  }
+
+  @Override
+  public int priceOf(int ordinal) {
+    return this.records.getInt(recordOffset(ordinal) + PRICE);
+  }
+
+  @Override
+  public int promotionalQuantityOf(int ordinal) {
+    return this.records.getInt(recordOffset(ordinal) + PROMOTIONAL_QUANTITY);
+  }
+
+  @Override
+  public int promotionalPriceOf(int ordinal) {
+    return this.records.getInt(recordOffset(ordinal) + PROMOTIONAL_PRICE);
+  }
+
+  @Override
+  public int priceDiscountOf(int ordinal) {
+    return this.records.getInt(recordOffset(ordinal) + PRICE_DISCOUNT);
+  }
+
+  /**
+   * Returns the number of bytes of direct memory held by the catalog.
+   */
+  public long offHeapSize() {
+    return this.records.capacity() + this.ids.capacity() + this.slots.capacity();
+  }
+
+  /**
+   * Returns the slot which holds the ordinal of the item, or the empty slot where it would be added.
+   */
+  private static int find(OffHeapRegion records, OffHeapRegion ids, OffHeapRegion slots, int mask, CharSequence item, int hash) {
+    int slot = ArraySkuCatalog.spread(hash) & mask;
+    int entry;
+    while ((entry = slots.getInt(slotOffset(slot))) != 0) {
+      final int ordinal = entry - 1;
+      if (records.getInt(recordOffset(ordinal) + HASH) == hash && idEquals(records, ids, ordinal, item)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Compares the ID byte by byte with the item while the item is ASCII, so looking up an item does not decode the ID.
+   * An ASCII item can only equal an ID of the same number of bytes, and anything else is compared once decoded.
+   */
+  private static boolean idEquals(OffHeapRegion records, OffHeapRegion ids, int ordinal, CharSequence item) {
+    final long record = recordOffset(ordinal);
+    final int length = records.getInt(record + ID_LENGTH);
+    final long position = records.getLong(record + ID_POSITION);
+    if (length != item.length()) {
+      return !isAscii(item) && idOf(records, ids, ordinal).contentEquals(item);
+    }
+
+    for (int index = 0; index < length; index++) {
+      final char character = item.charAt(index);
+      if (character >= 0x80) {
+        return idOf(records, ids, ordinal).contentEquals(item);
+      }
+      if (ids.get(position + index) != character) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String idOf(OffHeapRegion records, OffHeapRegion ids, int ordinal) {
+    final long record = recordOffset(ordinal);
+    final byte[] id = new byte[records.getInt(record + ID_LENGTH)];
+    ids.get(records.getLong(record + ID_POSITION), id);
+    return new String(id, StandardCharsets.UTF_8);
+  }
+
+  private static boolean isAscii(CharSequence item) {
+    for (int index = 0; index < item.length(); index++) {
+      if (item.charAt(index) >= 0x80) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long recordOffset(int ordinal) {
+    return (long) ordinal * RECORD_SIZE;
+  }
+
+  private static long slotOffset(int slot) {
+    return (long) slot * Integer.BYTES;
+  }
+
+  /**
+   * Writes each SKU straight into direct memory, so a catalog read from a file never exists as objects on the heap. The
+   * builder hands its memory to the catalog it builds, so it cannot be used once the catalog has been built.
+   */
+  public static final class Builder implements CatalogBuilder {
+    private final OffHeapRegion records;
+
+    private final OffHeapRegion ids;
+
+    private OffHeapRegion slots;
+
+    private int mask;
+
+    private int size;
+
+    private long idsLength;
+
+    private boolean built;
+
+    private Builder(int expectedSkus) {
+      final int slotCount = slotCountFor(Math.max(1, expectedSkus));
+      this.records = new OffHeapRegion((long) Math.max(1, expectedSkus) * RECORD_SIZE);
+      this.ids = new OffHeapRegion((long) Math.max(1, expectedSkus) * 16);
+      this.slots = new OffHeapRegion(slotOffset(slotCount));
+      this.mask = slotCount - 1;
+      this.size = 0;
+      this.idsLength = 0;
+    }
+
+    @Override
+    public Builder add(String id, int price, int promotionalQuantity, int promotionalPrice, int priceDiscount) {
+      if (this.built) {
+        throw new IllegalStateException("The catalog has already been built");
+      }
+      if ((this.size + 1L) * 2 > this.mask + 1L) {
+        this.growSlots();
+      }
+
+      final int hash = id.hashCode();
+      final int slot = find(this.records, this.ids, this.slots, this.mask, id, hash);
+      if (this.slots.getInt(slotOffset(slot)) != 0) {
+        throw new IllegalArgumentException(String.format("A SKU has already been configured for item (%s)", id));
+      }
+
+      final byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+      final long position = this.ids.reserve(this.idsLength, bytes.length);
+      this.ids.put(position, bytes);
+      this.idsLength = position + bytes.length;
+
+      final int ordinal = this.size++;
+      final long record = recordOffset(ordinal);
+      this.records.ensureCapacity(record + RECORD_SIZE);
+      this.records.putInt(record + PRICE, price);
+      this.records.putInt(record + PROMOTIONAL_QUANTITY, promotionalQuantity);
+      this.records.putInt(record + PROMOTIONAL_PRICE, promotionalPrice);
+      this.records.putInt(record + PRICE_DISCOUNT, priceDiscount);
+      this.records.putInt(record + HASH, hash);
+      this.records.putInt(record + ID_LENGTH, bytes.length);
+      this.records.putLong(record + ID_POSITION, position);
+      this.slots.putInt(slotOffset(slot), ordinal + 1);
+      return this;
+    }
+
+    @Override
+    public OffHeapSkuCatalog build() {
+      if (this.built) {
+        throw new IllegalStateException("The catalog has already been built");
+      }
+      this.built = true;
+      return new OffHeapSkuCatalog(this);
+    }
+
+    private void growSlots() {
+      final int slotCount = (this.mask + 1) << 1;
+      if (slotCount <= 0 || slotCount > MAXIMUM_SLOTS) {
+        throw new IllegalArgumentException(String.format("A catalog cannot hold more than %d SKUs", MAXIMUM_SLOTS >> 1));
+      }
+
+      final OffHeapRegion grown = new OffHeapRegion(slotOffset(slotCount));
+      final int mask = slotCount - 1;
+      for (int ordinal = 0; ordinal < this.size; ordinal++) {
+        int slot = ArraySkuCatalog.spread(this.records.getInt(recordOffset(ordinal) + HASH)) & mask;
+        while (grown.getInt(slotOffset(slot)) != 0) {
+          slot = (slot + 1) & mask;
+        }
+        grown.putInt(slotOffset(slot), ordinal + 1);
+      }
+      this.slots = grown;
+      this.mask = mask;
+    }
+
+    private static int slotCountFor(int expectedSkus) {
+      if (expectedSkus > MAXIMUM_SLOTS >> 1) {
+        throw new IllegalArgumentException(String.format("A catalog cannot hold more than %d SKUs", MAXIMUM_SLOTS >> 1));
+      }
+      return Math.max(16, Integer.highestOneBit(expectedSkus - 1) << 2);
+    }
+  }
+}
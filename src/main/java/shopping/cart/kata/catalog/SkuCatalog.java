@@ -0,0 +1,92 @@
+package shopping.cart.kata.catalog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+import shopping.cart.kata.collections.OrdinalIndex;
+import shopping.cart.kata.models.Sku;
+import shopping.cart.kata.models.SkuSpecialPricing;
+
+/**
+ * An immutable set of SKUs, each of which is assigned a dense ordinal. Pricing is read by ordinal so a scan only needs
+ * to resolve the SKU ID once.
+ */
+public interface SkuCatalog extends OrdinalIndex {
+  int priceOf(int ordinal);
+
+  /**
+   * Returns the number of items required to qualify for the promotional price or 0 if the SKU has no promotional
+   * pricing.
+   */
+  int promotionalQuantityOf(int ordinal);
+
+  int promotionalPriceOf(int ordinal);
+
+  int priceDiscountOf(int ordinal);
+
+  default boolean hasPromotionalPricing(int ordinal) {
+    return this.promotionalQuantityOf(ordinal) != 0;
+  }
+
+  default Sku skuOf(int ordinal) {
+    final Sku.SkuBuilder skuBuilder = Sku.builder().price(this.priceOf(ordinal));
+    if (this.hasPromotionalPricing(ordinal)) {
+      skuBuilder.skuSpecialPricing(
+          SkuSpecialPricing.builder()
+              .quantity(this.promotionalQuantityOf(ordinal))
+              .overriddenPrice(this.promotionalPriceOf(ordinal))
+              .priceDiscount(this.priceDiscountOf(ordinal))
+              .build()
+      );
+    }
+    return skuBuilder.build();
+  }
+
+  /**
+   * Returns a hash of the SKU IDs and pricing in ordinal order. Catalogs with the same fingerprint assign the same
+   * ordinals to the same items at the same prices, so scans recorded against one catalog price the same against the
+   * other.
+   */
+  default long fingerprint() {
+    // 64 bit FNV-1a
+    long hash = 0xCBF29CE484222325L;
+    for (int ordinal = 0; ordinal < this.size(); ordinal++) {
+      final String item = this.itemOf(ordinal);
+      for (int index = 0; index < item.length(); index++) {
+        hash = fingerprintOf(hash, item.charAt(index));
+      }
+      // Separate the IDs so that "AB", "C" and "A", "BC" differ
+      hash = fingerprintOf(hash, ',');
+      hash = fingerprintOf(hash, this.priceOf(ordinal));
+      hash = fingerprintOf(hash, this.promotionalQuantityOf(ordinal));
+      hash = fingerprintOf(hash, this.priceDiscountOf(ordinal));
+    }
+    return hash;
+  }
+
+  static SkuCatalog from(Map<String, Sku> skus) {
+    return ArraySkuCatalog.from(skus);
+  }
+
+  /**
+   * Reads a catalog from a file, choosing the format by its extension: {@code .bin} files written by
+   * {@link BinaryCatalogWriter} are mapped, {@code .json} files are read by {@link JsonCatalogReader} and anything else
+   * is read by {@link CsvCatalogReader}.
+   */
+  static SkuCatalog read(Path path) throws IOException {
+    final String fileName = path.getFileName().toString().toLowerCase(Locale.ROOT);
+    if (fileName.endsWith(".bin")) {
+      return MappedSkuCatalog.open(path);
+    }
+    if (fileName.endsWith(".json")) {
+      return JsonCatalogReader.read(path);
+    }
+    return CsvCatalogReader.read(path);
+  }
+
+  private static long fingerprintOf(long hash, int value) {
+    return (hash ^ value) * 0x100000001B3L;
+  }
+}
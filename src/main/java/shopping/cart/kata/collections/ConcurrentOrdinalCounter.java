@@ -0,0 +1,68 @@
+package shopping.cart.kata.collections;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A thread safe counter for items which have been interned to dense ordinals. Every increment returns the exact
+ * quantity it produced, so concurrent callers can each tell whether their increment crossed a boundary such as the
+ * completion of a promotional bundle.
+ */
+public class ConcurrentOrdinalCounter {
+  private final OrdinalIndex index;
+
+  private final AtomicIntegerArray denseQuantities;
+
+  private final ConcurrentHashMap<Integer, AtomicInteger> sparseQuantities;
+
+  public ConcurrentOrdinalCounter(OrdinalIndex index) {
+    this.index = index;
+    if (index.size() <= OrdinalCounter.DENSE_ORDINAL_LIMIT) {
+      this.denseQuantities = new AtomicIntegerArray(index.size());
+      this.sparseQuantities = null;
+    } else {
+      this.denseQuantities = null;
+      this.sparseQuantities = new ConcurrentHashMap<>();
+    }
+  }
+
+  /**
+   * Increments the quantity of the ordinal by one and returns the updated quantity.
+   */
+  public int increment(int ordinal) {
+    if (this.denseQuantities != null) {
+      return this.denseQuantities.incrementAndGet(ordinal);
+    }
+    return this.sparseQuantities.computeIfAbsent(ordinal, key -> new AtomicInteger()).incrementAndGet();
+  }
+
+  public int quantityOf(int ordinal) {
+    if (this.denseQuantities != null) {
+      return this.denseQuantities.get(ordinal);
+    }
+    final AtomicInteger quantity = this.sparseQuantities.get(ordinal);
+    return quantity == null ? 0 : quantity.get();
+  }
+
+  /**
+   * Returns a copy of the quantity counted of each item. Quantities are read one at a time, so increments made while
+   * the copy is taken may or may not be included.
+   */
+  public Map<String, Integer> snapshot() {
+    final Map<String, Integer> snapshot = new LinkedHashMap<>();
+    if (this.denseQuantities != null) {
+      for (int ordinal = 0; ordinal < this.denseQuantities.length(); ordinal++) {
+        final int quantity = this.denseQuantities.get(ordinal);
+        if (quantity != 0) {
+          snapshot.put(this.index.itemOf(ordinal), quantity);
+        }
+      }
+    } else {
+      this.sparseQuantities.forEach((ordinal, quantity) -> snapshot.put(this.index.itemOf(ordinal), quantity.get()));
+    }
+    return snapshot;
+  }
+}
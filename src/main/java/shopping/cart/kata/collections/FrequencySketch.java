@@ -0,0 +1,75 @@
+package shopping.cart.kata.collections;
+
+/**
+ * A count-min sketch of how often keys have been seen recently, in 4 bit counters packed 16 to a long. Each key
+ * increments one counter in each of four longs and its frequency is the smallest of them, so collisions can only
+ * over-estimate. Once the sketch has counted ten times as many keys as the cache holds, every counter is halved, so
+ * keys which were popular a while ago age out.
+ */
+final class FrequencySketch {
+  private static final long[] SEEDS = {0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  private static final int MAXIMUM_COUNT = 15;
+
+  private final long[] table;
+
+  private final int mask;
+
+  private final int sampleSize;
+
+  private int additions;
+
+  FrequencySketch(int maximumSize) {
+    final int length = Math.max(16, Integer.highestOneBit(Math.max(1, maximumSize) - 1) << 1);
+    this.table = new long[length];
+    this.mask = length - 1;
+    this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * Math.max(1, maximumSize));
+    this.additions = 0;
+  }
+
+  int frequencyOf(int hash) {
+    int frequency = MAXIMUM_COUNT;
+    for (int row = 0; row < SEEDS.length; row++) {
+      final long index = indexOf(hash, row);
+      frequency = Math.min(frequency, (int) ((this.table[(int) index & this.mask] >>> counterShift(hash, row)) & MAXIMUM_COUNT));
+    }
+    return frequency;
+  }
+
+  void increment(int hash) {
+    boolean incremented = false;
+    for (int row = 0; row < SEEDS.length; row++) {
+      final int index = (int) indexOf(hash, row) & this.mask;
+      final int shift = counterShift(hash, row);
+      if (((this.table[index] >>> shift) & MAXIMUM_COUNT) != MAXIMUM_COUNT) {
+        this.table[index] += 1L << shift;
+        incremented = true;
+      }
+    }
+
+    if (incremented && ++this.additions == this.sampleSize) {
+      this.reset();
+    }
+  }
+
+  private void reset() {
+    for (int index = 0; index < this.table.length; index++) {
+      this.table[index] = (this.table[index] >>> 1) & RESET_MASK;
+    }
+    this.additions >>>= 1;
+  }
+
+  private static long indexOf(int hash, int row) {
+    final long mixed = (hash + SEEDS[row]) * SEEDS[row];
+    return mixed ^ (mixed >>> 32);
+  }
+
+  /**
+   * Picks one of the 16 counters in the long, using different bits of the hash for each row.
+   */
+  private static int counterShift(int hash, int row) {
+    return ((hash >>> (row << 3)) & 15) << 2;
+  }
+}
@@ -0,0 +1,24 @@
+package shopping.cart.kata.collections;
+
+import java.util.Map;
+
+/**
+ * Read access to the quantity scanned of each item, in the order the items were first counted.
+ */
+public interface ItemCounts {
+  int size();
+
+  String itemAt(int index);
+
+  int quantityAt(int index);
+
+  int quantityOf(String item);
+
+  /**
+   * Returns an unmodifiable {@link Map} view of the counts. The view reflects later updates and does not copy the
+   * underlying arrays.
+   */
+  default Map<String, Integer> asMap() {
+    return new ItemCountsView(this);
+  }
+}
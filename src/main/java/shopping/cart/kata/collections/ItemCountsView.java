@@ -0,0 +1,81 @@
+package shopping.cart.kata.collections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+class ItemCountsView extends AbstractMap<String, Integer> {
+  private final ItemCounts counts;
+
+  ItemCountsView(ItemCounts counts) {
+    this.counts = counts;
+  }
+
+  /**
+   * Counts the items with a quantity, as items whose quantity has been corrected to 0 are left out of the view.
+   */
+  @Override
+  public int size() {
+    int size = 0;
+    for (int index = 0; index < this.counts.size(); index++) {
+      if (this.counts.quantityAt(index) != 0) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return this.get(key) != null;
+  }
+
+  @Override
+  public Integer get(Object key) {
+    if (!(key instanceof String)) {
+      return null;
+    }
+    final int quantity = this.counts.quantityOf((String) key);
+    return quantity == 0 ? null : quantity;
+  }
+
+  @Override
+  public Set<Map.Entry<String, Integer>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public int size() {
+        return ItemCountsView.this.size();
+      }
+
+      @Override
+      public Iterator<Map.Entry<String, Integer>> iterator() {
+        return new Iterator<>() {
+          private int index;
+
+          @Override
+          public boolean hasNext() {
+            final ItemCounts counts = ItemCountsView.this.counts;
+            while (this.index < counts.size() && counts.quantityAt(this.index) == 0) {
+              this.index++;
+            }
+            return this.index < counts.size();
+          }
+
+          @Override
+          public Map.Entry<String, Integer> next() {
+            if (!this.hasNext()) {
+              throw new NoSuchElementException();
+            }
+            final ItemCounts counts = ItemCountsView.this.counts;
+            final Map.Entry<String, Integer> entry = new AbstractMap.SimpleImmutableEntry<>(counts.itemAt(this.index), counts.quantityAt(this.index));
+            this.index++;
+            return entry;
+          }
+        };
+      }
+    };
+  }
+}
@@ -0,0 +1,38 @@
+package shopping.cart.kata.collections;
+
+/**
+ * Counts items which have been interned to dense ordinals by an {@link OrdinalIndex}.
+ */
+public interface OrdinalCounter extends ItemCounts {
+  /**
+   * Indexes with at most this many ordinals are counted in an array indexed by ordinal. Larger indexes are counted in
+   * a hash table so the memory used by a counter is proportional to the items counted rather than the items known.
+   */
+  int DENSE_ORDINAL_LIMIT = 4096;
+
+  /**
+   * Adds the quantity to the ordinal and returns the updated quantity.
+   */
+  int add(int ordinal, int quantity);
+
+  /**
+   * Increments the quantity of the ordinal by one and returns the updated quantity.
+   */
+  default int increment(int ordinal) {
+    return this.add(ordinal, 1);
+  }
+
+  int quantityOf(int ordinal);
+
+  int ordinalAt(int index);
+
+  /**
+   * Returns the position of the ordinal in the order items were first counted, or {@link OrdinalIndex#NOT_FOUND} if it
+   * has not been counted.
+   */
+  int positionOf(int ordinal);
+
+  static OrdinalCounter forIndex(OrdinalIndex index) {
+    return index.size() <= DENSE_ORDINAL_LIMIT ? new OrdinalIntCounter(index) : new SparseOrdinalIntCounter(index);
+  }
+}
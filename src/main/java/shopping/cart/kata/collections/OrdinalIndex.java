@@ -0,0 +1,17 @@
+package shopping.cart.kata.collections;
+
+/**
+ * Maps items to dense ordinals (0 to size - 1) and back.
+ */
+public interface OrdinalIndex {
+  int NOT_FOUND = -1;
+
+  int size();
+
+  /**
+   * Returns the ordinal of the item or {@link #NOT_FOUND} if the item is unknown.
+   */
+  int ordinalOf(CharSequence item);
+
+  String itemOf(int ordinal);
+}
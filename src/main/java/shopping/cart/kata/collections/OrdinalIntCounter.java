@@ -0,0 +1,74 @@
+package shopping.cart.kata.collections;
+
+/**
+ * A counter for items which have been interned to dense ordinals. Quantities are held in an array indexed by ordinal,
+ * and the ordinals are also recorded in the order they were first counted so iteration is proportional to the number
+ * of distinct items counted rather than the number of items known.
+ */
+public class OrdinalIntCounter implements OrdinalCounter {
+  private final OrdinalIndex index;
+
+  private final int[] quantities;
+
+  private final int[] countedOrdinals;
+
+  /**
+   * The position of each ordinal in {@link #countedOrdinals} plus one, so the default of 0 means not counted.
+   */
+  private final int[] positions;
+
+  private int size;
+
+  public OrdinalIntCounter(OrdinalIndex index) {
+    this.index = index;
+    this.quantities = new int[index.size()];
+    this.countedOrdinals = new int[index.size()];
+    this.positions = new int[index.size()];
+    this.size = 0;
+  }
+
+  @Override
+  public int add(int ordinal, int quantity) {
+    if (this.positions[ordinal] == 0) {
+      this.countedOrdinals[this.size] = ordinal;
+      this.positions[ordinal] = ++this.size;
+    }
+    return this.quantities[ordinal] += quantity;
+  }
+
+  @Override
+  public int quantityOf(int ordinal) {
+    return this.quantities[ordinal];
+  }
+
+  @Override
+  public int quantityOf(String item) {
+    final int ordinal = this.index.ordinalOf(item);
+    return ordinal == OrdinalIndex.NOT_FOUND ? 0 : this.quantities[ordinal];
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public int ordinalAt(int index) {
+    return this.countedOrdinals[index];
+  }
+
+  @Override
+  public int positionOf(int ordinal) {
+    return this.positions[ordinal] - 1;
+  }
+
+  @Override
+  public String itemAt(int index) {
+    return this.index.itemOf(this.countedOrdinals[index]);
+  }
+
+  @Override
+  public int quantityAt(int index) {
+    return this.quantities[this.countedOrdinals[index]];
+  }
+}
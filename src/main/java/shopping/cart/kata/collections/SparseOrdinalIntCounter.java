@@ -0,0 +1,130 @@
+package shopping.cart.kata.collections;
+
+import java.util.Arrays;
+
+/**
+ * A counter for items which have been interned to ordinals drawn from a large index. Ordinals and quantities are held
+ * in dense arrays in the order they were first counted, with a linear probing table of positions into them, so the
+ * memory used grows with the items counted rather than the size of the index.
+ */
+public class SparseOrdinalIntCounter implements OrdinalCounter {
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private static final int EMPTY_SLOT = -1;
+
+  private final OrdinalIndex index;
+
+  private int[] ordinals;
+
+  private int[] quantities;
+
+  private int[] slots;
+
+  private int mask;
+
+  private int size;
+
+  public SparseOrdinalIntCounter(OrdinalIndex index) {
+    this.index = index;
+    this.ordinals = new int[DEFAULT_CAPACITY];
+    this.quantities = new int[DEFAULT_CAPACITY];
+    this.slots = newSlots(DEFAULT_CAPACITY << 1);
+    this.mask = (DEFAULT_CAPACITY << 1) - 1;
+    this.size = 0;
+  }
+
+  @Override
+  public int add(int ordinal, int quantity) {
+    int slot = mix(ordinal) & this.mask;
+    int position;
+    while ((position = this.slots[slot]) != EMPTY_SLOT) {
+      if (this.ordinals[position] == ordinal) {
+        return this.quantities[position] += quantity;
+      }
+      slot = (slot + 1) & this.mask;
+    }
+
+    if (this.size == this.ordinals.length) {
+      this.grow();
+      return this.add(ordinal, quantity);
+    }
+
+    position = this.size++;
+    this.ordinals[position] = ordinal;
+    this.quantities[position] = quantity;
+    this.slots[slot] = position;
+    return quantity;
+  }
+
+  @Override
+  public int quantityOf(int ordinal) {
+    final int position = this.positionOf(ordinal);
+    return position == OrdinalIndex.NOT_FOUND ? 0 : this.quantities[position];
+  }
+
+  @Override
+  public int positionOf(int ordinal) {
+    int slot = mix(ordinal) & this.mask;
+    int position;
+    while ((position = this.slots[slot]) != EMPTY_SLOT) {
+      if (this.ordinals[position] == ordinal) {
+        return position;
+      }
+      slot = (slot + 1) & this.mask;
+    }
+    return OrdinalIndex.NOT_FOUND;
+  }
+
+  @Override
+  public int quantityOf(String item) {
+    final int ordinal = this.index.ordinalOf(item);
+    return ordinal == OrdinalIndex.NOT_FOUND ? 0 : this.quantityOf(ordinal);
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public int ordinalAt(int index) {
+    return this.ordinals[index];
+  }
+
+  @Override
+  public String itemAt(int index) {
+    return this.index.itemOf(this.ordinals[index]);
+  }
+
+  @Override
+  public int quantityAt(int index) {
+    return this.quantities[index];
+  }
+
+  private void grow() {
+    final int capacity = this.ordinals.length << 1;
+    this.ordinals = Arrays.copyOf(this.ordinals, capacity);
+    this.quantities = Arrays.copyOf(this.quantities, capacity);
+    this.slots = newSlots(capacity << 1);
+    this.mask = (capacity << 1) - 1;
+
+    for (int position = 0; position < this.size; position++) {
+      int slot = mix(this.ordinals[position]) & this.mask;
+      while (this.slots[slot] != EMPTY_SLOT) {
+        slot = (slot + 1) & this.mask;
+      }
+      this.slots[slot] = position;
+    }
+  }
+
+  private static int[] newSlots(int length) {
+    final int[] slots = new int[length];
+    Arrays.fill(slots, EMPTY_SLOT);
+    return slots;
+  }
+
+  private static int mix(int ordinal) {
+    final int hash = ordinal * 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+}
@@ -0,0 +1,245 @@
+package shopping.cart.kata.collections;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * A size and time bounded cache which evicts in the style of W-TinyLFU. New entries go into a small LRU window, which
+ * lets a burst of new keys build up some history, and entries leaving the window are only admitted to the main space
+ * if a {@link FrequencySketch} has seen them more often than the entry they would evict. The main space is a
+ * segmented LRU, where an entry hit while on probation is promoted to the protected segment, so keys requested over
+ * and over are kept while one-off keys pass through the window without displacing them.
+ *
+ * <p>Each entry expires a fixed time after it was written. An expired entry is dropped when it is requested, or when a
+ * put finds it at the least recently used end of its queue. A put clears those ends before choosing an entry to evict,
+ * so an expired entry is never preferred over a new one. Queues are ordered by access rather than by write time, so an
+ * expired entry behind one which has not expired still counts towards the size until it is requested or reaches the
+ * end of its queue. Operations are synchronized, so the cache can be shared between threads, and values should be
+ * computed outside of the cache.
+ */
+public final class TinyLfuCache<K, V> {
+  private static final int WINDOW = 0;
+
+  private static final int PROBATION = 1;
+
+  private static final int PROTECTED = 2;
+
+  private final Map<K, Node<K, V>> nodes;
+
+  private final FrequencySketch sketch;
+
+  private final Node<K, V>[] queues;
+
+  private final int[] queueSizes;
+
+  private final int windowCapacity;
+
+  private final int mainCapacity;
+
+  private final int protectedCapacity;
+
+  private final long timeToLiveNanos;
+
+  private final LongSupplier ticker;
+
+  private long hitCount;
+
+  private long missCount;
+
+  /**
+   * @throws IllegalArgumentException if the maximum size or time to live is not greater than 0
+   */
+  public TinyLfuCache(int maximumSize, long timeToLiveNanos) {
+    this(maximumSize, timeToLiveNanos, System::nanoTime);
+  }
+
+  @SuppressWarnings("unchecked")
+  TinyLfuCache(int maximumSize, long timeToLiveNanos, LongSupplier ticker) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException(String.format("The maximum size must be greater than 0 but was %d", maximumSize));
+    }
+    if (timeToLiveNanos <= 0) {
+      throw new IllegalArgumentException(String.format("The time to live must be greater than 0 but was %dns", timeToLiveNanos));
+    }
+
+    this.nodes = new HashMap<>();
+    this.sketch = new FrequencySketch(maximumSize);
+    this.queues = (Node<K, V>[]) new Node<?, ?>[3];
+    this.queueSizes = new int[3];
+    for (int queue = WINDOW; queue <= PROTECTED; queue++) {
+      this.queues[queue] = new Node<>(null, null, 0L);
+      this.queues[queue].previous = this.queues[queue];
+      this.queues[queue].next = this.queues[queue];
+    }
+    this.windowCapacity = Math.max(1, maximumSize / 100);
+    this.mainCapacity = maximumSize - this.windowCapacity;
+    this.protectedCapacity = (int) (this.mainCapacity * 8L / 10);
+    this.timeToLiveNanos = timeToLiveNanos;
+    this.ticker = ticker;
+  }
+
+  /**
+   * Returns the value of the key, or null if it is not cached or has expired.
+   */
+  public synchronized V get(K key) {
+    this.sketch.increment(key.hashCode());
+    final Node<K, V> node = this.nodes.get(key);
+    if (node == null) {
+      this.missCount++;
+      return null;
+    }
+    if (this.isExpired(node, this.ticker.getAsLong())) {
+      this.remove(node);
+      this.missCount++;
+      return null;
+    }
+
+    this.hitCount++;
+    if (node.queue == PROBATION) {
+      this.unlink(node);
+      this.link(node, PROTECTED);
+      if (this.queueSizes[PROTECTED] > this.protectedCapacity) {
+        final Node<K, V> demoted = this.queues[PROTECTED].next;
+        this.unlink(demoted);
+        this.link(demoted, PROBATION);
+      }
+    } else {
+      this.unlink(node);
+      this.link(node, node.queue);
+    }
+    return node.value;
+  }
+
+  /**
+   * Caches the value of the key, replacing any value it already has. The value may be evicted straight away if the key
+   * has been requested less often than the entries already cached.
+   */
+  public synchronized void put(K key, V value) {
+    final Node<K, V> existing = this.nodes.get(key);
+    if (existing != null) {
+      this.remove(existing);
+    }
+
+    final long now = this.ticker.getAsLong();
+    for (int queue = WINDOW; queue <= PROTECTED; queue++) {
+      this.expireLeastRecentlyUsed(queue, now);
+    }
+
+    final Node<K, V> node = new Node<>(key, value, now);
+    this.nodes.put(key, node);
+    this.link(node, WINDOW);
+    if (this.queueSizes[WINDOW] > this.windowCapacity) {
+      final Node<K, V> candidate = this.queues[WINDOW].next;
+      this.unlink(candidate);
+      this.admit(candidate);
+    }
+  }
+
+  public synchronized void clear() {
+    this.nodes.clear();
+    for (int queue = WINDOW; queue <= PROTECTED; queue++) {
+      this.queues[queue].previous = this.queues[queue];
+      this.queues[queue].next = this.queues[queue];
+      this.queueSizes[queue] = 0;
+    }
+  }
+
+  public synchronized int size() {
+    return this.nodes.size();
+  }
+
+  public synchronized long hitCount() {
+    return this.hitCount;
+  }
+
+  public synchronized long missCount() {
+    return this.missCount;
+  }
+
+  /**
+   * Moves the candidate from the window into probation, evicting whichever of the candidate and the least recently
+   * used entry on probation has been seen less often if the main space is full. Expired entries have already been
+   * cleared from the least recently used ends of the queues, so the entry it would evict has not expired.
+   */
+  private void admit(Node<K, V> candidate) {
+    if (this.queueSizes[PROBATION] + this.queueSizes[PROTECTED] < this.mainCapacity) {
+      this.link(candidate, PROBATION);
+      return;
+    }
+
+    Node<K, V> victim = this.queues[PROBATION].next;
+    if (victim == this.queues[PROBATION]) {
+      victim = this.queues[PROTECTED].next;
+    }
+    if (victim.key == null || this.sketch.frequencyOf(candidate.key.hashCode()) <= this.sketch.frequencyOf(victim.key.hashCode())) {
+      this.nodes.remove(candidate.key);
+      return;
+    }
+    this.remove(victim);
+    this.link(candidate, PROBATION);
+  }
+
+  /**
+   * Removes the expired entries from the least recently used end of the queue, stopping at the first which has not
+   * expired.
+   */
+  private void expireLeastRecentlyUsed(int queue, long now) {
+    final Node<K, V> head = this.queues[queue];
+    while (head.next != head && this.isExpired(head.next, now)) {
+      this.remove(head.next);
+    }
+  }
+
+  private boolean isExpired(Node<K, V> node, long now) {
+    return now - node.writeTime >= this.timeToLiveNanos;
+  }
+
+  private void remove(Node<K, V> node) {
+    this.unlink(node);
+    this.nodes.remove(node.key);
+  }
+
+  /**
+   * Adds the node as the most recently used in the queue.
+   */
+  private void link(Node<K, V> node, int queue) {
+    final Node<K, V> head = this.queues[queue];
+    node.queue = queue;
+    node.previous = head.previous;
+    node.next = head;
+    head.previous.next = node;
+    head.previous = node;
+    this.queueSizes[queue]++;
+  }
+
+  private void unlink(Node<K, V> node) {
+    node.previous.next = node.next;
+    node.next.previous = node.previous;
+    this.queueSizes[node.queue]--;
+  }
+
+  /**
+   * An entry of the cache, linked into one of the queues. Each queue is circular around a sentinel, with the least
+   * recently used entry after the sentinel.
+   */
+  private static final class Node<K, V> {
+    private final K key;
+
+    private final V value;
+
+    private final long writeTime;
+
+    private int queue;
+
+    private Node<K, V> previous;
+
+    private Node<K, V> next;
+
+    Node(K key, V value, long writeTime) {
+      this.key = key;
+      this.value = value;
+      this.writeTime = writeTime;
+    }
+  }
+}
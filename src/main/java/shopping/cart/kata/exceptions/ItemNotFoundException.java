@@ -4,4 +4,16 @@ public class ItemNotFoundException extends RuntimeException {
     public ItemNotFoundException(String message) {
         super(message);
     }
+
+    protected ItemNotFoundException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    /**
+     * Creates an exception which does not capture a stack trace. An unknown item is an expected outcome of scanning, so
+     * the stack trace carries no useful information and is expensive to capture.
+     */
+    public static ItemNotFoundException withoutStackTrace(String message) {
+        return new ItemNotFoundException(message, false);
+    }
 }
@@ -0,0 +1,102 @@
+package shopping.cart.kata.formatting;
+
+/**
+ * Formats amounts in pence as pounds sterling, e.g. 123456 as {@code £1,234.56} and -50 as {@code -£0.50}, matching the
+ * en-GB currency format. The formatting uses integer arithmetic only, so it is exact for every amount, and it holds no
+ * state so it can be shared between threads.
+ */
+public final class GbpFormatter {
+  private static final char POUND_SIGN = '\u00A3';
+
+  private static final byte[] POUND_SIGN_UTF_8 = new byte[]{(byte) 0xC2, (byte) 0xA3};
+
+  /**
+   * The most bytes a formatted amount can take: a sign, the pound sign, 17 digits of pounds, 5 grouping separators,
+   * the decimal point and 2 digits of pence.
+   */
+  public static final int MAX_UTF_8_LENGTH = 1 + POUND_SIGN_UTF_8.length + 17 + 5 + 1 + 2;
+
+  private GbpFormatter() {
+  }
+
+  public static String format(long amountInPence) {
+    return appendTo(new StringBuilder(16), amountInPence).toString();
+  }
+
+  public static StringBuilder appendTo(StringBuilder builder, long amountInPence) {
+    if (amountInPence < 0) {
+      builder.append('-');
+    }
+    builder.append(POUND_SIGN);
+    appendPounds(builder, Math.abs(amountInPence / 100));
+    builder.append('.');
+    final int pence = (int) Math.abs(amountInPence % 100);
+    if (pence < 10) {
+      builder.append('0');
+    }
+    return builder.append(pence);
+  }
+
+  /**
+   * Writes the amount into the buffer as UTF-8 and returns the offset after the last byte written. The buffer must have
+   * at least {@link #MAX_UTF_8_LENGTH} bytes available from the offset.
+   */
+  public static int writeTo(byte[] buffer, int offset, long amountInPence) {
+    int position = offset;
+    if (amountInPence < 0) {
+      buffer[position++] = '-';
+    }
+    buffer[position++] = POUND_SIGN_UTF_8[0];
+    buffer[position++] = POUND_SIGN_UTF_8[1];
+
+    final int end = position + lengthOfDigits(amountInPence);
+    int index = end;
+    long remaining = amountInPence;
+    for (int digit = 0; digit < 2; digit++) {
+      buffer[--index] = (byte) ('0' + Math.abs(remaining % 10));
+      remaining /= 10;
+    }
+    buffer[--index] = '.';
+    int groupedDigits = 0;
+    do {
+      if (groupedDigits == 3) {
+        buffer[--index] = ',';
+        groupedDigits = 0;
+      }
+      buffer[--index] = (byte) ('0' + Math.abs(remaining % 10));
+      remaining /= 10;
+      groupedDigits++;
+    } while (remaining != 0);
+    return end;
+  }
+
+  private static void appendPounds(StringBuilder builder, long pounds) {
+    if (pounds < 1000) {
+      builder.append(pounds);
+      return;
+    }
+    appendPounds(builder, pounds / 1000);
+    builder.append(',');
+    final int group = (int) (pounds % 1000);
+    if (group < 100) {
+      builder.append('0');
+    }
+    if (group < 10) {
+      builder.append('0');
+    }
+    builder.append(group);
+  }
+
+  /**
+   * Returns the number of characters needed for the pounds, grouping separators, decimal point and pence.
+   */
+  private static int lengthOfDigits(long amountInPence) {
+    long pounds = Math.abs(amountInPence / 100);
+    int poundDigits = 1;
+    while (pounds >= 10) {
+      pounds /= 10;
+      poundDigits++;
+    }
+    return poundDigits + (poundDigits - 1) / 3 + 3;
+  }
+}
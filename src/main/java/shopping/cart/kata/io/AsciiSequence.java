@@ -0,0 +1,70 @@
+package shopping.cart.kata.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * A reusable view of a run of ASCII bytes in a {@link ByteBuffer} as a {@link CharSequence}. Letters are read as
+ * uppercase, matching the way SKU IDs are stored, so an ID can be looked up straight from the bytes without building
+ * a String. Runs containing non-ASCII bytes can be checked for with {@link #isAscii()} and decoded instead.
+ */
+public final class AsciiSequence implements CharSequence {
+  private ByteBuffer buffer;
+
+  private int offset;
+
+  private int length;
+
+  public AsciiSequence wrap(ByteBuffer buffer, int offset, int length) {
+    this.buffer = buffer;
+    this.offset = offset;
+    this.length = length;
+    return this;
+  }
+
+  @Override
+  public int length() {
+    return this.length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    final int character = this.buffer.get(this.offset + index) & 0xFF;
+    return (char) (character >= 'a' && character <= 'z' ? character - ('a' - 'A') : character);
+  }
+
+  /**
+   * Returns whether every byte is ASCII, in which case the view reads the same characters as decoding the bytes.
+   */
+  public boolean isAscii() {
+    for (int index = 0; index < this.length; index++) {
+      if (this.buffer.get(this.offset + index) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Decodes the bytes in the character set, without changing their case.
+   */
+  public String decode(Charset charset) {
+    final byte[] bytes = new byte[this.length];
+    this.buffer.get(this.offset, bytes);
+    return new String(bytes, charset);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return new AsciiSequence().wrap(this.buffer, this.offset + start, end - start);
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder(this.length);
+    for (int index = 0; index < this.length; index++) {
+      builder.append(this.charAt(index));
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,165 @@
+package shopping.cart.kata.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import shopping.cart.kata.formatting.GbpFormatter;
+
+/**
+ * An {@link OutputSink} which collects output in a buffer and only writes it to the underlying {@link OutputStream} or
+ * {@link WritableByteChannel} when flushed (or when the buffer is full), so a prompt and its running total cost one
+ * write rather than one per line. Numbers and amounts are written straight into the buffer.
+ */
+public class BufferedOutputSink implements OutputSink {
+  private static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+  private static final int MAX_LONG_LENGTH = 20;
+
+  private final OutputStream stream;
+
+  private final WritableByteChannel channel;
+
+  private final Charset charset;
+
+  private final boolean utf8;
+
+  private final byte[] lineSeparator;
+
+  private final ByteBuffer buffer;
+
+  private final StringBuilder amount;
+
+  /**
+   * Creates a sink which writes to the stream, such as {@link System#out}, in the character set.
+   */
+  public BufferedOutputSink(OutputStream stream, Charset charset) {
+    this(stream, null, charset);
+  }
+
+  /**
+   * Creates a sink which writes UTF-8 directly to the channel, such as a socket or file.
+   */
+  public BufferedOutputSink(WritableByteChannel channel) {
+    this(null, channel, StandardCharsets.UTF_8);
+  }
+
+  private BufferedOutputSink(OutputStream stream, WritableByteChannel channel, Charset charset) {
+    this.stream = stream;
+    this.channel = channel;
+    this.charset = charset;
+    this.utf8 = StandardCharsets.UTF_8.equals(charset);
+    this.lineSeparator = System.lineSeparator().getBytes(charset);
+    this.buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+    this.amount = new StringBuilder(GbpFormatter.MAX_UTF_8_LENGTH);
+  }
+
+  @Override
+  public byte[] encode(String text) {
+    return text.getBytes(this.charset);
+  }
+
+  @Override
+  public OutputSink write(byte[] encoded) {
+    if (encoded.length > this.buffer.remaining()) {
+      this.flush();
+      if (encoded.length > this.buffer.capacity()) {
+        this.drain(ByteBuffer.wrap(encoded));
+        return this;
+      }
+    }
+    this.buffer.put(encoded);
+    return this;
+  }
+
+  @Override
+  public OutputSink write(CharSequence text) {
+    return this.write(text.toString().getBytes(this.charset));
+  }
+
+  @Override
+  public OutputSink write(long value) {
+    this.ensureRemaining(MAX_LONG_LENGTH);
+    final byte[] array = this.buffer.array();
+    final int start = this.buffer.position();
+    int end = start + lengthOf(value);
+    this.buffer.position(end);
+
+    long remaining = value;
+    do {
+      array[--end] = (byte) ('0' + Math.abs(remaining % 10));
+      remaining /= 10;
+    } while (remaining != 0);
+    if (value < 0) {
+      array[start] = '-';
+    }
+    return this;
+  }
+
+  @Override
+  public OutputSink writeAmount(long amountInPence) {
+    if (!this.utf8) {
+      this.amount.setLength(0);
+      return this.write(GbpFormatter.appendTo(this.amount, amountInPence));
+    }
+    this.ensureRemaining(GbpFormatter.MAX_UTF_8_LENGTH);
+    this.buffer.position(GbpFormatter.writeTo(this.buffer.array(), this.buffer.position(), amountInPence));
+    return this;
+  }
+
+  @Override
+  public OutputSink newLine() {
+    return this.write(this.lineSeparator);
+  }
+
+  @Override
+  public void flush() {
+    if (this.buffer.position() > 0) {
+      this.buffer.flip();
+      this.drain(this.buffer);
+      this.buffer.clear();
+    }
+    if (this.stream != null) {
+      try {
+        this.stream.flush();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  private void ensureRemaining(int length) {
+    if (this.buffer.remaining() < length) {
+      this.flush();
+    }
+  }
+
+  private void drain(ByteBuffer bytes) {
+    try {
+      if (this.stream != null) {
+        this.stream.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+        bytes.position(bytes.limit());
+        return;
+      }
+      while (bytes.hasRemaining()) {
+        this.channel.write(bytes);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static int lengthOf(long value) {
+    int length = value < 0 ? 2 : 1;
+    long remaining = value / 10;
+    while (remaining != 0) {
+      remaining /= 10;
+      length++;
+    }
+    return length;
+  }
+}
@@ -0,0 +1,196 @@
+package shopping.cart.kata.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Reads lines of input into a reusable byte buffer. The current line can be viewed as an {@link AsciiSequence}
+ * (uppercased as it is read) without allocating, or parsed as an int without exceptions, which is all a till needs for
+ * each scan. Lines containing non-ASCII characters can still be decoded to a String in the character set of the input.
+ */
+public final class LineReader {
+  /**
+   * Returned by {@link #parseInt()} when the line does not start with a valid int.
+   */
+  public static final long NOT_A_NUMBER = Long.MIN_VALUE;
+
+  private static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+  private final InputStream in;
+
+  private final Charset charset;
+
+  private final AsciiSequence line;
+
+  private byte[] buffer;
+
+  private ByteBuffer view;
+
+  private int position;
+
+  private int limit;
+
+  private int lineStart;
+
+  private int lineLength;
+
+  public LineReader(InputStream in, Charset charset) {
+    this.in = in;
+    this.charset = charset;
+    this.line = new AsciiSequence();
+    this.buffer = new byte[DEFAULT_BUFFER_SIZE];
+    this.view = ByteBuffer.wrap(this.buffer);
+  }
+
+  /**
+   * Reads the next line, blocking until it is available. Returns false if the input has ended and there are no more
+   * lines.
+   */
+  public boolean readLine() throws IOException {
+    int searchFrom = this.position;
+    while (true) {
+      for (int index = searchFrom; index < this.limit; index++) {
+        if (this.buffer[index] == '\n') {
+          this.setLine(this.position, index);
+          this.position = index + 1;
+          return true;
+        }
+      }
+
+      searchFrom = this.limit - this.position;
+      if (!this.fill()) {
+        if (this.position == this.limit) {
+          return false;
+        }
+        this.setLine(this.position, this.limit);
+        this.position = this.limit;
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Returns whether the next line has already been read from the input, so {@link #readLine()} will return it without
+   * blocking.
+   */
+  public boolean hasBufferedLine() {
+    for (int index = this.position; index < this.limit; index++) {
+      if (this.buffer[index] == '\n') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns a view of the current line, with ASCII letters in uppercase. The view is reused for every line.
+   */
+  public AsciiSequence line() {
+    return this.line.wrap(this.view, this.lineStart, this.lineLength);
+  }
+
+  public int length() {
+    return this.lineLength;
+  }
+
+  /**
+   * Returns whether the current line only contains spaces and tabs.
+   */
+  public boolean isBlank() {
+    for (int index = this.lineStart; index < this.lineStart + this.lineLength; index++) {
+      if (!isWhitespace(this.buffer[index])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public boolean isAscii() {
+    for (int index = this.lineStart; index < this.lineStart + this.lineLength; index++) {
+      if (this.buffer[index] < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Decodes the current line as it was supplied, without changing its case.
+   */
+  public String lineAsString() {
+    return new String(this.buffer, this.lineStart, this.lineLength, this.charset);
+  }
+
+  /**
+   * Parses the first whitespace separated token of the current line as an int, returning {@link #NOT_A_NUMBER} if it
+   * is not a valid int (including if it is out of range).
+   */
+  public long parseInt() {
+    final int end = this.lineStart + this.lineLength;
+    int index = this.lineStart;
+    while (index < end && isWhitespace(this.buffer[index])) {
+      index++;
+    }
+
+    boolean negative = false;
+    if (index < end && (this.buffer[index] == '-' || this.buffer[index] == '+')) {
+      negative = this.buffer[index] == '-';
+      index++;
+    }
+
+    long value = 0;
+    final int digitsStart = index;
+    while (index < end && !isWhitespace(this.buffer[index])) {
+      final int digit = this.buffer[index] - '0';
+      if (digit < 0 || digit > 9) {
+        return NOT_A_NUMBER;
+      }
+      value = value * 10 + digit;
+      if (value > (long) Integer.MAX_VALUE + 1) {
+        return NOT_A_NUMBER;
+      }
+      index++;
+    }
+
+    if (index == digitsStart) {
+      return NOT_A_NUMBER;
+    }
+    value = negative ? -value : value;
+    return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? NOT_A_NUMBER : value;
+  }
+
+  private void setLine(int start, int end) {
+    this.lineStart = start;
+    this.lineLength = end > start && this.buffer[end - 1] == '\r' ? end - start - 1 : end - start;
+  }
+
+  /**
+   * Moves the unread bytes to the start of the buffer, growing it if it is full, and reads more input. Returns false
+   * if the input has ended.
+   */
+  private boolean fill() throws IOException {
+    if (this.position > 0) {
+      System.arraycopy(this.buffer, this.position, this.buffer, 0, this.limit - this.position);
+      this.limit -= this.position;
+      this.position = 0;
+    }
+    if (this.limit == this.buffer.length) {
+      this.buffer = Arrays.copyOf(this.buffer, this.buffer.length << 1);
+      this.view = ByteBuffer.wrap(this.buffer);
+    }
+
+    final int read = this.in.read(this.buffer, this.limit, this.buffer.length - this.limit);
+    if (read < 0) {
+      return false;
+    }
+    this.limit += read;
+    return true;
+  }
+
+  private static boolean isWhitespace(byte character) {
+    return character == ' ' || character == '\t' || character == '\r' || character == '\f';
+  }
+}
@@ -0,0 +1,68 @@
+package shopping.cart.kata.io;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import shopping.cart.kata.annotations.VisibleForTesting;
+
+/**
+ * Reads the lines of a file through memory mapped windows, presenting each line as an {@link AsciiSequence} over the
+ * mapped bytes. A single {@link AsciiSequence} is reused for every line, so the consumer must not retain it.
+ */
+public final class MappedLineReader {
+  private static final long DEFAULT_WINDOW_SIZE = 256L * 1024 * 1024;
+
+  private MappedLineReader() {
+  }
+
+  public interface LineConsumer {
+    void accept(AsciiSequence line) throws IOException;
+  }
+
+  public static void forEachLine(Path path, LineConsumer consumer) throws IOException {
+    forEachLine(path, DEFAULT_WINDOW_SIZE, consumer);
+  }
+
+  /**
+   * @param windowSize the number of bytes mapped at a time, which must be larger than the longest line
+   */
+  @VisibleForTesting
+  static void forEachLine(Path path, long windowSize, LineConsumer consumer) throws IOException {
+    final AsciiSequence line = new AsciiSequence();
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      long position = 0;
+      while (position < size) {
+        final int length = (int) Math.min(windowSize, size - position);
+        final MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        final boolean lastWindow = position + length == size;
+
+        int lineStart = 0;
+        for (int index = 0; index < length; index++) {
+          if (window.get(index) == '\n') {
+            consumer.accept(line.wrap(window, lineStart, trimCarriageReturn(window, lineStart, index)));
+            lineStart = index + 1;
+          }
+        }
+
+        if (lastWindow) {
+          if (lineStart < length) {
+            consumer.accept(line.wrap(window, lineStart, trimCarriageReturn(window, lineStart, length)));
+          }
+          break;
+        }
+        if (lineStart == 0) {
+          throw new IOException(String.format("A line starting at byte %d is longer than the %d byte window", position, windowSize));
+        }
+        position += lineStart;
+      }
+    }
+  }
+
+  private static int trimCarriageReturn(MappedByteBuffer window, int lineStart, int lineEnd) {
+    return lineEnd > lineStart && window.get(lineEnd - 1) == '\r' ? lineEnd - lineStart - 1 : lineEnd - lineStart;
+  }
+}
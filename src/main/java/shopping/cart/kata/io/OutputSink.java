@@ -0,0 +1,37 @@
+package shopping.cart.kata.io;
+
+import java.io.Flushable;
+
+/**
+ * Where a checkout writes its prompts, running totals and receipts. Writes are buffered until {@link #flush()} is
+ * called, so a checkout should flush whenever it is about to wait for input.
+ */
+public interface OutputSink extends Flushable {
+  /**
+   * Encodes text in the character set of the sink, so text which is written repeatedly (such as a prompt) only needs
+   * to be encoded once.
+   */
+  byte[] encode(String text);
+
+  /**
+   * Writes bytes which have already been encoded by {@link #encode(String)}.
+   */
+  OutputSink write(byte[] encoded);
+
+  OutputSink write(CharSequence text);
+
+  OutputSink write(long value);
+
+  /**
+   * Writes an amount in pence as pounds sterling.
+   */
+  OutputSink writeAmount(long amountInPence);
+
+  OutputSink newLine();
+
+  /**
+   * Writes everything buffered so far to the underlying stream or channel.
+   */
+  @Override
+  void flush();
+}
@@ -0,0 +1,119 @@
+package shopping.cart.kata.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The lines of a cart after a number of scans from its journal. Restoring a snapshot and replaying only the scans
+ * recorded after it is proportional to the distinct items in the cart rather than every scan made.
+ */
+public final class CartSnapshot {
+  static final int MAGIC = 0x43534E32;
+
+  private static final int HEADER_SIZE = 12;
+
+  private static final int LINE_SIZE = 24;
+
+  private final int journalPosition;
+
+  private final int[] ordinals;
+
+  private final int[] quantities;
+
+  private final long[] grossAmounts;
+
+  private final long[] discounts;
+
+  /**
+   * @param journalPosition the number of scans from the journal included in the snapshot
+   */
+  public CartSnapshot(int journalPosition, int[] ordinals, int[] quantities, long[] grossAmounts, long[] discounts) {
+    if (ordinals.length != quantities.length || ordinals.length != grossAmounts.length || ordinals.length != discounts.length) {
+      throw new IllegalArgumentException("Every line must have an ordinal, quantity, gross amount and discount");
+    }
+    this.journalPosition = journalPosition;
+    this.ordinals = ordinals;
+    this.quantities = quantities;
+    this.grossAmounts = grossAmounts;
+    this.discounts = discounts;
+  }
+
+  public int getJournalPosition() {
+    return this.journalPosition;
+  }
+
+  public int size() {
+    return this.ordinals.length;
+  }
+
+  public int ordinalAt(int line) {
+    return this.ordinals[line];
+  }
+
+  public int quantityAt(int line) {
+    return this.quantities[line];
+  }
+
+  public long grossAt(int line) {
+    return this.grossAmounts[line];
+  }
+
+  public long discountAt(int line) {
+    return this.discounts[line];
+  }
+
+  /**
+   * Writes the snapshot to a temporary file which then replaces the file at the path, so a crash while writing leaves
+   * the previous snapshot in place.
+   */
+  public void writeTo(Path path) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + this.size() * LINE_SIZE);
+    buffer.putInt(MAGIC).putInt(this.journalPosition).putInt(this.size());
+    for (int line = 0; line < this.size(); line++) {
+      buffer.putInt(this.ordinals[line]).putInt(this.quantities[line]).putLong(this.grossAmounts[line]).putLong(this.discounts[line]);
+    }
+    buffer.flip();
+
+    final Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(true);
+    }
+    Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * @throws IOException if the file is not a cart snapshot
+   */
+  public static CartSnapshot readFrom(Path path) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+    if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+      throw new IOException(String.format("%s is not a cart snapshot", path));
+    }
+
+    final int journalPosition = buffer.getInt();
+    final int lines = buffer.getInt();
+    if (lines < 0 || buffer.remaining() != (long) lines * LINE_SIZE) {
+      throw new IOException(String.format("%s is truncated", path));
+    }
+
+    final int[] ordinals = new int[lines];
+    final int[] quantities = new int[lines];
+    final long[] grossAmounts = new long[lines];
+    final long[] discounts = new long[lines];
+    for (int line = 0; line < lines; line++) {
+      ordinals[line] = buffer.getInt();
+      quantities[line] = buffer.getInt();
+      grossAmounts[line] = buffer.getLong();
+      discounts[line] = buffer.getLong();
+    }
+    return new CartSnapshot(journalPosition, ordinals, quantities, grossAmounts, discounts);
+  }
+}
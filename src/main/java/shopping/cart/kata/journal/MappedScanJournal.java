@@ -0,0 +1,184 @@
+package shopping.cart.kata.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link ScanJournal} written to a preallocated, memory mapped file. Each scan is a fixed size record of the time,
+ * ordinal, price and quantity, which is negative for a removal. The quantity is written last and is never 0, so the end
+ * of the journal is the first record without a quantity and a record torn by a crash is ignored. Writes reach the page
+ * cache as soon as they are made, so the journal survives the JVM dying, and {@link #force()} can be used to survive
+ * the machine failing too.
+ *
+ * <p>Scans are recorded by ordinal, so the header holds the {@link shopping.cart.kata.catalog.SkuCatalog#fingerprint()
+ * fingerprint} of the catalog they were recorded against. Once a basket has been paid for, {@link #reset(long)} clears
+ * the journal for the next one.
+ */
+public final class MappedScanJournal implements ScanJournal, Closeable {
+  static final int MAGIC = 0x53434A31;
+
+  static final int HEADER_SIZE = 16;
+
+  static final int RECORD_SIZE = 20;
+
+  private static final int CAPACITY_OFFSET = 4;
+
+  private static final int CATALOG_FINGERPRINT_OFFSET = 8;
+
+  private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+
+  private static final int TIMESTAMP_OFFSET = 0;
+
+  private static final int ORDINAL_OFFSET = 8;
+
+  private static final int PRICE_OFFSET = 12;
+
+  private static final int QUANTITY_OFFSET = 16;
+
+  private final FileChannel channel;
+
+  private final MappedByteBuffer buffer;
+
+  private final int capacity;
+
+  private int size;
+
+  private MappedScanJournal(FileChannel channel, MappedByteBuffer buffer, int capacity, int size) {
+    this.channel = channel;
+    this.buffer = buffer;
+    this.capacity = capacity;
+    this.size = size;
+  }
+
+  /**
+   * Opens the journal at the path, creating it with room for the number of scans if it does not exist. An existing
+   * journal keeps its capacity and is appended to after its last complete record. It also keeps the fingerprint of the
+   * catalog its scans were recorded against, unless it has no scans, in which case it takes the fingerprint given.
+   *
+   * @throws IOException if the file is not a scan journal
+   */
+  public static MappedScanJournal open(Path path, int capacity, long catalogFingerprint) throws IOException {
+    if (capacity <= 0 || capacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException(String.format("The capacity must be between 1 and %d but was %d", MAX_CAPACITY, capacity));
+    }
+
+    final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      final boolean created = channel.size() == 0;
+      final long size = created ? HEADER_SIZE + (long) capacity * RECORD_SIZE : channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException(String.format("%s is too large to be a scan journal", path));
+      }
+      final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+      if (created) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+      } else if (size < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+        throw new IOException(String.format("%s is not a scan journal", path));
+      }
+
+      final int journalCapacity = buffer.getInt(CAPACITY_OFFSET);
+      if (journalCapacity <= 0 || journalCapacity > (size - HEADER_SIZE) / RECORD_SIZE) {
+        throw new IOException(String.format("%s is truncated", path));
+      }
+      int events = 0;
+      while (events < journalCapacity && buffer.getInt(offsetOf(events) + QUANTITY_OFFSET) != 0) {
+        events++;
+      }
+      if (events == 0) {
+        buffer.putLong(CATALOG_FINGERPRINT_OFFSET, catalogFingerprint);
+      }
+      return new MappedScanJournal(channel, buffer, journalCapacity, events);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * @throws IllegalStateException if the journal is full
+   */
+  @Override
+  public void append(int ordinal, int quantity, int price) {
+    if (this.size == this.capacity) {
+      throw new IllegalStateException(String.format("The scan journal is full after %d scans", this.capacity));
+    }
+    final int offset = offsetOf(this.size);
+    this.buffer.putLong(offset + TIMESTAMP_OFFSET, System.currentTimeMillis());
+    this.buffer.putInt(offset + ORDINAL_OFFSET, ordinal);
+    this.buffer.putInt(offset + PRICE_OFFSET, price);
+    this.buffer.putInt(offset + QUANTITY_OFFSET, quantity);
+    this.size++;
+  }
+
+  /**
+   * Clears the scans recorded, for the next basket, and records that the scans which follow are made against the
+   * catalog with the fingerprint. Records are cleared from the last to the first, so a crash part way through leaves
+   * the start of the previous basket rather than scans from two baskets.
+   */
+  public void reset(long catalogFingerprint) {
+    for (int event = this.size - 1; event >= 0; event--) {
+      this.buffer.putInt(offsetOf(event) + QUANTITY_OFFSET, 0);
+    }
+    this.buffer.putLong(CATALOG_FINGERPRINT_OFFSET, catalogFingerprint);
+    this.size = 0;
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  public int capacity() {
+    return this.capacity;
+  }
+
+  /**
+   * Returns the fingerprint of the catalog the scans were recorded against.
+   */
+  public long getCatalogFingerprint() {
+    return this.buffer.getLong(CATALOG_FINGERPRINT_OFFSET);
+  }
+
+  public void replay(ScanEventConsumer consumer) {
+    this.replay(0, consumer);
+  }
+
+  /**
+   * Passes the scans recorded from the event onwards to the consumer, in the order they were recorded.
+   */
+  public void replay(int fromEvent, ScanEventConsumer consumer) {
+    if (fromEvent < 0 || fromEvent > this.size) {
+      throw new IndexOutOfBoundsException(String.format("Event %d is out of bounds for a journal of %d scans", fromEvent, this.size));
+    }
+    for (int event = fromEvent; event < this.size; event++) {
+      final int offset = offsetOf(event);
+      consumer.accept(
+          this.buffer.getInt(offset + ORDINAL_OFFSET),
+          this.buffer.getInt(offset + QUANTITY_OFFSET),
+          this.buffer.getInt(offset + PRICE_OFFSET),
+          this.buffer.getLong(offset + TIMESTAMP_OFFSET)
+      );
+    }
+  }
+
+  /**
+   * Writes the recorded scans through to the storage device.
+   */
+  public void force() {
+    this.buffer.force();
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.channel.close();
+  }
+
+  private static int offsetOf(int event) {
+    return HEADER_SIZE + event * RECORD_SIZE;
+  }
+}
@@ -0,0 +1,5 @@
+package shopping.cart.kata.journal;
+
+public interface ScanEventConsumer {
+  void accept(int ordinal, int quantity, int price, long timestampMillis);
+}
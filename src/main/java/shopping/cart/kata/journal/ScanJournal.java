@@ -0,0 +1,25 @@
+package shopping.cart.kata.journal;
+
+/**
+ * Records every change made to a cart, so the cart can be rebuilt if the process running the till dies.
+ */
+public interface ScanJournal {
+  /**
+   * Records nothing.
+   */
+  ScanJournal NONE = (ordinal, quantity, price) -> {
+  };
+
+  /**
+   * Records that the quantity of the ordinal was scanned at the price in effect at the time, in pence per item. A
+   * negative quantity records items removed from the cart.
+   */
+  void append(int ordinal, int quantity, int price);
+
+  /**
+   * Returns the number of scans recorded.
+   */
+  default int size() {
+    return 0;
+  }
+}
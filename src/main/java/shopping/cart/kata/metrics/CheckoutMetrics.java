@@ -0,0 +1,44 @@
+package shopping.cart.kata.metrics;
+
+import shopping.cart.kata.catalog.SkuCatalog;
+
+/**
+ * Receives measurements from the checkout flow. Every method has an empty default, so an implementation only needs to
+ * override what it records.
+ */
+public interface CheckoutMetrics {
+  /**
+   * Records nothing. Carts and checkouts using these metrics skip taking timings altogether, so the scan path pays
+   * nothing for the instrumentation.
+   */
+  CheckoutMetrics NONE = new CheckoutMetrics() {
+  };
+
+  /**
+   * Called when a cart has added a known item.
+   *
+   * @param catalog the catalog the ordinal belongs to
+   * @param discountApplied the discount applied by the scan, in pence
+   * @param latencyNanos the time taken by the cart to add the item
+   */
+  default void itemScanned(SkuCatalog catalog, int ordinal, int quantity, long discountApplied, long latencyNanos) {
+  }
+
+  /**
+   * Called when a cart has been asked to add an item which is not in the catalog.
+   */
+  default void unknownItemScanned(long latencyNanos) {
+  }
+
+  /**
+   * Called when a checkout has handled a scanned line, from the line being read until the response has been written.
+   */
+  default void scanHandled(long latencyNanos) {
+  }
+
+  /**
+   * Called when the SKUs have been configured at the start of a checkout.
+   */
+  default void skusConfigured(int skus, long durationNanos) {
+  }
+}
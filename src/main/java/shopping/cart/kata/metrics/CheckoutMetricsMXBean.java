@@ -0,0 +1,34 @@
+package shopping.cart.kata.metrics;
+
+import java.util.Map;
+
+/**
+ * The checkout metrics as exposed over JMX. Latencies are in nanoseconds and amounts are in pence.
+ */
+public interface CheckoutMetricsMXBean {
+  long getItemsScanned();
+
+  long getUnknownItemsScanned();
+
+  double getUnknownItemRate();
+
+  long getTotalDiscount();
+
+  long getScanLatencyP50();
+
+  long getScanLatencyP99();
+
+  long getScanLatencyP999();
+
+  long getScanLatencyMax();
+
+  long getScanHandledLatencyP50();
+
+  long getScanHandledLatencyP99();
+
+  long getScanHandledLatencyMax();
+
+  long getSkusConfigured();
+
+  Map<String, Long> getScansPerSku();
+}
@@ -0,0 +1,91 @@
+package shopping.cart.kata.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies in nanoseconds with log-linear buckets, in the style of HdrHistogram. Each power of two is
+ * split into 32 linear sub-buckets, so recorded values are accurate to within about 3%. Recording is lock free (a
+ * single atomic increment) and can be done from any number of threads while the histogram is being read.
+ */
+public class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 5;
+
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  private static final int LINEAR_VALUES = SUB_BUCKETS << 1;
+
+  private static final int BUCKETS = LINEAR_VALUES + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts;
+
+  private final AtomicLong max;
+
+  public LatencyHistogram() {
+    this.counts = new AtomicLongArray(BUCKETS);
+    this.max = new AtomicLong();
+  }
+
+  public void record(long value) {
+    final long nonNegativeValue = Math.max(0, value);
+    this.counts.incrementAndGet(indexOf(nonNegativeValue));
+    if (nonNegativeValue > this.max.get()) {
+      this.max.accumulateAndGet(nonNegativeValue, Math::max);
+    }
+  }
+
+  public long getCount() {
+    long count = 0;
+    for (int index = 0; index < BUCKETS; index++) {
+      count += this.counts.get(index);
+    }
+    return count;
+  }
+
+  public long getMax() {
+    return this.max.get();
+  }
+
+  /**
+   * Returns the value at the percentile (0 to 100), reported as the highest value which falls in the same bucket.
+   * Returns 0 if nothing has been recorded.
+   */
+  public long getValueAtPercentile(double percentile) {
+    final long[] snapshot = new long[BUCKETS];
+    long count = 0;
+    for (int index = 0; index < BUCKETS; index++) {
+      snapshot[index] = this.counts.get(index);
+      count += snapshot[index];
+    }
+    if (count == 0) {
+      return 0;
+    }
+
+    final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+    for (int index = 0; index < BUCKETS; index++) {
+      seen += snapshot[index];
+      if (seen >= rank) {
+        return Math.min(highestValueOf(index), this.max.get());
+      }
+    }
+    return this.max.get();
+  }
+
+  static int indexOf(long value) {
+    if (value < LINEAR_VALUES) {
+      return (int) value;
+    }
+    final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return LINEAR_VALUES + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+  }
+
+  static long highestValueOf(int index) {
+    if (index < LINEAR_VALUES) {
+      return index;
+    }
+    final int shift = (index - LINEAR_VALUES) / SUB_BUCKETS + 1;
+    final long subBucket = (index - LINEAR_VALUES) % SUB_BUCKETS + SUB_BUCKETS;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
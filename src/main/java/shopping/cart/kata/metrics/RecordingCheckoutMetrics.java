@@ -0,0 +1,242 @@
+package shopping.cart.kata.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import shopping.cart.kata.catalog.SkuCatalog;
+
+/**
+ * Records the checkout metrics in memory and exports them through JMX once {@link #register(String)} has been called.
+ * Recording is lock free and safe to share between every cart and checkout in the JVM.
+ *
+ * <p>Scans per SKU are counted by ordinal against the catalog they were scanned from, and the SKU IDs are only looked
+ * up when the counts are read, so recording a scan does not allocate even for catalogs which decode IDs on demand. The
+ * counts of the few most recently used catalogs are kept by ordinal, and those of older catalogs are merged into counts
+ * by SKU ID so replaced catalogs are not kept alive.
+ */
+public class RecordingCheckoutMetrics implements CheckoutMetrics, CheckoutMetricsMXBean {
+  private static final int MAX_CATALOGS = 4;
+
+  private final LatencyHistogram scanLatency = new LatencyHistogram();
+
+  private final LatencyHistogram scanHandledLatency = new LatencyHistogram();
+
+  private final LongAdder itemsScanned = new LongAdder();
+
+  private final LongAdder unknownItemsScanned = new LongAdder();
+
+  private final LongAdder totalDiscount = new LongAdder();
+
+  private final LongAdder skusConfigured = new LongAdder();
+
+  private final ConcurrentHashMap<String, LongAdder> retiredScansPerSku = new ConcurrentHashMap<>();
+
+  private volatile CatalogScans[] catalogScans = new CatalogScans[0];
+
+  /**
+   * Registers the metrics with the platform MBean server under {@code shopping.cart.kata:type=CheckoutMetrics,name=}
+   * the supplied name.
+   */
+  public void register(String name) throws JMException {
+    ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName(name));
+  }
+
+  public static ObjectName objectName(String name) throws JMException {
+    return new ObjectName(String.format("shopping.cart.kata:type=CheckoutMetrics,name=%s", ObjectName.quote(name)));
+  }
+
+  @Override
+  public void itemScanned(SkuCatalog catalog, int ordinal, int quantity, long discountApplied, long latencyNanos) {
+    this.scanLatency.record(latencyNanos);
+    this.itemsScanned.add(quantity);
+    if (discountApplied != 0) {
+      this.totalDiscount.add(discountApplied);
+    }
+    this.scansOf(catalog).add(ordinal, quantity);
+  }
+
+  @Override
+  public void unknownItemScanned(long latencyNanos) {
+    this.scanLatency.record(latencyNanos);
+    this.unknownItemsScanned.increment();
+  }
+
+  @Override
+  public void scanHandled(long latencyNanos) {
+    this.scanHandledLatency.record(latencyNanos);
+  }
+
+  @Override
+  public void skusConfigured(int skus, long durationNanos) {
+    this.skusConfigured.add(skus);
+  }
+
+  public LatencyHistogram getScanLatency() {
+    return this.scanLatency;
+  }
+
+  public LatencyHistogram getScanHandledLatency() {
+    return this.scanHandledLatency;
+  }
+
+  @Override
+  public long getItemsScanned() {
+    return this.itemsScanned.sum();
+  }
+
+  @Override
+  public long getUnknownItemsScanned() {
+    return this.unknownItemsScanned.sum();
+  }
+
+  @Override
+  public double getUnknownItemRate() {
+    final long unknownItemsScanned = this.getUnknownItemsScanned();
+    final long scans = unknownItemsScanned + this.getItemsScanned();
+    return scans == 0 ? 0 : (double) unknownItemsScanned / scans;
+  }
+
+  @Override
+  public long getTotalDiscount() {
+    return this.totalDiscount.sum();
+  }
+
+  @Override
+  public long getScanLatencyP50() {
+    return this.scanLatency.getValueAtPercentile(50);
+  }
+
+  @Override
+  public long getScanLatencyP99() {
+    return this.scanLatency.getValueAtPercentile(99);
+  }
+
+  @Override
+  public long getScanLatencyP999() {
+    return this.scanLatency.getValueAtPercentile(99.9);
+  }
+
+  @Override
+  public long getScanLatencyMax() {
+    return this.scanLatency.getMax();
+  }
+
+  @Override
+  public long getScanHandledLatencyP50() {
+    return this.scanHandledLatency.getValueAtPercentile(50);
+  }
+
+  @Override
+  public long getScanHandledLatencyP99() {
+    return this.scanHandledLatency.getValueAtPercentile(99);
+  }
+
+  @Override
+  public long getScanHandledLatencyMax() {
+    return this.scanHandledLatency.getMax();
+  }
+
+  @Override
+  public long getSkusConfigured() {
+    return this.skusConfigured.sum();
+  }
+
+  @Override
+  public Map<String, Long> getScansPerSku() {
+    final Map<String, Long> scansPerSku = new TreeMap<>();
+    this.retiredScansPerSku.forEach((item, scans) -> scansPerSku.put(item, scans.sum()));
+    for (CatalogScans scans : this.catalogScans) {
+      scans.forEach((item, count) -> scansPerSku.merge(item, count, Long::sum));
+    }
+    return scansPerSku;
+  }
+
+  private CatalogScans scansOf(SkuCatalog catalog) {
+    for (CatalogScans scans : this.catalogScans) {
+      if (scans.catalog == catalog) {
+        return scans;
+      }
+    }
+    return this.addCatalog(catalog);
+  }
+
+  /**
+   * Starts counting the scans of a catalog, merging the counts of the least recently added catalog into the counts by
+   * SKU ID if there are already as many catalogs as are kept. A scan racing the merge may be left out of the counts.
+   */
+  private synchronized CatalogScans addCatalog(SkuCatalog catalog) {
+    final CatalogScans[] catalogScans = this.catalogScans;
+    for (CatalogScans scans : catalogScans) {
+      if (scans.catalog == catalog) {
+        return scans;
+      }
+    }
+
+    final int retired = catalogScans.length < MAX_CATALOGS ? 0 : 1;
+    for (int index = 0; index < retired; index++) {
+      catalogScans[index].forEach((item, count) -> this.retiredScansPerSku.computeIfAbsent(item, key -> new LongAdder()).add(count));
+    }
+    final CatalogScans scans = new CatalogScans(catalog);
+    final CatalogScans[] updated = Arrays.copyOfRange(catalogScans, retired, catalogScans.length + 1);
+    updated[updated.length - 1] = scans;
+    this.catalogScans = updated;
+    return scans;
+  }
+
+  private interface ScanCountConsumer {
+    void accept(String item, long count);
+  }
+
+  /**
+   * The scans of each SKU of a catalog, counted by ordinal in chunks which are only allocated once one of their SKUs
+   * has been scanned.
+   */
+  private static final class CatalogScans {
+    private static final int CHUNK_SHIFT = 10;
+
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    private final SkuCatalog catalog;
+
+    private final AtomicReferenceArray<AtomicLongArray> chunks;
+
+    CatalogScans(SkuCatalog catalog) {
+      this.catalog = catalog;
+      this.chunks = new AtomicReferenceArray<>((catalog.size() >>> CHUNK_SHIFT) + 1);
+    }
+
+    void add(int ordinal, int quantity) {
+      final int chunk = ordinal >>> CHUNK_SHIFT;
+      AtomicLongArray counts = this.chunks.get(chunk);
+      if (counts == null) {
+        this.chunks.compareAndSet(chunk, null, new AtomicLongArray(1 << CHUNK_SHIFT));
+        counts = this.chunks.get(chunk);
+      }
+      counts.addAndGet(ordinal & CHUNK_MASK, quantity);
+    }
+
+    void forEach(ScanCountConsumer consumer) {
+      for (int chunk = 0; chunk < this.chunks.length(); chunk++) {
+        final AtomicLongArray counts = this.chunks.get(chunk);
+        if (counts == null) {
+          continue;
+        }
+        for (int index = 0; index < counts.length(); index++) {
+          final long count = counts.get(index);
+          if (count != 0) {
+            consumer.accept(this.catalog.itemOf(chunk << CHUNK_SHIFT | index), count);
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package shopping.cart.kata.models;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Builder
+public class CartTotals {
+    @Getter
+    private long runningTotal;
+
+    @Getter
+    private long totalDiscount;
+
+    public long getTotalToPay() {
+        return this.runningTotal - this.totalDiscount;
+    }
+}
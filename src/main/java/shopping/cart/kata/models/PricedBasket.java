@@ -0,0 +1,25 @@
+package shopping.cart.kata.models;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Builder
+public class PricedBasket {
+    @Getter
+    private long catalogVersion;
+
+    @Getter
+    private long runningTotal;
+
+    @Getter
+    private long totalDiscount;
+
+    @Getter
+    private List<PricedLine> lines;
+
+    public long getTotalToPay() {
+        return this.runningTotal - this.totalDiscount;
+    }
+}
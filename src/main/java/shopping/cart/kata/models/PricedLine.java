@@ -0,0 +1,23 @@
+package shopping.cart.kata.models;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Builder
+public class PricedLine {
+    @Getter
+    private String item;
+
+    @Getter
+    private int quantity;
+
+    @Getter
+    private long gross;
+
+    @Getter
+    private long discount;
+
+    public long getNet() {
+        return this.gross - this.discount;
+    }
+}
@@ -0,0 +1,6 @@
+package shopping.cart.kata.models;
+
+public enum ScanResult {
+    ADDED,
+    ITEM_NOT_FOUND
+}
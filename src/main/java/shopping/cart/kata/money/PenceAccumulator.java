@@ -0,0 +1,95 @@
+package shopping.cart.kata.money;
+
+import java.math.BigInteger;
+
+/**
+ * Adds up amounts in pence without overflowing. The total is held in a long, which costs no more than an int on a 64
+ * bit JVM and holds over £92 trillion, and each addition is checked for overflow the way {@link Math#addExact(long,
+ * long)} checks it, without throwing. Only a total which leaves the range of a long widens to a {@link BigInteger}, so
+ * adding up a normal basket never allocates.
+ *
+ * <p>An accumulator is not thread safe.
+ */
+public final class PenceAccumulator {
+  private long total;
+
+  /**
+   * The total once it no longer fits in a long, or null while it does.
+   */
+  private BigInteger wideTotal;
+
+  public PenceAccumulator add(long amountInPence) {
+    if (this.wideTotal == null) {
+      final long sum = this.total + amountInPence;
+      // Only adding two amounts of the same sign can overflow, which flips the sign of the sum
+      if (((this.total ^ sum) & (amountInPence ^ sum)) >= 0) {
+        this.total = sum;
+        return this;
+      }
+      this.wideTotal = BigInteger.valueOf(this.total);
+    }
+    return this.addWide(BigInteger.valueOf(amountInPence));
+  }
+
+  public PenceAccumulator add(PenceAccumulator other) {
+    return other.wideTotal == null ? this.add(other.total) : this.addWide(other.wideTotal);
+  }
+
+  /**
+   * Returns true while the total fits in a long.
+   */
+  public boolean fitsInLong() {
+    return this.wideTotal == null;
+  }
+
+  /**
+   * Returns the total in pence.
+   *
+   * @throws ArithmeticException if the total does not fit in a long, see {@link #toBigInteger()}
+   */
+  public long longValue() {
+    if (this.wideTotal != null) {
+      throw new ArithmeticException(String.format("The total of %s pence does not fit in a long", this.wideTotal));
+    }
+    return this.total;
+  }
+
+  public BigInteger toBigInteger() {
+    return this.wideTotal == null ? BigInteger.valueOf(this.total) : this.wideTotal;
+  }
+
+  public void reset() {
+    this.total = 0;
+    this.wideTotal = null;
+  }
+
+  /**
+   * Returns the price of the quantity of an item at the unit price, in pence. The product of two ints always fits in a
+   * long, so it needs no check.
+   */
+  public static long priceOf(int unitPrice, int quantity) {
+    return (long) unitPrice * quantity;
+  }
+
+  /**
+   * Returns true if the amount can be held in an int, as the prices and discounts of a catalog are.
+   */
+  public static boolean fitsInInt(long amountInPence) {
+    return amountInPence == (int) amountInPence;
+  }
+
+  @Override
+  public String toString() {
+    return this.wideTotal == null ? Long.toString(this.total) : this.wideTotal.toString();
+  }
+
+  private PenceAccumulator addWide(BigInteger amountInPence) {
+    this.wideTotal = this.wideTotal == null ? BigInteger.valueOf(this.total).add(amountInPence) : this.wideTotal.add(amountInPence);
+    // Narrow back to the fast path once the total fits in a long again
+    if (this.wideTotal.bitLength() < Long.SIZE) {
+      this.total = this.wideTotal.longValue();
+      this.wideTotal = null;
+    }
+    return this;
+  }
+}
@@ -0,0 +1,546 @@
+package shopping.cart.kata.promotions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.collections.OrdinalCounter;
+import shopping.cart.kata.collections.OrdinalIndex;
+
+/**
+ * Chooses the best combination of overlapping mix and match deals, such as "any 3 from A, B or C for £1" alongside "any
+ * 2 from C or D for 70p". An item can only count towards one bundle, so when deals share SKUs the discount depends on
+ * which deal each item is put towards, and the solver finds the combination which saves the customer the most.
+ *
+ * <p>SKUs eligible for the same deals are interchangeable apart from their price, so for a given number of bundles of
+ * each deal the best items to use are found greedily, from the most expensive down, keeping a matching of items to
+ * bundles and rerouting items along augmenting paths to make room. The numbers of bundles are then found by branch and
+ * bound, fixing one deal at a time and only extending a choice while an upper bound on the combinations it leads to
+ * beats the best combination found. Each cart keeps its previous best combination, which is tried first after the next
+ * scan so most of the search is pruned straight away.
+ */
+public final class BundleSolver implements IncrementalPromotion<BundleSolver.Solution> {
+  private static final int MAX_DEALS = 31;
+
+  private static final double INFEASIBLE = Double.NEGATIVE_INFINITY;
+
+  private final int[] bundleSizes;
+
+  private final int[] bundlePrices;
+
+  /**
+   * The position each deal is searched in, by the order it was added.
+   */
+  private final int[] dealPositions;
+
+  /**
+   * The SKUs of the deals, from the most to the least expensive.
+   */
+  private final int[] ordinals;
+
+  private final int[] prices;
+
+  /**
+   * The class of each SKU, where SKUs in the same class are eligible for the same deals.
+   */
+  private final int[] classes;
+
+  private final int[] classDeals;
+
+  private final double[] pricesBySku;
+
+  private final int[] priceOrder;
+
+  /**
+   * For each deal, the most each SKU could save when the deals after it are relaxed to sell single items at their
+   * price per item.
+   */
+  private final double[][] relaxedValues;
+
+  /**
+   * For each deal, the weight of putting each SKU into a fixed deal rather than a relaxed one, and the SKUs in
+   * descending order of it.
+   */
+  private final double[][] boundWeights;
+
+  private final int[][] boundOrders;
+
+  private BundleSolver(SkuCatalog catalog, int[] bundleSizes, int[] bundlePrices, int[][] dealOrdinals, int[] dealPositions) {
+    this.bundleSizes = bundleSizes;
+    this.bundlePrices = bundlePrices;
+    this.dealPositions = dealPositions;
+
+    final Map<Integer, Integer> dealsByOrdinal = new LinkedHashMap<>();
+    for (int deal = 0; deal < dealOrdinals.length; deal++) {
+      for (int ordinal : dealOrdinals[deal]) {
+        dealsByOrdinal.merge(ordinal, 1 << deal, (left, right) -> left | right);
+      }
+    }
+    this.ordinals = dealsByOrdinal.keySet().stream()
+        .sorted(Comparator.comparingInt(catalog::priceOf).reversed())
+        .mapToInt(Integer::intValue)
+        .toArray();
+    this.prices = IntStream.of(this.ordinals).map(catalog::priceOf).toArray();
+
+    final Map<Integer, Integer> classesByDeals = new LinkedHashMap<>();
+    this.classes = new int[this.ordinals.length];
+    for (int sku = 0; sku < this.ordinals.length; sku++) {
+      this.classes[sku] = classesByDeals.computeIfAbsent(dealsByOrdinal.get(this.ordinals[sku]), deals -> classesByDeals.size());
+    }
+    this.classDeals = classesByDeals.keySet().stream().mapToInt(Integer::intValue).toArray();
+
+    this.pricesBySku = IntStream.of(this.prices).asDoubleStream().toArray();
+    this.priceOrder = IntStream.range(0, this.ordinals.length).toArray();
+    final int deals = bundleSizes.length;
+    this.relaxedValues = new double[deals][this.ordinals.length];
+    this.boundWeights = new double[deals][this.ordinals.length];
+    this.boundOrders = new int[deals][];
+    for (int deal = 0; deal < deals; deal++) {
+      for (int sku = 0; sku < this.ordinals.length; sku++) {
+        double cheapestUnitPrice = Double.MAX_VALUE;
+        for (int free = deal + 1; free < deals; free++) {
+          if ((this.classDeals[this.classes[sku]] & (1 << free)) != 0) {
+            cheapestUnitPrice = Math.min(cheapestUnitPrice, (double) bundlePrices[free] / bundleSizes[free]);
+          }
+        }
+        this.relaxedValues[deal][sku] = Math.max(0, this.prices[sku] - cheapestUnitPrice);
+        this.boundWeights[deal][sku] = this.prices[sku] - this.relaxedValues[deal][sku];
+      }
+      final double[] weights = this.boundWeights[deal];
+      this.boundOrders[deal] = IntStream.range(0, this.ordinals.length).boxed()
+          .sorted(Comparator.comparingDouble((Integer sku) -> weights[sku]).reversed())
+          .mapToInt(Integer::intValue)
+          .toArray();
+    }
+  }
+
+  public static Builder builder(SkuCatalog catalog) {
+    return new Builder(catalog);
+  }
+
+  @Override
+  public int[] ordinals() {
+    return Arrays.copyOf(this.ordinals, this.ordinals.length);
+  }
+
+  @Override
+  public Solution newState() {
+    return new Solution(this.dealPositions, this.ordinals.length, this.classDeals.length);
+  }
+
+  @Override
+  public long discountFor(SkuCatalog catalog, OrdinalCounter basket, Solution solution) {
+    final int deals = this.bundleSizes.length;
+    for (int sku = 0; sku < this.ordinals.length; sku++) {
+      solution.quantities[sku] = basket.quantityOf(this.ordinals[sku]);
+    }
+    for (int deal = 0; deal < deals; deal++) {
+      solution.maxBundles[deal] = this.maxBundles(solution, deal);
+    }
+
+    // Start from the previous best combination, and from it with one more bundle of each deal, as a scan rarely moves
+    // the best combination further than that
+    solution.best = 0;
+    for (int deal = 0; deal < deals; deal++) {
+      solution.counts[deal] = Math.min(solution.bundles[deal], solution.maxBundles[deal]);
+    }
+    Arrays.fill(solution.bundles, 0);
+    this.tryCounts(solution);
+    for (int deal = 0; deal < deals; deal++) {
+      if (solution.counts[deal] < solution.maxBundles[deal]) {
+        solution.counts[deal]++;
+        this.tryCounts(solution);
+        solution.counts[deal]--;
+      }
+    }
+
+    Arrays.fill(solution.counts, 0);
+    this.search(solution, 0);
+    solution.discount = solution.best;
+    return solution.discount;
+  }
+
+  private void tryCounts(Solution solution) {
+    final double weight = this.greedyWeight(solution, this.priceOrder, this.pricesBySku);
+    if (weight != INFEASIBLE) {
+      this.offer(solution, (long) weight - this.costOf(solution.counts, solution.counts.length));
+    }
+  }
+
+  private void offer(Solution solution, long value) {
+    if (value > solution.best) {
+      solution.best = value;
+      System.arraycopy(solution.counts, 0, solution.bundles, 0, solution.counts.length);
+    }
+  }
+
+  /**
+   * Chooses the number of bundles of the deal, with the deals before it fixed and the deals after it at 0, extending
+   * each choice to the next deal while its bound beats the best combination found.
+   *
+   * <p>The bound relaxes the deals after this one to sell any number of items at their price per item, so each item
+   * is worth at most its price less the cheapest price per item of those deals it is eligible for. The bundles of the
+   * fixed deals are then filled with the items which lose the least by being taken out of the relaxed deals. Filling
+   * bundles is a matroid problem, so the bound is concave in the number of bundles: the counts worth trying form a
+   * range around its peak, which is found by binary search and then walked outwards until the bound no longer beats
+   * the best combination.
+   */
+  private void search(Solution solution, int deal) {
+    final double[] relaxedValues = this.relaxedValues[deal];
+    double relaxedValue = 0;
+    for (int sku = 0; sku < this.ordinals.length; sku++) {
+      relaxedValue += solution.quantities[sku] * relaxedValues[sku];
+    }
+
+    // The best combination so far is usually close to the peak, so the search climbs from it, keeping the bounds either
+    // side of the peak for the walk
+    int peak = Math.min(solution.bundles[deal], solution.maxBundles[deal]);
+    double peakBound = this.bound(solution, deal, peak, relaxedValue);
+    double below = Double.NaN;
+    double above = Double.NaN;
+    if (peakBound == INFEASIBLE) {
+      peak = this.peakOf(solution, deal, this.mostBundles(solution, deal, peak - 1, relaxedValue), relaxedValue);
+      peakBound = this.bound(solution, deal, peak, relaxedValue);
+    } else {
+      while (peak < solution.maxBundles[deal] && (above = this.bound(solution, deal, peak + 1, relaxedValue)) > peakBound) {
+        below = peakBound;
+        peakBound = above;
+        above = Double.NaN;
+        peak++;
+      }
+      while (Double.isNaN(below) && peak > 0 && (below = this.bound(solution, deal, peak - 1, relaxedValue)) > peakBound) {
+        above = peakBound;
+        peakBound = below;
+        below = Double.NaN;
+        peak--;
+      }
+    }
+
+    // Walks down from the peak, then up from it, until the bound no longer beats the best combination. Nothing is
+    // relaxed for the last deal, so its bound is the value of the combination and only the peak is worth offering
+    if (deal + 1 == this.bundleSizes.length) {
+      if (peakBound != INFEASIBLE) {
+        solution.counts[deal] = peak;
+        this.offer(solution, Math.round(peakBound));
+      }
+    } else if (this.visit(solution, deal, peak, peakBound)) {
+      int count = peak - 1;
+      while (count >= 0 && this.visit(solution, deal, count, this.bound(solution, deal, count, relaxedValue, count == peak - 1 ? below : Double.NaN))) {
+        count--;
+      }
+      count = peak + 1;
+      while (count <= solution.maxBundles[deal] && this.visit(solution, deal, count, this.bound(solution, deal, count, relaxedValue, count == peak + 1 ? above : Double.NaN))) {
+        count++;
+      }
+    }
+    solution.counts[deal] = 0;
+  }
+
+  /**
+   * Returns the most bundles of the deal, up to the limit, which the basket can fill alongside the fixed deals.
+   */
+  private int mostBundles(Solution solution, int deal, int limit, double relaxedValue) {
+    int low = 0;
+    int high = Math.max(limit, 0);
+    while (low < high) {
+      final int middle = (low + high + 1) >>> 1;
+      if (this.bound(solution, deal, middle, relaxedValue) == INFEASIBLE) {
+        high = middle - 1;
+      } else {
+        low = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Binary searches for the number of bundles of the deal, up to the limit, with the highest bound.
+   */
+  private int peakOf(Solution solution, int deal, int limit, double relaxedValue) {
+    int low = 0;
+    int high = limit;
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      if (this.bound(solution, deal, middle + 1, relaxedValue) > this.bound(solution, deal, middle, relaxedValue)) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Searches the deals after this one with its number of bundles fixed, returning false if the bound does not beat the
+   * best combination.
+   */
+  private boolean visit(Solution solution, int deal, int count, double bound) {
+    if (bound == INFEASIBLE || Math.floor(bound + 1e-6) <= solution.best) {
+      return false;
+    }
+    solution.counts[deal] = count;
+    this.search(solution, deal + 1);
+    return true;
+  }
+
+  private double bound(Solution solution, int deal, int count, double relaxedValue, double known) {
+    return Double.isNaN(known) ? this.bound(solution, deal, count, relaxedValue) : known;
+  }
+
+  private double bound(Solution solution, int deal, int count, double relaxedValue) {
+    solution.counts[deal] = count;
+    final double fixedWeight = this.greedyWeight(solution, this.boundOrders[deal], this.boundWeights[deal]);
+    return fixedWeight == INFEASIBLE ? INFEASIBLE : fixedWeight + relaxedValue - this.costOf(solution.counts, deal + 1);
+  }
+
+  private int maxBundles(Solution solution, int deal) {
+    long units = 0;
+    for (int sku = 0; sku < this.ordinals.length; sku++) {
+      if ((this.classDeals[this.classes[sku]] & (1 << deal)) != 0) {
+        units += solution.quantities[sku];
+      }
+    }
+    return (int) Math.min(units / this.bundleSizes[deal], Integer.MAX_VALUE);
+  }
+
+  private long costOf(int[] counts, int deals) {
+    long cost = 0;
+    for (int deal = 0; deal < deals; deal++) {
+      cost += (long) counts[deal] * this.bundlePrices[deal];
+    }
+    return cost;
+  }
+
+  /**
+   * Returns the greatest total weight of items, taken in the order given, which fills every bundle of the current
+   * counts, or {@link #INFEASIBLE} if the basket cannot fill them. Items which cannot be placed are never placeable
+   * later, so taking them in weight order gives the heaviest way of filling the bundles.
+   */
+  private double greedyWeight(Solution solution, int[] order, double[] weights) {
+    final int deals = this.bundleSizes.length;
+    long slots = 0;
+    for (int deal = 0; deal < deals; deal++) {
+      solution.spare[deal] = solution.counts[deal] * this.bundleSizes[deal];
+      slots += solution.spare[deal];
+    }
+    if (slots == 0) {
+      return 0;
+    }
+    Arrays.fill(solution.flow, 0);
+    solution.closedDeals = 0;
+
+    double weight = 0;
+    for (int index = 0; index < order.length && slots > 0; index++) {
+      final int sku = order[index];
+      final int itemClass = this.classes[sku];
+      int quantity = solution.quantities[sku];
+      while (quantity > 0 && (this.classDeals[itemClass] & ~solution.closedDeals) != 0) {
+        int moved = this.place(solution, itemClass, quantity);
+        if (moved == 0) {
+          moved = this.augment(solution, itemClass, quantity);
+        }
+        if (moved == 0) {
+          break;
+        }
+        quantity -= moved;
+        slots -= moved;
+        weight += (double) moved * weights[sku];
+      }
+    }
+    return slots == 0 ? weight : INFEASIBLE;
+  }
+
+  /**
+   * Puts items of the class into a deal with spare slots, returning the number placed.
+   */
+  private int place(Solution solution, int itemClass, int quantity) {
+    final int deals = this.bundleSizes.length;
+    for (int eligible = this.classDeals[itemClass]; eligible != 0; eligible &= eligible - 1) {
+      final int deal = Integer.numberOfTrailingZeros(eligible);
+      if (solution.spare[deal] > 0) {
+        final int moved = Math.min(quantity, solution.spare[deal]);
+        solution.flow[itemClass * deals + deal] += moved;
+        solution.spare[deal] -= moved;
+        return moved;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Makes room for items of the class by moving items already placed in a full deal to other deals they are eligible
+   * for, searching breadth first for a deal with spare slots. Returns the number of items placed.
+   *
+   * <p>When there is no room, every deal the search reached is full and only leads to other full deals, and placing
+   * more items never changes that, so those deals are closed and later searches skip them.
+   */
+  private int augment(Solution solution, int itemClass, int quantity) {
+    final int deals = this.bundleSizes.length;
+    final int classCount = this.classDeals.length;
+    int head = 0;
+    int tail = 0;
+    int reached = this.classDeals[itemClass] & ~solution.closedDeals;
+    for (int eligible = reached; eligible != 0; eligible &= eligible - 1) {
+      final int deal = Integer.numberOfTrailingZeros(eligible);
+      solution.previousDeal[deal] = -1;
+      solution.queue[tail++] = deal;
+    }
+
+    while (head < tail) {
+      final int deal = solution.queue[head++];
+      for (int movedClass = 0; movedClass < classCount; movedClass++) {
+        if (solution.flow[movedClass * deals + deal] == 0) {
+          continue;
+        }
+        for (int eligible = this.classDeals[movedClass] & ~(reached | solution.closedDeals); eligible != 0; eligible &= eligible - 1) {
+          final int next = Integer.numberOfTrailingZeros(eligible);
+          reached |= 1 << next;
+          solution.previousDeal[next] = deal;
+          solution.movedClass[next] = movedClass;
+          if (solution.spare[next] > 0) {
+            return this.applyPath(solution, itemClass, quantity, next);
+          }
+          solution.queue[tail++] = next;
+        }
+      }
+    }
+    solution.closedDeals |= reached;
+    return 0;
+  }
+
+  private int applyPath(Solution solution, int itemClass, int quantity, int lastDeal) {
+    final int deals = this.bundleSizes.length;
+    int moved = Math.min(quantity, solution.spare[lastDeal]);
+    for (int deal = lastDeal; solution.previousDeal[deal] != -1; deal = solution.previousDeal[deal]) {
+      moved = Math.min(moved, solution.flow[solution.movedClass[deal] * deals + solution.previousDeal[deal]]);
+    }
+
+    solution.spare[lastDeal] -= moved;
+    int deal = lastDeal;
+    while (solution.previousDeal[deal] != -1) {
+      final int from = solution.previousDeal[deal];
+      solution.flow[solution.movedClass[deal] * deals + deal] += moved;
+      solution.flow[solution.movedClass[deal] * deals + from] -= moved;
+      deal = from;
+    }
+    solution.flow[itemClass * deals + deal] += moved;
+    return moved;
+  }
+
+  /**
+   * The best combination of bundles found for a cart, kept to start the search after its next scan.
+   */
+  public static final class Solution {
+    private final int[] quantities;
+
+    private final int[] dealPositions;
+
+    private final int[] bundles;
+
+    private final int[] counts;
+
+    private final int[] maxBundles;
+
+    private final int[] spare;
+
+    private final int[] flow;
+
+    private int closedDeals;
+
+    private final int[] previousDeal;
+
+    private final int[] movedClass;
+
+    private final int[] queue;
+
+    private long best;
+
+    private long discount;
+
+    private Solution(int[] dealPositions, int skus, int classes) {
+      final int deals = dealPositions.length;
+      this.dealPositions = dealPositions;
+      this.quantities = new int[skus];
+      this.bundles = new int[deals];
+      this.counts = new int[deals];
+      this.maxBundles = new int[deals];
+      this.spare = new int[deals];
+      this.flow = new int[classes * deals];
+      this.previousDeal = new int[deals];
+      this.movedClass = new int[deals];
+      this.queue = new int[deals];
+    }
+
+    /**
+     * Returns the number of bundles of the deal, in the order the deals were added, in the best combination.
+     */
+    public int bundlesOf(int deal) {
+      return this.bundles[this.dealPositions[deal]];
+    }
+
+    public long getDiscount() {
+      return this.discount;
+    }
+  }
+
+  public static final class Builder {
+    private final SkuCatalog catalog;
+
+    private final List<int[]> deals;
+
+    private final List<int[]> ordinals;
+
+    private Builder(SkuCatalog catalog) {
+      this.catalog = catalog;
+      this.deals = new ArrayList<>();
+      this.ordinals = new ArrayList<>();
+    }
+
+    /**
+     * Adds a deal selling any quantity of the items for the price, in pence.
+     */
+    public Builder deal(int quantity, int price, String... items) {
+      if (this.deals.size() == MAX_DEALS) {
+        throw new IllegalArgumentException(String.format("A solver can choose between at most %d deals", MAX_DEALS));
+      }
+      if (quantity <= 0 || price <= 0 || items.length == 0) {
+        throw new IllegalArgumentException("A deal must have items, and a quantity and price greater than 0");
+      }
+      final int[] dealOrdinals = new int[items.length];
+      for (int index = 0; index < items.length; index++) {
+        dealOrdinals[index] = this.catalog.ordinalOf(items[index]);
+        if (dealOrdinals[index] == OrdinalIndex.NOT_FOUND) {
+          throw new IllegalArgumentException(String.format("No SKU found for item (%s)", items[index]));
+        }
+      }
+      this.deals.add(new int[]{quantity, price});
+      this.ordinals.add(dealOrdinals);
+      return this;
+    }
+
+    public BundleSolver build() {
+      // Deals are searched from the most expensive bundle down, which settles the deals with the most at stake first
+      // and leaves the cheaper ones to the bound
+      final int[] order = IntStream.range(0, this.deals.size()).boxed()
+          .sorted(Comparator.comparingInt((Integer deal) -> this.deals.get(deal)[1]).reversed())
+          .mapToInt(Integer::intValue)
+          .toArray();
+      final int[] positions = new int[order.length];
+      for (int position = 0; position < order.length; position++) {
+        positions[order[position]] = position;
+      }
+      return new BundleSolver(
+          this.catalog,
+          IntStream.of(order).map(deal -> this.deals.get(deal)[0]).toArray(),
+          IntStream.of(order).map(deal -> this.deals.get(deal)[1]).toArray(),
+          IntStream.of(order).mapToObj(this.ordinals::get).toArray(int[][]::new),
+          positions
+      );
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package shopping.cart.kata.promotions;
+
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.collections.OrdinalCounter;
+
+/**
+ * Gives a number of a SKU free for every number bought, for example buy 2 get 1 free.
+ */
+public final class BuyXGetYFreePromotion implements Promotion {
+  private final int ordinal;
+
+  private final int buy;
+
+  private final int free;
+
+  public BuyXGetYFreePromotion(int ordinal, int buy, int free) {
+    if (buy <= 0 || free <= 0) {
+      throw new IllegalArgumentException("The quantities bought and given free must be greater than 0");
+    }
+    this.ordinal = ordinal;
+    this.buy = buy;
+    this.free = free;
+  }
+
+  @Override
+  public int[] ordinals() {
+    return new int[]{this.ordinal};
+  }
+
+  @Override
+  public long discountFor(SkuCatalog catalog, OrdinalCounter basket) {
+    return basket.quantityOf(this.ordinal) / ((long) this.buy + this.free) * this.free * catalog.priceOf(this.ordinal);
+  }
+}
@@ -0,0 +1,25 @@
+package shopping.cart.kata.promotions;
+
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.collections.OrdinalCounter;
+
+/**
+ * A promotion which keeps state for each cart between evaluations, so it can reuse the work done for the previous scan
+ * rather than starting again.
+ *
+ * @param <S> the type of state kept for each cart
+ */
+public interface IncrementalPromotion<S> extends Promotion {
+  S newState();
+
+  /**
+   * Returns the total discount given by the promotion for the quantities in the basket, in pence, updating the state of
+   * the cart.
+   */
+  long discountFor(SkuCatalog catalog, OrdinalCounter basket, S state);
+
+  @Override
+  default long discountFor(SkuCatalog catalog, OrdinalCounter basket) {
+    return this.discountFor(catalog, basket, this.newState());
+  }
+}
@@ -0,0 +1,105 @@
+package shopping.cart.kata.promotions;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.collections.OrdinalCounter;
+
+/**
+ * Sells one item from each of several groups of SKUs for a fixed price, for example a sandwich, a snack and a drink
+ * for £3.50. Each meal is made from the most expensive items left in each group, which gives the customer the largest
+ * discount, and a meal is only made while it costs more than the deal price.
+ */
+public final class MealDealPromotion implements Promotion {
+  /**
+   * The ordinals of each group, from the most to the least expensive.
+   */
+  private final int[][] components;
+
+  private final int price;
+
+  public MealDealPromotion(SkuCatalog catalog, int[][] components, int price) {
+    if (components.length == 0 || price <= 0) {
+      throw new IllegalArgumentException("A meal deal must have at least one group of SKUs and a price greater than 0");
+    }
+    this.components = new int[components.length][];
+    for (int group = 0; group < components.length; group++) {
+      if (components[group].length == 0) {
+        throw new IllegalArgumentException("Each group of a meal deal must contain a SKU");
+      }
+      this.components[group] = IntStream.of(components[group])
+          .boxed()
+          .sorted(Comparator.comparingInt(catalog::priceOf).reversed())
+          .mapToInt(Integer::intValue)
+          .toArray();
+    }
+    if (this.ordinals().length != Arrays.stream(this.components).mapToInt(group -> group.length).sum()) {
+      throw new IllegalArgumentException("A SKU can only be in one group of a meal deal");
+    }
+    this.price = price;
+  }
+
+  @Override
+  public int[] ordinals() {
+    return Arrays.stream(this.components).flatMapToInt(IntStream::of).distinct().toArray();
+  }
+
+  /**
+   * The full price of each successive meal never increases, so the meals worth making are found by binary search.
+   */
+  @Override
+  public long discountFor(SkuCatalog catalog, OrdinalCounter basket) {
+    long possibleMeals = Long.MAX_VALUE;
+    for (int[] group : this.components) {
+      long quantity = 0;
+      for (int ordinal : group) {
+        quantity += basket.quantityOf(ordinal);
+      }
+      possibleMeals = Math.min(possibleMeals, quantity);
+    }
+
+    long meals = 0;
+    long high = possibleMeals;
+    while (meals < high) {
+      final long middle = (meals + high + 1) >>> 1;
+      if (this.fullPriceOfMeal(catalog, basket, middle - 1) > this.price) {
+        meals = middle;
+      } else {
+        high = middle - 1;
+      }
+    }
+
+    long discount = -meals * this.price;
+    for (int[] group : this.components) {
+      long remaining = meals;
+      for (int index = 0; index < group.length && remaining > 0; index++) {
+        final long taken = Math.min(remaining, basket.quantityOf(group[index]));
+        discount += taken * catalog.priceOf(group[index]);
+        remaining -= taken;
+      }
+    }
+    return discount;
+  }
+
+  /**
+   * Returns the full price of the meal made from the item at the position in each group, counting from the most
+   * expensive.
+   */
+  private long fullPriceOfMeal(SkuCatalog catalog, OrdinalCounter basket, long position) {
+    long fullPrice = 0;
+    for (int[] group : this.components) {
+      long remaining = position;
+      for (int ordinal : group) {
+        final int quantity = basket.quantityOf(ordinal);
+        if (remaining < quantity) {
+          fullPrice += catalog.priceOf(ordinal);
+          break;
+        }
+        remaining -= quantity;
+      }
+    }
+    return fullPrice;
+  }
+}
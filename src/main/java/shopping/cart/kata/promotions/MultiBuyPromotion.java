@@ -0,0 +1,35 @@
+package shopping.cart.kata.promotions;
+
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.collections.OrdinalCounter;
+
+/**
+ * Sells a quantity of a SKU for a fixed price, for example 3 for £1.30.
+ */
+public final class MultiBuyPromotion implements Promotion {
+  private final int ordinal;
+
+  private final int quantity;
+
+  private final int price;
+
+  public MultiBuyPromotion(int ordinal, int quantity, int price) {
+    if (quantity <= 0 || price <= 0) {
+      throw new IllegalArgumentException("The quantity and price of a multi-buy must be greater than 0");
+    }
+    this.ordinal = ordinal;
+    this.quantity = quantity;
+    this.price = price;
+  }
+
+  @Override
+  public int[] ordinals() {
+    return new int[]{this.ordinal};
+  }
+
+  @Override
+  public long discountFor(SkuCatalog catalog, OrdinalCounter basket) {
+    final long saving = (long) catalog.priceOf(this.ordinal) * this.quantity - this.price;
+    return saving > 0 ? basket.quantityOf(this.ordinal) / this.quantity * saving : 0;
+  }
+}
@@ -0,0 +1,39 @@
+package shopping.cart.kata.promotions;
+
+import java.util.Arrays;
+
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.collections.OrdinalCounter;
+
+/**
+ * Takes a percentage off the full price of a set of SKUs. The discount is calculated on the combined price of the
+ * SKUs and rounded down to the penny, so it does not depend on the order they were scanned in.
+ */
+public final class PercentageOffPromotion implements Promotion {
+  private final int[] ordinals;
+
+  private final int percentage;
+
+  public PercentageOffPromotion(int[] ordinals, int percentage) {
+    if (ordinals.length == 0 || percentage <= 0 || percentage > 100) {
+      throw new IllegalArgumentException("A percentage off must apply to a SKU and be between 1 and 100");
+    }
+    this.ordinals = Arrays.copyOf(ordinals, ordinals.length);
+    this.percentage = percentage;
+  }
+
+  @Override
+  public int[] ordinals() {
+    return Arrays.copyOf(this.ordinals, this.ordinals.length);
+  }
+
+  @Override
+  public long discountFor(SkuCatalog catalog, OrdinalCounter basket) {
+    long fullPrice = 0;
+    for (int ordinal : this.ordinals) {
+      fullPrice += (long) catalog.priceOf(ordinal) * basket.quantityOf(ordinal);
+    }
+    // Split so a full price near the range of a long cannot overflow when multiplied by the percentage
+    return fullPrice / 100 * this.percentage + fullPrice % 100 * this.percentage / 100;
+  }
+}
@@ -0,0 +1,21 @@
+package shopping.cart.kata.promotions;
+
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.collections.OrdinalCounter;
+
+/**
+ * A promotion which discounts a basket depending on the quantities of a fixed set of SKUs. Promotions are evaluated as
+ * a whole rather than per scan, so a promotion only needs to say what it is worth for a basket and the
+ * {@link PromotionEngine} works out the change made by each scan.
+ */
+public interface Promotion {
+  /**
+   * Returns the ordinals of the SKUs the discount depends on. A scan of any other SKU cannot change the discount.
+   */
+  int[] ordinals();
+
+  /**
+   * Returns the total discount given by the promotion for the quantities in the basket, in pence.
+   */
+  long discountFor(SkuCatalog catalog, OrdinalCounter basket);
+}
@@ -0,0 +1,203 @@
+package shopping.cart.kata.promotions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.collections.OrdinalCounter;
+import shopping.cart.kata.collections.OrdinalIndex;
+
+/**
+ * The promotions running against a catalog, compiled into a table of the promotions each SKU takes part in. A scan
+ * only re-evaluates the promotions which include the scanned SKU, however many promotions are running. Promotions are
+ * applied independently of each other and of the promotional pricing held in the catalog.
+ *
+ * <p>The engine is immutable and shared by every cart. Each cart keeps a {@link PromotionState} holding the discount
+ * currently given by each promotion, so the change made by a scan can be found without evaluating the whole basket.
+ */
+public final class PromotionEngine {
+  /**
+   * Runs no promotions, against any catalog.
+   */
+  public static final PromotionEngine NONE = new PromotionEngine(null, new Promotion[0], new int[1], new int[0]);
+
+  private final SkuCatalog catalog;
+
+  private final Promotion[] promotions;
+
+  /**
+   * The promotions of the SKU with ordinal {@code n} are held from {@code offsets[n]} up to {@code offsets[n + 1]} in
+   * {@link #promotionsBySku}.
+   */
+  private final int[] offsets;
+
+  private final int[] promotionsBySku;
+
+  private PromotionEngine(SkuCatalog catalog, Promotion[] promotions, int[] offsets, int[] promotionsBySku) {
+    this.catalog = catalog;
+    this.promotions = promotions;
+    this.offsets = offsets;
+    this.promotionsBySku = promotionsBySku;
+  }
+
+  public static Builder builder(SkuCatalog catalog) {
+    return new Builder(catalog);
+  }
+
+  /**
+   * Returns whether the engine can be used with the catalog.
+   */
+  public boolean isFor(SkuCatalog catalog) {
+    return this == NONE || this.catalog == catalog;
+  }
+
+  /**
+   * Returns the number of promotions.
+   */
+  public int size() {
+    return this.promotions.length;
+  }
+
+  /**
+   * Creates the state a cart keeps for the promotions, for an empty basket.
+   */
+  public PromotionState newState() {
+    final Object[] states = new Object[this.promotions.length];
+    for (int promotion = 0; promotion < this.promotions.length; promotion++) {
+      if (this.promotions[promotion] instanceof IncrementalPromotion) {
+        states[promotion] = ((IncrementalPromotion<?>) this.promotions[promotion]).newState();
+      }
+    }
+    return new PromotionState(new long[this.promotions.length], states);
+  }
+
+  /**
+   * Re-evaluates the promotions including the ordinal after its quantity in the basket has changed, records the
+   * discount each now gives in the state and returns the change in the total discount.
+   */
+  public long applyChange(int ordinal, OrdinalCounter basket, PromotionState state) {
+    if (ordinal + 1 >= this.offsets.length) {
+      return 0;
+    }
+
+    long change = 0;
+    for (int index = this.offsets[ordinal]; index < this.offsets[ordinal + 1]; index++) {
+      final int promotion = this.promotionsBySku[index];
+      final long discount = this.discountFor(promotion, basket, state);
+      change += discount - state.discounts[promotion];
+      state.discounts[promotion] = discount;
+    }
+    return change;
+  }
+
+  /**
+   * Evaluates every promotion for the basket, records the discount each gives in the state and returns the total
+   * discount.
+   */
+  public long evaluate(OrdinalCounter basket, PromotionState state) {
+    long total = 0;
+    for (int promotion = 0; promotion < this.promotions.length; promotion++) {
+      state.discounts[promotion] = this.discountFor(promotion, basket, state);
+      total += state.discounts[promotion];
+    }
+    return total;
+  }
+
+  @SuppressWarnings("unchecked")
+  private long discountFor(int promotion, OrdinalCounter basket, PromotionState state) {
+    final Object promotionState = state.states[promotion];
+    if (promotionState == null) {
+      return this.promotions[promotion].discountFor(this.catalog, basket);
+    }
+    return ((IncrementalPromotion<Object>) this.promotions[promotion]).discountFor(this.catalog, basket, promotionState);
+  }
+
+  public static final class Builder {
+    private final SkuCatalog catalog;
+
+    private final List<Promotion> promotions;
+
+    private Builder(SkuCatalog catalog) {
+      this.catalog = catalog;
+      this.promotions = new ArrayList<>();
+    }
+
+    /**
+     * Adds a promotion whose ordinals belong to the catalog of the engine.
+     */
+    public Builder add(Promotion promotion) {
+      for (int ordinal : promotion.ordinals()) {
+        if (ordinal < 0 || ordinal >= this.catalog.size()) {
+          throw new IllegalArgumentException(String.format("The promotion includes ordinal %d which is not in the catalog", ordinal));
+        }
+      }
+      this.promotions.add(promotion);
+      return this;
+    }
+
+    public Builder multiBuy(String item, int quantity, int price) {
+      return this.add(new MultiBuyPromotion(this.ordinalOf(item), quantity, price));
+    }
+
+    public Builder buyXGetYFree(String item, int buy, int free) {
+      return this.add(new BuyXGetYFreePromotion(this.ordinalOf(item), buy, free));
+    }
+
+    public Builder tieredPrice(String item, int[] minimumQuantities, int[] unitPrices) {
+      return this.add(new TieredPricePromotion(this.ordinalOf(item), minimumQuantities, unitPrices));
+    }
+
+    public Builder percentageOff(int percentage, String... items) {
+      return this.add(new PercentageOffPromotion(this.ordinalsOf(items), percentage));
+    }
+
+    public Builder mealDeal(int price, String[]... groups) {
+      final int[][] components = new int[groups.length][];
+      for (int group = 0; group < groups.length; group++) {
+        components[group] = this.ordinalsOf(groups[group]);
+      }
+      return this.add(new MealDealPromotion(this.catalog, components, price));
+    }
+
+    public PromotionEngine build() {
+      final Promotion[] promotions = this.promotions.toArray(new Promotion[0]);
+      final int[][] ordinals = new int[promotions.length][];
+      final int[] offsets = new int[this.catalog.size() + 1];
+      for (int promotion = 0; promotion < promotions.length; promotion++) {
+        ordinals[promotion] = promotions[promotion].ordinals();
+        for (int ordinal : ordinals[promotion]) {
+          offsets[ordinal + 1]++;
+        }
+      }
+      for (int ordinal = 0; ordinal < this.catalog.size(); ordinal++) {
+        offsets[ordinal + 1] += offsets[ordinal];
+      }
+
+      final int[] promotionsBySku = new int[offsets[this.catalog.size()]];
+      final int[] next = Arrays.copyOf(offsets, this.catalog.size());
+      for (int promotion = 0; promotion < promotions.length; promotion++) {
+        for (int ordinal : ordinals[promotion]) {
+          promotionsBySku[next[ordinal]++] = promotion;
+        }
+      }
+      return new PromotionEngine(this.catalog, promotions, offsets, promotionsBySku);
+    }
+
+    private int[] ordinalsOf(String[] items) {
+      final int[] ordinals = new int[items.length];
+      for (int index = 0; index < items.length; index++) {
+        ordinals[index] = this.ordinalOf(items[index]);
+      }
+      return ordinals;
+    }
+
+    private int ordinalOf(String item) {
+      final int ordinal = this.catalog.ordinalOf(item);
+      if (ordinal == OrdinalIndex.NOT_FOUND) {
+        throw new IllegalArgumentException(String.format("No SKU found for item (%s)", item));
+      }
+      return ordinal;
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package shopping.cart.kata.promotions;
+
+/**
+ * What a cart needs to keep for the promotions of a {@link PromotionEngine}: the discount currently given by each
+ * promotion, and the state of each {@link IncrementalPromotion}.
+ */
+public final class PromotionState {
+  final long[] discounts;
+
+  final Object[] states;
+
+  PromotionState(long[] discounts, Object[] states) {
+    this.discounts = discounts;
+    this.states = states;
+  }
+}
@@ -0,0 +1,54 @@
+package shopping.cart.kata.promotions;
+
+import java.util.Arrays;
+
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.collections.OrdinalCounter;
+
+/**
+ * Lowers the price of every item of a SKU once the basket holds enough of it, for example 45p each when buying 10 or
+ * more and 40p each when buying 50 or more.
+ */
+public final class TieredPricePromotion implements Promotion {
+  private final int ordinal;
+
+  private final int[] minimumQuantities;
+
+  private final int[] unitPrices;
+
+  /**
+   * @param minimumQuantities the quantity at which each tier starts, in ascending order
+   * @param unitPrices the price of each item in each tier, in pence
+   */
+  public TieredPricePromotion(int ordinal, int[] minimumQuantities, int[] unitPrices) {
+    if (minimumQuantities.length == 0 || minimumQuantities.length != unitPrices.length) {
+      throw new IllegalArgumentException("Every tier must have a minimum quantity and a unit price");
+    }
+    for (int tier = 0; tier < minimumQuantities.length; tier++) {
+      if (minimumQuantities[tier] <= 0 || unitPrices[tier] < 0 || (tier > 0 && minimumQuantities[tier] <= minimumQuantities[tier - 1])) {
+        throw new IllegalArgumentException("The tiers must have ascending quantities greater than 0");
+      }
+    }
+    this.ordinal = ordinal;
+    this.minimumQuantities = Arrays.copyOf(minimumQuantities, minimumQuantities.length);
+    this.unitPrices = Arrays.copyOf(unitPrices, unitPrices.length);
+  }
+
+  @Override
+  public int[] ordinals() {
+    return new int[]{this.ordinal};
+  }
+
+  @Override
+  public long discountFor(SkuCatalog catalog, OrdinalCounter basket) {
+    final int quantity = basket.quantityOf(this.ordinal);
+    int tier = this.minimumQuantities.length - 1;
+    while (tier >= 0 && quantity < this.minimumQuantities[tier]) {
+      tier--;
+    }
+    if (tier < 0) {
+      return 0;
+    }
+    return (long) Math.max(0, catalog.priceOf(this.ordinal) - this.unitPrices[tier]) * quantity;
+  }
+}
@@ -0,0 +1,137 @@
+package shopping.cart.kata.receipt;
+
+import java.util.Arrays;
+
+import shopping.cart.kata.catalog.SkuCatalog;
+
+/**
+ * The lines of a cart in the order their items were first scanned, each with its quantity, gross price and promotional
+ * discount. A cart updates the receipt as it scans, so a line is kept up to date in constant time rather than being
+ * recalculated from the whole basket, and each change is passed on to a {@link ReceiptListener}.
+ *
+ * <p>A line whose items have all been removed is kept with a quantity of 0, so every line keeps its position, and
+ * should be left out when the receipt is printed.
+ */
+public final class Receipt {
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private final SkuCatalog catalog;
+
+  private final ReceiptListener listener;
+
+  private int[] ordinals;
+
+  private int[] quantities;
+
+  private int[] unitPrices;
+
+  private long[] grossAmounts;
+
+  private long[] discounts;
+
+  private int size;
+
+  public Receipt(SkuCatalog catalog, ReceiptListener listener) {
+    this.catalog = catalog;
+    this.listener = listener;
+    this.ordinals = new int[DEFAULT_CAPACITY];
+    this.quantities = new int[DEFAULT_CAPACITY];
+    this.unitPrices = new int[DEFAULT_CAPACITY];
+    this.grossAmounts = new long[DEFAULT_CAPACITY];
+    this.discounts = new long[DEFAULT_CAPACITY];
+    this.size = 0;
+  }
+
+  /**
+   * Adds the quantity of the ordinal, its price and the discount it completed to the line at the position. The
+   * position must either be an existing line or the next line. Adding items records the price per item they were
+   * charged at, while a negative quantity removes items and leaves it unchanged.
+   */
+  public void add(int line, int ordinal, int quantity, long gross, long discount) {
+    if (line == this.size) {
+      if (this.size == this.ordinals.length) {
+        this.grow();
+      }
+      this.ordinals[line] = ordinal;
+      this.size++;
+    } else if (this.ordinals[line] != ordinal) {
+      throw new IllegalArgumentException(String.format("Line %d is not for ordinal %d", line, ordinal));
+    }
+
+    if (quantity > 0) {
+      this.unitPrices[line] = (int) (gross / quantity);
+    }
+    final int previousQuantity = this.quantities[line];
+    this.quantities[line] = previousQuantity + quantity;
+    this.grossAmounts[line] += gross;
+    this.discounts[line] += discount;
+    this.listener.lineChanged(this, line, previousQuantity);
+  }
+
+  /**
+   * Returns the number of lines.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  public String itemAt(int line) {
+    return this.catalog.itemOf(this.ordinalAt(line));
+  }
+
+  public int ordinalAt(int line) {
+    this.checkLine(line);
+    return this.ordinals[line];
+  }
+
+  public int quantityAt(int line) {
+    this.checkLine(line);
+    return this.quantities[line];
+  }
+
+  /**
+   * Returns the price per item the items on the line were last added at, in pence.
+   */
+  public int unitPriceAt(int line) {
+    this.checkLine(line);
+    return this.unitPrices[line];
+  }
+
+  /**
+   * Returns the price of the line before discounts, in pence.
+   */
+  public long grossAt(int line) {
+    this.checkLine(line);
+    return this.grossAmounts[line];
+  }
+
+  /**
+   * Returns the promotional discount applied to the line, in pence.
+   */
+  public long discountAt(int line) {
+    this.checkLine(line);
+    return this.discounts[line];
+  }
+
+  /**
+   * Returns the price of the line after discounts, in pence.
+   */
+  public long netAt(int line) {
+    return this.grossAt(line) - this.discountAt(line);
+  }
+
+  private void checkLine(int line) {
+    if (line < 0 || line >= this.size) {
+      throw new IndexOutOfBoundsException(String.format("Line %d is out of bounds for a receipt of %d lines", line, this.size));
+    }
+  }
+
+  private void grow() {
+    final int capacity = this.ordinals.length << 1;
+    this.ordinals = Arrays.copyOf(this.ordinals, capacity);
+    this.quantities = Arrays.copyOf(this.quantities, capacity);
+    this.unitPrices = Arrays.copyOf(this.unitPrices, capacity);
+    this.grossAmounts = Arrays.copyOf(this.grossAmounts, capacity);
+    this.discounts = Arrays.copyOf(this.discounts, capacity);
+  }
+}
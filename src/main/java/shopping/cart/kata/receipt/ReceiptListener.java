@@ -0,0 +1,21 @@
+package shopping.cart.kata.receipt;
+
+/**
+ * Receives the changes made to a {@link Receipt}, so a display can redraw only the line which changed. The line is
+ * passed by position and read back from the receipt, so no event objects are created while scanning.
+ */
+public interface ReceiptListener {
+  /**
+   * Ignores every change.
+   */
+  ReceiptListener NONE = (receipt, line, previousQuantity) -> {
+  };
+
+  /**
+   * Called after a line of the receipt has changed.
+   *
+   * @param line the position of the line, in the order items were first scanned
+   * @param previousQuantity the quantity of the line before the change, which is 0 for a new line
+   */
+  void lineChanged(Receipt receipt, int line, int previousQuantity);
+}
@@ -0,0 +1,132 @@
+package shopping.cart.kata.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import shopping.cart.kata.catalog.CatalogPublisher;
+import shopping.cart.kata.catalog.CatalogVersion;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.io.BufferedOutputSink;
+import shopping.cart.kata.metrics.CheckoutMetrics;
+import shopping.cart.kata.services.CheckoutService;
+
+/**
+ * Hosts many independent checkout sessions against one shared, read only catalog. Each connection to the server is a
+ * session, which runs on its own (virtual, where supported) thread. New versions of the catalog can be published while
+ * the server is running, and each session prices its basket against the version current when it started.
+ */
+public class CheckoutServer implements Closeable {
+  private final CatalogPublisher catalogs;
+
+  private final ServerSocketChannel serverChannel;
+
+  private final ExecutorService sessions;
+
+  private final Thread acceptor;
+
+  private final CheckoutMetrics metrics;
+
+  private final boolean barcodeScanning;
+
+  public CheckoutServer(SkuCatalog catalog, int port) throws IOException {
+    this(catalog, port, CheckoutMetrics.NONE);
+  }
+
+  public CheckoutServer(SkuCatalog catalog, int port, CheckoutMetrics metrics) throws IOException {
+    this(new CatalogPublisher(catalog), port, metrics);
+  }
+
+  public CheckoutServer(CatalogPublisher catalogs, int port, CheckoutMetrics metrics) throws IOException {
+    this(catalogs, port, metrics, false);
+  }
+
+  /**
+   * Creates a server whose tills scan EAN-13 or UPC-A barcodes, rather than typing SKU IDs, when barcode scanning is
+   * enabled. The catalog's IDs are expected to be the barcodes of its items, and the publisher must index them.
+   *
+   * @throws IllegalArgumentException if barcode scanning is enabled and the publisher does not index barcodes
+   */
+  public CheckoutServer(CatalogPublisher catalogs, int port, CheckoutMetrics metrics, boolean barcodeScanning) throws IOException {
+    if (barcodeScanning && !catalogs.isIndexingBarcodes()) {
+      throw new IllegalArgumentException("Barcode scanning needs a catalog publisher which indexes barcodes");
+    }
+    this.catalogs = catalogs;
+    this.metrics = metrics;
+    this.barcodeScanning = barcodeScanning;
+    this.serverChannel = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+    this.sessions = SessionExecutors.newSessionExecutor();
+    this.acceptor = new Thread(this::acceptSessions, "checkout-server-acceptor");
+  }
+
+  public void start() {
+    this.acceptor.start();
+  }
+
+  public int getPort() {
+    return this.serverChannel.socket().getLocalPort();
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.serverChannel.close();
+    this.sessions.shutdownNow();
+    try {
+      this.acceptor.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void acceptSessions() {
+    while (this.serverChannel.isOpen()) {
+      final SocketChannel channel;
+      try {
+        channel = this.serverChannel.accept();
+      } catch (IOException e) {
+        break; // The server socket has been closed
+      }
+      try {
+        this.sessions.execute(() -> this.runSession(channel));
+      } catch (RejectedExecutionException e) {
+        // The server is closing, so the session will never run
+        closeQuietly(channel);
+      }
+    }
+  }
+
+  private void runSession(SocketChannel channel) {
+    try (channel) {
+      channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+      final CheckoutService checkoutService = new CheckoutService(Channels.newInputStream(channel), new BufferedOutputSink(channel), this.metrics);
+      final CatalogVersion version = this.catalogs.current();
+      if (this.barcodeScanning) {
+        checkoutService.run(version.getCatalog(), version.getBarcodes());
+      } else {
+        checkoutService.run(version.getCatalog());
+      }
+    } catch (NoSuchElementException | UncheckedIOException e) {
+      // The till disconnected part way through the session, so there is nobody to report the summary to
+    } catch (IOException e) {
+      // The session has ended and the socket could not be closed cleanly
+    }
+  }
+
+  private static void closeQuietly(SocketChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // The connection is being abandoned, so there is nobody to report the failure to
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package shopping.cart.kata.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public final class SessionExecutors {
+  private SessionExecutors() {
+  }
+
+  /**
+   * Returns an executor which runs each task on its own virtual thread when the runtime supports them (Java 21 or
+   * above). The application targets Java 17, so on older runtimes a cached pool of platform threads is used instead.
+   */
+  public static ExecutorService newSessionExecutor() {
+    try {
+      final Method newVirtualThreadPerTaskExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newCachedThreadPool();
+    }
+  }
+}
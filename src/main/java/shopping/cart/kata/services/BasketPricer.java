@@ -0,0 +1,87 @@
+package shopping.cart.kata.services;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.models.CartTotals;
+
+/**
+ * Prices many baskets in parallel against one shared, immutable catalog. Each basket is priced with its own
+ * {@link CartService}, so the pricing is exactly as if the basket had been scanned at a till, and unknown items are
+ * skipped. The baskets are split across the fork join pool in ranges, and each result is written to the position of
+ * its basket so the output order always matches the input order.
+ */
+public class BasketPricer {
+  /**
+   * The number of baskets below which a range is priced on the current thread rather than split further.
+   */
+  private static final int SEQUENTIAL_THRESHOLD = 256;
+
+  private final SkuCatalog catalog;
+
+  private final ForkJoinPool pool;
+
+  public BasketPricer(SkuCatalog catalog) {
+    this(catalog, ForkJoinPool.commonPool());
+  }
+
+  public BasketPricer(SkuCatalog catalog, ForkJoinPool pool) {
+    this.catalog = catalog;
+    this.pool = pool;
+  }
+
+  public List<CartTotals> price(List<? extends List<String>> baskets) {
+    final CartTotals[] totals = new CartTotals[baskets.size()];
+    this.pool.invoke(new PricingTask(baskets, totals, 0, totals.length));
+    return Arrays.asList(totals);
+  }
+
+  private CartTotals priceBasket(List<String> basket) {
+    final CartService cartService = new CartService(this.catalog);
+    for (String item : basket) {
+      cartService.scanItem(item);
+    }
+    return CartTotals.builder()
+        .runningTotal(cartService.getRunningTotal())
+        .totalDiscount(cartService.getTotalDiscount())
+        .build();
+  }
+
+  private class PricingTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final List<? extends List<String>> baskets;
+
+    private final CartTotals[] totals;
+
+    private final int from;
+
+    private final int to;
+
+    PricingTask(List<? extends List<String>> baskets, CartTotals[] totals, int from, int to) {
+      this.baskets = baskets;
+      this.totals = totals;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from <= SEQUENTIAL_THRESHOLD) {
+        for (int index = this.from; index < this.to; index++) {
+          this.totals[index] = BasketPricer.this.priceBasket(this.baskets.get(index));
+        }
+        return;
+      }
+
+      final int middle = (this.from + this.to) >>> 1;
+      invokeAll(
+          new PricingTask(this.baskets, this.totals, this.from, middle),
+          new PricingTask(this.baskets, this.totals, middle, this.to)
+      );
+    }
+  }
+}
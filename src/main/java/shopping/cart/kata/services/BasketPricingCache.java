@@ -0,0 +1,228 @@
+package shopping.cart.kata.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import shopping.cart.kata.catalog.CatalogPublisher;
+import shopping.cart.kata.catalog.CatalogVersion;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.collections.OrdinalIndex;
+import shopping.cart.kata.collections.TinyLfuCache;
+import shopping.cart.kata.exceptions.ItemNotFoundException;
+import shopping.cart.kata.models.PricedBasket;
+import shopping.cart.kata.models.PricedLine;
+import shopping.cart.kata.promotions.PromotionEngine;
+import shopping.cart.kata.receipt.Receipt;
+
+/**
+ * Prices baskets of SKU quantities, such as an online order re-priced on every view, remembering the pricing of
+ * baskets it has seen. A basket is keyed by the catalog version and its SKUs and quantities in ordinal order, so the
+ * same basket hits the cache however its items are ordered. Keys hold the whole basket rather than a hash of it, so
+ * a hit is always the pricing of that exact basket. Publishing a new catalog version empties the cache.
+ *
+ * <p>Every basket is priced as if its SKUs were added to a {@link CartService} running the promotions compiled for the
+ * catalog version, in ordinal order, so a cached pricing is identical to pricing the basket afresh with
+ * {@link #priceUncached(Map)}, lines included.
+ */
+public class BasketPricingCache {
+  private final CatalogPublisher catalogs;
+
+  private final Function<SkuCatalog, PromotionEngine> promotions;
+
+  private final TinyLfuCache<BasketKey, PricedBasket> cache;
+
+  private volatile VersionPricing pricing;
+
+  public BasketPricingCache(SkuCatalog catalog, int maximumSize, Duration timeToLive) {
+    this(new CatalogPublisher(catalog), maximumSize, timeToLive);
+  }
+
+  public BasketPricingCache(CatalogPublisher catalogs, int maximumSize, Duration timeToLive) {
+    this(catalogs, catalog -> PromotionEngine.NONE, maximumSize, timeToLive);
+  }
+
+  /**
+   * Creates a cache which prices baskets with the promotions compiled for each catalog version. The promotions are
+   * compiled once per version, when the first basket is priced against it.
+   *
+   * @throws IllegalArgumentException if the maximum size or time to live is not greater than 0
+   */
+  public BasketPricingCache(CatalogPublisher catalogs, Function<SkuCatalog, PromotionEngine> promotions, int maximumSize, Duration timeToLive) {
+    this.catalogs = catalogs;
+    this.promotions = promotions;
+    this.cache = new TinyLfuCache<>(maximumSize, timeToLive.toNanos());
+    final CatalogVersion version = catalogs.current();
+    this.pricing = new VersionPricing(version, promotions.apply(version.getCatalog()));
+  }
+
+  /**
+   * Prices the basket of SKU quantities against the current catalog version.
+   *
+   * @throws IllegalArgumentException if a quantity is not greater than 0
+   * @throws ItemNotFoundException if an item is not in the catalog
+   */
+  public PricedBasket price(Map<String, Integer> basket) {
+    final VersionPricing pricing = this.currentPricing();
+    final BasketKey key = BasketKey.of(pricing.version, basket);
+    final PricedBasket cached = this.cache.get(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    final PricedBasket priced = price(pricing, key);
+    this.putIfCurrent(pricing, key, priced);
+    return priced;
+  }
+
+  /**
+   * Prices the basket against the current catalog version without reading or filling the cache.
+   */
+  public PricedBasket priceUncached(Map<String, Integer> basket) {
+    final VersionPricing pricing = this.currentPricing();
+    return price(pricing, BasketKey.of(pricing.version, basket));
+  }
+
+  public int size() {
+    return this.cache.size();
+  }
+
+  public long hitCount() {
+    return this.cache.hitCount();
+  }
+
+  public long missCount() {
+    return this.cache.missCount();
+  }
+
+  private VersionPricing currentPricing() {
+    final VersionPricing pricing = this.pricing;
+    final CatalogVersion version = this.catalogs.current();
+    return version.getVersion() > pricing.version.getVersion() ? this.invalidate(version) : pricing;
+  }
+
+  /**
+   * Empties the cache and compiles the promotions of the version, unless another thread has already moved on to it or
+   * a later version, and returns the pricing of the latest version.
+   */
+  private synchronized VersionPricing invalidate(CatalogVersion version) {
+    if (version.getVersion() > this.pricing.version.getVersion()) {
+      this.cache.clear();
+      this.pricing = new VersionPricing(version, this.promotions.apply(version.getCatalog()));
+    }
+    return this.pricing;
+  }
+
+  /**
+   * Caches the pricing unless a newer version was published, and the cache emptied, while the basket was priced, as
+   * nothing would look up the pricing of the older version again.
+   */
+  private synchronized void putIfCurrent(VersionPricing pricing, BasketKey key, PricedBasket priced) {
+    if (this.pricing == pricing) {
+      this.cache.put(key, priced);
+    }
+  }
+
+  private static PricedBasket price(VersionPricing pricing, BasketKey key) {
+    final CatalogVersion version = pricing.version;
+    final SkuCatalog catalog = version.getCatalog();
+    final CartService cartService = new CartService(catalog, pricing.promotions);
+    for (long entry : key.entries) {
+      cartService.addItem(catalog.itemOf((int) (entry >>> 32)), (int) entry);
+    }
+
+    final Receipt receipt = cartService.getReceipt();
+    final List<PricedLine> lines = new ArrayList<>(receipt.size());
+    for (int line = 0; line < receipt.size(); line++) {
+      lines.add(
+          PricedLine.builder()
+              .item(receipt.itemAt(line))
+              .quantity(receipt.quantityAt(line))
+              .gross(receipt.grossAt(line))
+              .discount(receipt.discountAt(line))
+              .build()
+      );
+    }
+    return PricedBasket.builder()
+        .catalogVersion(version.getVersion())
+        .runningTotal(cartService.getRunningTotal())
+        .totalDiscount(cartService.getTotalDiscount())
+        .lines(List.copyOf(lines))
+        .build();
+  }
+
+  /**
+   * A catalog version and the promotions compiled for it.
+   */
+  private static final class VersionPricing {
+    private final CatalogVersion version;
+
+    private final PromotionEngine promotions;
+
+    private VersionPricing(CatalogVersion version, PromotionEngine promotions) {
+      this.version = version;
+      this.promotions = promotions;
+    }
+  }
+
+  /**
+   * The canonical form of a basket: the catalog version and each SKU's ordinal and quantity packed into a long, sorted
+   * by ordinal.
+   */
+  private static final class BasketKey {
+    private final long version;
+
+    private final long[] entries;
+
+    private final int hash;
+
+    private BasketKey(long version, long[] entries) {
+      this.version = version;
+      this.entries = entries;
+      long hash = version * 0x9E3779B97F4A7C15L;
+      for (long entry : entries) {
+        hash = (hash ^ entry) * 0xC2B2AE3D27D4EB4FL;
+      }
+      this.hash = (int) (hash ^ (hash >>> 32));
+    }
+
+    static BasketKey of(CatalogVersion version, Map<String, Integer> basket) {
+      final SkuCatalog catalog = version.getCatalog();
+      final long[] entries = new long[basket.size()];
+      int size = 0;
+      for (Map.Entry<String, Integer> item : basket.entrySet()) {
+        final int quantity = item.getValue();
+        if (quantity <= 0) {
+          throw new IllegalArgumentException(String.format("The quantity must be greater than 0 but was %d", quantity));
+        }
+        final int ordinal = catalog.ordinalOf(item.getKey());
+        if (ordinal == OrdinalIndex.NOT_FOUND) {
+          throw ItemNotFoundException.withoutStackTrace(String.format("No SKU found for item (%s)", item.getKey()));
+        }
+        entries[size++] = (long) ordinal << 32 | quantity;
+      }
+      Arrays.sort(entries);
+      return new BasketKey(version.getVersion(), entries);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof BasketKey)) {
+        return false;
+      }
+      final BasketKey key = (BasketKey) other;
+      return this.hash == key.hash && this.version == key.version && Arrays.equals(this.entries, key.entries);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package shopping.cart.kata.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import shopping.cart.kata.catalog.CatalogPublisher;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.io.MappedLineReader;
+import shopping.cart.kata.models.ScanResult;
+
+/**
+ * Prices a transaction log of scans without any prompts, for example to reconcile or replay a day's tills. The log
+ * contains one scanned item per line, in UTF-8, and a blank line ends each basket, in the same way pressing enter ends
+ * a checkout session.
+ *
+ * <p>A CSV summary of each basket is streamed out as soon as the basket ends, with all amounts in pence:
+ * {@code basket,items,unknown_items,total,discount,total_to_pay}. Consecutive blank lines do not produce empty
+ * baskets. Each basket is priced against the version of the catalog current when the basket started.
+ */
+public class BatchCheckoutService {
+  static final String HEADER = "basket,items,unknown_items,total,discount,total_to_pay";
+
+  private final CatalogPublisher catalogs;
+
+  private final Writer out;
+
+  private final StringBuilder summary;
+
+  private CartService cartService;
+
+  private int basket;
+
+  private int items;
+
+  private int unknownItems;
+
+  public BatchCheckoutService(SkuCatalog catalog, OutputStream out) {
+    this(new CatalogPublisher(catalog), out);
+  }
+
+  public BatchCheckoutService(CatalogPublisher catalogs, OutputStream out) {
+    this.catalogs = catalogs;
+    this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    this.summary = new StringBuilder(64);
+  }
+
+  /**
+   * Prices every basket in the transaction log and returns the number of baskets priced.
+   */
+  public int run(Path transactions) throws IOException {
+    this.basket = 0;
+    this.out.write(HEADER);
+    this.out.write('\n');
+
+    this.startBasket();
+    MappedLineReader.forEachLine(transactions, line -> {
+      if (line.length() == 0) {
+        this.endBasket();
+        return;
+      }
+
+      this.items++;
+      // ASCII IDs are looked up straight from the mapped file, anything else falls back to a String
+      final ScanResult result = line.isAscii()
+          ? this.cartService.scanItem(line)
+          : this.cartService.scanItem(line.decode(StandardCharsets.UTF_8).toUpperCase(Locale.ROOT));
+      if (result == ScanResult.ITEM_NOT_FOUND) {
+        this.unknownItems++;
+      }
+    });
+    this.endBasket();
+
+    this.out.flush();
+    return this.basket;
+  }
+
+  private void startBasket() {
+    this.cartService = new CartService(this.catalogs.current().getCatalog());
+    this.items = 0;
+    this.unknownItems = 0;
+  }
+
+  private void endBasket() throws IOException {
+    if (this.items == 0) {
+      return;
+    }
+
+    this.basket++;
+    final long runningTotal = this.cartService.getRunningTotal();
+    final long totalDiscount = this.cartService.getTotalDiscount();
+    this.summary.setLength(0);
+    this.summary
+        .append(this.basket).append(',')
+        .append(this.items - this.unknownItems).append(',')
+        .append(this.unknownItems).append(',')
+        .append(runningTotal).append(',')
+        .append(totalDiscount).append(',')
+        .append(runningTotal - totalDiscount).append('\n');
+    this.out.append(this.summary);
+
+    this.startBasket();
+  }
+}
@@ -1,51 +1,406 @@
 package shopping.cart.kata.services;
 
-import java.util.HashMap;
+import java.math.BigInteger;
 import java.util.Map;
-import java.util.Optional;
 
-import lombok.Getter;
+import shopping.cart.kata.barcode.BarcodeIndex;
+import shopping.cart.kata.barcode.Barcodes;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.collections.OrdinalCounter;
+import shopping.cart.kata.collections.OrdinalIndex;
 import shopping.cart.kata.exceptions.ItemNotFoundException;
+import shopping.cart.kata.journal.CartSnapshot;
+import shopping.cart.kata.journal.MappedScanJournal;
+import shopping.cart.kata.journal.ScanJournal;
+import shopping.cart.kata.metrics.CheckoutMetrics;
+import shopping.cart.kata.models.ScanResult;
 import shopping.cart.kata.models.Sku;
-import shopping.cart.kata.models.SkuSpecialPricing;
+import shopping.cart.kata.money.PenceAccumulator;
+import shopping.cart.kata.promotions.PromotionEngine;
+import shopping.cart.kata.promotions.PromotionState;
+import shopping.cart.kata.receipt.Receipt;
+import shopping.cart.kata.receipt.ReceiptListener;
 
 public class CartService {
-  private final Map<String, Sku> skus;
+  private final SkuCatalog catalog;
 
-  @Getter
-  private final Map<String, Integer> scannedItems;
+  private final OrdinalCounter scannedItems;
 
-  @Getter
-  private int runningTotal;
+  private final Map<String, Integer> scannedItemsView;
 
-  @Getter
-  private int totalDiscount;
+  private final Receipt receipt;
+
+  private final PromotionEngine promotions;
+
+  private final PromotionState promotionState;
+
+  private final ScanJournal journal;
+
+  private int journalPosition;
+
+  private final CheckoutMetrics metrics;
+
+  private final boolean instrumented;
+
+  private final PenceAccumulator runningTotal;
+
+  private final PenceAccumulator totalDiscount;
 
   public CartService(Map<String, Sku> skus) {
-    this.skus = skus;
-    this.scannedItems = new HashMap<>();
-    this.runningTotal = 0;
-    this.totalDiscount = 0;
+    this(SkuCatalog.from(skus));
+  }
+
+  public CartService(SkuCatalog catalog) {
+    this(catalog, CheckoutMetrics.NONE);
+  }
+
+  public CartService(SkuCatalog catalog, CheckoutMetrics metrics) {
+    this(catalog, metrics, ReceiptListener.NONE);
+  }
+
+  /**
+   * Creates a cart which applies the promotions of the engine on top of the promotional pricing of the catalog.
+   */
+  public CartService(SkuCatalog catalog, PromotionEngine promotions) {
+    this(catalog, promotions, CheckoutMetrics.NONE, ReceiptListener.NONE, ScanJournal.NONE);
+  }
+
+  /**
+   * Creates a cart which passes each change to a line of its receipt to the listener as the items are scanned.
+   */
+  public CartService(SkuCatalog catalog, CheckoutMetrics metrics, ReceiptListener receiptListener) {
+    this(catalog, metrics, receiptListener, ScanJournal.NONE);
+  }
+
+  /**
+   * Creates a cart which records each scan in the journal before adding it, so the cart can be recovered with
+   * {@link #recover(SkuCatalog, MappedScanJournal, CartSnapshot)}. Scans already in the journal are not part of the
+   * cart, so a journal should be {@link MappedScanJournal#reset(long) reset} before it is used for a new basket.
+   */
+  public CartService(SkuCatalog catalog, CheckoutMetrics metrics, ReceiptListener receiptListener, ScanJournal journal) {
+    this(catalog, PromotionEngine.NONE, metrics, receiptListener, journal);
+  }
+
+  /**
+   * @throws IllegalArgumentException if the promotions were compiled for a different catalog
+   */
+  public CartService(SkuCatalog catalog, PromotionEngine promotions, CheckoutMetrics metrics, ReceiptListener receiptListener, ScanJournal journal) {
+    if (!promotions.isFor(catalog)) {
+      throw new IllegalArgumentException("The promotions were compiled for a different catalog");
+    }
+    this.catalog = catalog;
+    this.promotions = promotions;
+    this.promotionState = promotions.newState();
+    this.scannedItems = OrdinalCounter.forIndex(catalog);
+    this.scannedItemsView = this.scannedItems.asMap();
+    this.receipt = new Receipt(catalog, receiptListener);
+    this.journal = journal;
+    this.journalPosition = journal.size();
+    this.runningTotal = new PenceAccumulator();
+    this.totalDiscount = new PenceAccumulator();
+    this.metrics = metrics;
+    this.instrumented = metrics != CheckoutMetrics.NONE;
   }
 
   public void addItem(String item) {
-    final Sku sku = Optional
-      .ofNullable(this.skus.get(item))
-      .orElseThrow(() -> new ItemNotFoundException(String.format("No SKU found for item (%s)", item)));
+    if (this.scanItem(item) == ScanResult.ITEM_NOT_FOUND) {
+      throw ItemNotFoundException.withoutStackTrace(String.format("No SKU found for item (%s)", item));
+    }
+  }
+
+  /**
+   * Adds the quantity of the item to the cart, as if the item had been scanned that many times.
+   *
+   * @throws IllegalArgumentException if the quantity is not greater than 0
+   */
+  public void addItem(String item, int quantity) {
+    if (this.scanItem(item, quantity) == ScanResult.ITEM_NOT_FOUND) {
+      throw ItemNotFoundException.withoutStackTrace(String.format("No SKU found for item (%s)", item));
+    }
+  }
+
+  /**
+   * Removes one of the item from the cart, as if one of its scans had been voided.
+   *
+   * @throws IllegalArgumentException if the item is not in the cart
+   */
+  public void removeItem(String item) {
+    this.removeItem(item, 1);
+  }
+
+  /**
+   * Removes the quantity of the item from the cart. A removal which breaks a completed bundle takes its discount back,
+   * and only the promotions including the item are re-evaluated, so a removal takes constant time whatever the size of
+   * the basket.
+   *
+   * @throws IllegalArgumentException if the quantity is not greater than 0 or is more than the cart holds
+   */
+  public void removeItem(String item, int quantity) {
+    if (quantity <= 0) {
+      throw new IllegalArgumentException(String.format("The quantity must be greater than 0 but was %d", quantity));
+    }
+    final int ordinal = this.ordinalOf(item);
+    final int scanned = this.scannedItems.quantityOf(ordinal);
+    if (quantity > scanned) {
+      throw new IllegalArgumentException(String.format("Cannot remove %d of item (%s) as the cart only holds %d", quantity, item, scanned));
+    }
+    this.change(ordinal, -quantity);
+  }
+
+  /**
+   * Corrects the quantity of the item in the cart, adding or removing items as needed.
+   *
+   * @throws IllegalArgumentException if the quantity is negative
+   */
+  public void setQuantity(String item, int quantity) {
+    if (quantity < 0) {
+      throw new IllegalArgumentException(String.format("The quantity must not be negative but was %d", quantity));
+    }
+    final int ordinal = this.ordinalOf(item);
+    final int change = quantity - this.scannedItems.quantityOf(ordinal);
+    if (change != 0) {
+      this.change(ordinal, change);
+    }
+  }
+
+  /**
+   * Adds a batch of scanned items to the cart. Identical items are grouped first so the pricing of each SKU is read,
+   * and its promotional discount calculated, once per batch rather than once per item. If any item is unknown the cart
+   * is left unchanged.
+   */
+  public void addItems(String[] items) {
+    final OrdinalCounter batch = OrdinalCounter.forIndex(this.catalog);
+    for (String item : items) {
+      final int ordinal = this.catalog.ordinalOf(item);
+      if (ordinal == OrdinalIndex.NOT_FOUND) {
+        throw ItemNotFoundException.withoutStackTrace(String.format("No SKU found for item (%s)", item));
+      }
+      batch.increment(ordinal);
+    }
+
+    for (int index = 0; index < batch.size(); index++) {
+      final int ordinal = batch.ordinalAt(index);
+      final int quantity = batch.quantityAt(index);
+      final int price = this.catalog.priceOf(ordinal);
+      this.record(ordinal, quantity, price);
+      this.apply(ordinal, quantity, price);
+    }
+  }
+
+  /**
+   * Scans the item into the cart. Unlike {@link #addItem(String)} an unknown item is reported through the result rather
+   * than an exception, so scanning does not allocate whether or not the item is found.
+   */
+  public ScanResult scanItem(CharSequence item) {
+    return this.scanItem(item, 1);
+  }
+
+  /**
+   * Scans the quantity of the item into the cart, as if the item had been scanned that many times.
+   *
+   * @throws IllegalArgumentException if the quantity is not greater than 0
+   */
+  public ScanResult scanItem(CharSequence item, int quantity) {
+    if (quantity <= 0) {
+      throw new IllegalArgumentException(String.format("The quantity must be greater than 0 but was %d", quantity));
+    }
 
-    final int updatedQuantity = Optional.ofNullable(this.scannedItems.get(item)).orElse(0) + 1;
-    this.scannedItems.put(item, updatedQuantity);
+    final long startTime = this.instrumented ? System.nanoTime() : 0L;
+    return this.scan(this.catalog.ordinalOf(item), quantity, startTime);
+  }
+
+  /**
+   * Scans one of the item with the barcode into the cart. The barcode is packed by {@link Barcodes#pack(CharSequence)}
+   * and resolved through the index, so no String is built or hashed for the scan.
+   *
+   * @throws IllegalArgumentException if the index was built for a different catalog
+   */
+  public ScanResult scanBarcode(long barcode, BarcodeIndex barcodes) {
+    if (!barcodes.isFor(this.catalog)) {
+      throw new IllegalArgumentException("The barcodes were indexed for a different catalog");
+    }
+
+    final long startTime = this.instrumented ? System.nanoTime() : 0L;
+    return this.scan(barcodes.ordinalOf(barcode), 1, startTime);
+  }
+
+  /**
+   * Returns the price of the scanned items before discounts, in pence.
+   *
+   * @throws ArithmeticException if the total does not fit in a long, see {@link #getExactRunningTotal()}
+   */
+  public long getRunningTotal() {
+    return this.runningTotal.longValue();
+  }
+
+  /**
+   * Returns the discounts applied to the scanned items, in pence.
+   *
+   * @throws ArithmeticException if the total does not fit in a long, see {@link #getExactTotalDiscount()}
+   */
+  public long getTotalDiscount() {
+    return this.totalDiscount.longValue();
+  }
+
+  public BigInteger getExactRunningTotal() {
+    return this.runningTotal.toBigInteger();
+  }
+
+  public BigInteger getExactTotalDiscount() {
+    return this.totalDiscount.toBigInteger();
+  }
+
+  /**
+   * Returns an unmodifiable view of the quantity scanned of each item, in the order the items were first scanned.
+   */
+  public Map<String, Integer> getScannedItems() {
+    return this.scannedItemsView;
+  }
+
+  /**
+   * Returns the receipt of the cart, which is kept up to date as items are scanned.
+   */
+  public Receipt getReceipt() {
+    return this.receipt;
+  }
+
+  /**
+   * Returns a snapshot of the lines of the cart and the number of scans it has recorded in its journal.
+   */
+  public CartSnapshot snapshot() {
+    final int lines = this.receipt.size();
+    final int[] ordinals = new int[lines];
+    final int[] quantities = new int[lines];
+    final long[] grossAmounts = new long[lines];
+    final long[] discounts = new long[lines];
+    for (int line = 0; line < lines; line++) {
+      ordinals[line] = this.receipt.ordinalAt(line);
+      quantities[line] = this.receipt.quantityAt(line);
+      grossAmounts[line] = this.receipt.grossAt(line);
+      discounts[line] = this.receipt.discountAt(line);
+    }
+    return new CartSnapshot(this.journalPosition, ordinals, quantities, grossAmounts, discounts);
+  }
 
-    this.runningTotal += sku.getPrice();
+  /**
+   * Rebuilds a cart by replaying every scan recorded in the journal, at the prices in effect when they were scanned.
+   * The recovered cart carries on recording to the journal.
+   */
+  public static CartService recover(SkuCatalog catalog, MappedScanJournal journal) {
+    return recover(catalog, journal, new CartSnapshot(0, new int[0], new int[0], new long[0], new long[0]));
+  }
+
+  /**
+   * Rebuilds a cart from the snapshot, replaying only the scans recorded in the journal after it was taken.
+   *
+   * @throws IllegalStateException if the journal was recorded against a different or repriced catalog, or records an
+   * item which is not in the catalog
+   */
+  public static CartService recover(SkuCatalog catalog, MappedScanJournal journal, CartSnapshot snapshot) {
+    return recover(catalog, PromotionEngine.NONE, journal, snapshot);
+  }
+
+  /**
+   * Rebuilds a cart which applies the promotions of the engine from the snapshot, replaying only the scans recorded in
+   * the journal after it was taken.
+   *
+   * @throws IllegalStateException if the journal was recorded against a different or repriced catalog, or records an
+   * item which is not in the catalog
+   */
+  public static CartService recover(SkuCatalog catalog, PromotionEngine promotions, MappedScanJournal journal, CartSnapshot snapshot) {
+    if (journal.getCatalogFingerprint() != catalog.fingerprint()) {
+      throw new IllegalStateException("The journal was recorded against a different or repriced catalog");
+    }
+    final CartService cartService = new CartService(catalog, promotions, CheckoutMetrics.NONE, ReceiptListener.NONE, journal);
+    for (int line = 0; line < snapshot.size(); line++) {
+      final int ordinal = cartService.checkOrdinal(snapshot.ordinalAt(line));
+      final int quantity = snapshot.quantityAt(line);
+      cartService.scannedItems.add(ordinal, quantity);
+      cartService.receipt.add(cartService.scannedItems.positionOf(ordinal), ordinal, quantity, snapshot.grossAt(line), snapshot.discountAt(line));
+      cartService.runningTotal.add(snapshot.grossAt(line));
+      cartService.totalDiscount.add(snapshot.discountAt(line));
+    }
+    // The snapshot already includes the promotional discounts, so only the discount given by each promotion is needed
+    promotions.evaluate(cartService.scannedItems, cartService.promotionState);
+
+    journal.replay(snapshot.getJournalPosition(), (ordinal, quantity, price, timestampMillis) -> cartService.apply(cartService.checkOrdinal(ordinal), quantity, price));
+    cartService.journalPosition = journal.size();
+    return cartService;
+  }
+
+  private ScanResult scan(int ordinal, int quantity, long startTime) {
+    if (ordinal == OrdinalIndex.NOT_FOUND) {
+      if (this.instrumented) {
+        this.metrics.unknownItemScanned(System.nanoTime() - startTime);
+      }
+      return ScanResult.ITEM_NOT_FOUND;
+    }
+
+    final int price = this.catalog.priceOf(ordinal);
+    this.record(ordinal, quantity, price);
+    final long discountToBeApplied = this.apply(ordinal, quantity, price);
+    if (this.instrumented) {
+      this.metrics.itemScanned(this.catalog, ordinal, quantity, discountToBeApplied, System.nanoTime() - startTime);
+    }
+    return ScanResult.ADDED;
+  }
+
+  private int ordinalOf(String item) {
+    final int ordinal = this.catalog.ordinalOf(item);
+    if (ordinal == OrdinalIndex.NOT_FOUND) {
+      throw ItemNotFoundException.withoutStackTrace(String.format("No SKU found for item (%s)", item));
+    }
+    return ordinal;
+  }
+
+  /**
+   * Adds the quantity of the ordinal to the cart at its current price, or for a negative quantity removes items at the
+   * price they were charged at.
+   */
+  private void change(int ordinal, int quantity) {
+    final int price = quantity < 0
+        ? this.receipt.unitPriceAt(this.scannedItems.positionOf(ordinal))
+        : this.catalog.priceOf(ordinal);
+    this.record(ordinal, quantity, price);
+    this.apply(ordinal, quantity, price);
+  }
+
+  private void record(int ordinal, int quantity, int price) {
+    this.journal.append(ordinal, quantity, price);
+    this.journalPosition++;
+  }
+
+  /**
+   * Adds the quantity of the ordinal at the price to the cart and returns the discount applied. A negative quantity
+   * removes items, and returns the discount taken back as a negative amount.
+   */
+  private long apply(int ordinal, int quantity, int price) {
+    final int updatedQuantity = this.scannedItems.add(ordinal, quantity);
+    final long gross = PenceAccumulator.priceOf(price, quantity);
+    final long discountToBeApplied = this.determineDiscountToBeApplied(ordinal, updatedQuantity - quantity, updatedQuantity)
+        + this.promotions.applyChange(ordinal, this.scannedItems, this.promotionState);
+    this.runningTotal.add(gross);
+    this.totalDiscount.add(discountToBeApplied);
+    this.receipt.add(this.scannedItems.positionOf(ordinal), ordinal, quantity, gross, discountToBeApplied);
+    return discountToBeApplied;
+  }
 
-    final int discountToBeApplied = this.determineDiscountToBeApplied(sku, updatedQuantity);
-    this.totalDiscount += discountToBeApplied;
+  private int checkOrdinal(int ordinal) {
+    if (ordinal < 0 || ordinal >= this.catalog.size()) {
+      throw new IllegalStateException(String.format("The journal records ordinal %d which is not in the catalog", ordinal));
+    }
+    return ordinal;
   }
 
-  private int determineDiscountToBeApplied(Sku sku, int quantity) {
-    return Optional.ofNullable(sku.getSkuSpecialPricing())
-      .filter(skuSpecialPricing -> quantity % skuSpecialPricing.getQuantity() == 0)
-      .map(SkuSpecialPricing::getPriceDiscount)
-      .orElse(0);
+  /**
+   * Returns the discount for the promotional bundles completed by changing the quantity of the SKU from the previous
+   * quantity to the updated quantity, which is negative when a removal breaks bundles.
+   */
+  private long determineDiscountToBeApplied(int ordinal, int previousQuantity, int updatedQuantity) {
+    final int promotionalQuantity = this.catalog.promotionalQuantityOf(ordinal);
+    if (promotionalQuantity == 0) {
+      return 0;
+    }
+    return PenceAccumulator.priceOf(this.catalog.priceDiscountOf(ordinal), updatedQuantity / promotionalQuantity - previousQuantity / promotionalQuantity);
   }
 }
\ No newline at end of file
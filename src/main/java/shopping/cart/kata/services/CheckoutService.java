@@ -1,163 +1,292 @@
 package shopping.cart.kata.services;
 
 import shopping.cart.kata.annotations.VisibleForTesting;
-import shopping.cart.kata.exceptions.ItemNotFoundException;
+import shopping.cart.kata.barcode.BarcodeIndex;
+import shopping.cart.kata.barcode.Barcodes;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.formatting.GbpFormatter;
+import shopping.cart.kata.io.BufferedOutputSink;
+import shopping.cart.kata.io.LineReader;
+import shopping.cart.kata.io.OutputSink;
+import shopping.cart.kata.metrics.CheckoutMetrics;
+import shopping.cart.kata.models.ScanResult;
 import shopping.cart.kata.models.Sku;
 import shopping.cart.kata.models.SkuSpecialPricing;
+import shopping.cart.kata.money.PenceAccumulator;
+import shopping.cart.kata.receipt.Receipt;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
-import java.text.NumberFormat;
-import java.util.Arrays;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
 import java.util.HashMap;
-import java.util.InputMismatchException;
-import java.util.Locale;
 import java.util.Map;
-import java.util.Scanner;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 
 public class CheckoutService {
-  private final Scanner scanner;
+  private final LineReader input;
 
-  private final PrintStream out;
+  private final OutputSink out;
+
+  private final CheckoutMetrics metrics;
+
+  private final byte[] scanPrompt;
+
+  private final byte[] runningTotalPrefix;
+
+  private final byte[] itemNotFound;
+
+  private final byte[] invalidBarcode;
 
   public CheckoutService(InputStream in, PrintStream out) {
-    this.scanner = new Scanner(in);
+    this(in, out, CheckoutMetrics.NONE);
+  }
+
+  public CheckoutService(InputStream in, PrintStream out, CheckoutMetrics metrics) {
+    this(in, new BufferedOutputSink(out, Charset.defaultCharset()), metrics);
+  }
+
+  public CheckoutService(InputStream in, OutputSink out, CheckoutMetrics metrics) {
+    this.input = new LineReader(in, Charset.defaultCharset());
     this.out = out;
+    this.metrics = metrics;
+    this.scanPrompt = out.encode("Please scan your next item. Press enter when all items have been scanned" + System.lineSeparator());
+    this.runningTotalPrefix = out.encode("Running total -- ");
+    this.itemNotFound = out.encode("Sorry I wasn't able to find that product" + System.lineSeparator());
+    this.invalidBarcode = out.encode("Sorry that barcode is not valid. Please scan the item again" + System.lineSeparator());
   }
 
   public void run() {
-    this.out.println("Welcome to kata shopping basket by Rob Pearson");
-    this.out.println();
+    this.println("Welcome to kata shopping basket by Rob Pearson");
+    this.out.newLine();
 
     final Map<String, Sku> skus = this.configureSkus();
-    final CartService cartService = new CartService(skus);
+    final CartService cartService = new CartService(SkuCatalog.from(skus), this.metrics);
 
     this.scanItems(cartService);
     this.outputSummary(cartService);
   }
 
+  /**
+   * Runs a checkout session against a catalog which has already been configured, skipping the SKU configuration
+   * prompts.
+   */
+  public void run(SkuCatalog catalog) {
+    this.println("Welcome to kata shopping basket by Rob Pearson");
+    this.out.newLine();
+
+    final CartService cartService = new CartService(catalog, this.metrics);
+
+    this.scanItems(cartService);
+    this.outputSummary(cartService);
+  }
+
+  /**
+   * Runs a checkout session where each line is an EAN-13 or UPC-A barcode from a scanner. Barcodes are validated and
+   * resolved through the index without building a String, and a barcode with a wrong check digit is rejected rather
+   * than looked up.
+   */
+  public void run(SkuCatalog catalog, BarcodeIndex barcodes) {
+    this.println("Welcome to kata shopping basket by Rob Pearson");
+    this.out.newLine();
+
+    final CartService cartService = new CartService(catalog, this.metrics);
+
+    this.scanBarcodes(cartService, barcodes);
+    this.outputSummary(cartService);
+  }
+
+  /**
+   * Prompts the user to configure the SKUs and returns them as a catalog which can be shared by many sessions.
+   */
+  public SkuCatalog configureCatalog() {
+    return SkuCatalog.from(this.configureSkus());
+  }
+
   @VisibleForTesting
   protected Map<String, Sku> configureSkus() {
+    final long startTime = System.nanoTime();
     final Map<String, Sku> skus = new HashMap<>();
 
-    this.out.println("Before we start I need you to configure the SKUs");
-    this.out.println();
+    this.println("Before we start I need you to configure the SKUs");
+    this.out.newLine();
 
     boolean shouldAddMoreSkus;
     do {
-      this.out.println("Please enter the ID of the item");
+      this.println("Please enter the ID of the item");
       final String id = this.collectInput((String temp) -> !skus.containsKey(temp), "The ID supplied has already been configured. Please enter a unique ID of the item");
 
       final Sku.SkuBuilder skuBuilder = Sku.builder();
 
-      this.out.println("Please enter the price of the item (in pence)");
-      final int pricePerItem = this.collectNumericInput((Integer value) -> value > 0, "Please enter the price of the item (in pence). The value must be greater than 0");
+      this.println("Please enter the price of the item (in pence)");
+      final int pricePerItem = this.collectNumericInput((int value) -> value > 0, "Please enter the price of the item (in pence). The value must be greater than 0");
       skuBuilder.price(pricePerItem);
 
-      this.out.println("Does the item have promotional pricing?. Please enter Y or N");
+      this.println("Does the item have promotional pricing?. Please enter Y or N");
       final String promotionalPricing = this.collectYOrNInput("Does the item have promotional pricing?. Please enter Y or N");
 
       if ("Y".equals(promotionalPricing)) {
         final SkuSpecialPricing.SkuSpecialPricingBuilder skuSpecialPricingBuilder = SkuSpecialPricing.builder();
 
-        this.out.println("Please enter the number of items required to qualify for the discount");
-        final int quantity = this.collectNumericInput((Integer value) -> value > 0, "Please enter the number of items required to qualify for the discount. The value must be greater than 0");
+        this.println("Please enter the number of items required to qualify for the discount");
+        // The catalog holds the discount as an int, so the full price of the items must fit in one
+        final int quantity = this.collectNumericInput(
+            (int value) -> value > 0 && PenceAccumulator.fitsInInt(PenceAccumulator.priceOf(pricePerItem, value)),
+            "Please enter the number of items required to qualify for the discount. The value must be greater than 0 and the full price of the items no more than " + GbpFormatter.format(Integer.MAX_VALUE)
+        );
         skuSpecialPricingBuilder.quantity(quantity);
 
-        this.out.println("Please enter the promotional price (in pence)");
-        final int pricePriorToDiscount = pricePerItem * quantity;
-        final int promotionalPrice = this.collectNumericInput((Integer value) -> value > 0 && pricePriorToDiscount > value, "Please enter the promotional price (in pence). The price must be greater than 0 and less than the full price of all items");
+        this.println("Please enter the promotional price (in pence)");
+        final long pricePriorToDiscount = PenceAccumulator.priceOf(pricePerItem, quantity);
+        final int promotionalPrice = this.collectNumericInput((int value) -> value > 0 && pricePriorToDiscount > value, "Please enter the promotional price (in pence). The price must be greater than 0 and less than the full price of all items");
         skuSpecialPricingBuilder.overriddenPrice(promotionalPrice);
-        skuSpecialPricingBuilder.priceDiscount(pricePriorToDiscount - promotionalPrice);
+        skuSpecialPricingBuilder.priceDiscount((int) (pricePriorToDiscount - promotionalPrice));
 
         skuBuilder.skuSpecialPricing(skuSpecialPricingBuilder.build());
       }
 
       skus.put(id, skuBuilder.build());
 
-      this.out.println("I have stored that item. Would you like to configure any more SKUs? Please enter Y or N");
+      this.println("I have stored that item. Would you like to configure any more SKUs? Please enter Y or N");
       final String shouldAddMore = this.collectYOrNInput("Would you like to configure any more SKUs? Please enter Y or N");
       shouldAddMoreSkus = "Y".equals(shouldAddMore);
     } while (shouldAddMoreSkus);
+
+    this.metrics.skusConfigured(skus.size(), System.nanoTime() - startTime);
+    this.out.flush();
     return skus;
   }
 
   @VisibleForTesting
   protected void scanItems(CartService cartService) {
-    this.out.println("SKUs have been configured. Please proceed to scanning items");
-    this.out.println();
+    this.println("SKUs have been configured. Please proceed to scanning items");
+    this.out.newLine();
 
     do {
-      this.out.println("Please scan your next item. Press enter when all items have been scanned");
-      final String scannedItem = this.scanner.nextLine().toUpperCase();
-      if ("".equals(scannedItem)) {
+      this.out.write(this.scanPrompt);
+      this.readLine();
+      final long startTime = System.nanoTime();
+      if (this.input.length() == 0) {
         break;
       }
 
-      try {
-        cartService.addItem(scannedItem);
-      } catch (ItemNotFoundException e) {
-        this.out.println("Sorry I wasn't able to find that product");
-        continue;
+      // ASCII IDs are looked up straight from the input buffer, anything else falls back to a String
+      final ScanResult result = this.input.isAscii()
+          ? cartService.scanItem(this.input.line())
+          : cartService.scanItem(this.input.lineAsString().toUpperCase());
+      if (result == ScanResult.ITEM_NOT_FOUND) {
+        this.out.write(this.itemNotFound);
+      } else {
+        this.out.write(this.runningTotalPrefix).writeAmount(cartService.getRunningTotal()).newLine();
       }
-
-      this.out.printf("Running total -- %s%n", convertToGBP(cartService.getRunningTotal()));
+      this.metrics.scanHandled(System.nanoTime() - startTime);
     } while (true);
+    this.out.flush();
   }
 
-  private void outputSummary(CartService cartService) {
-    this.out.println("The summary of items scanned are as follows");
-    this.out.println();
+  @VisibleForTesting
+  protected void scanBarcodes(CartService cartService, BarcodeIndex barcodes) {
+    this.println("SKUs have been configured. Please proceed to scanning items");
+    this.out.newLine();
 
-    this.out.println("-----Scanned Items-----");
-    cartService.getScannedItems().forEach((key, quantity) -> this.out.printf("%d x %s%n", quantity, key));
-    this.out.println();
+    do {
+      this.out.write(this.scanPrompt);
+      this.readLine();
+      final long startTime = System.nanoTime();
+      if (this.input.length() == 0) {
+        break;
+      }
 
-    this.out.println("-----Breakdown-----");
-    this.out.printf("Total (prior to discounts) = %s%n", convertToGBP(cartService.getRunningTotal()));
-    this.out.printf("Discounts = %s%n", convertToGBP(cartService.getTotalDiscount()));
-    this.out.printf("Total to pay = %s%n", convertToGBP(cartService.getRunningTotal() - cartService.getTotalDiscount()));
+      final long barcode = Barcodes.pack(this.input.line());
+      if (barcode == Barcodes.NOT_A_BARCODE) {
+        this.out.write(this.invalidBarcode);
+      } else if (cartService.scanBarcode(barcode, barcodes) == ScanResult.ITEM_NOT_FOUND) {
+        this.out.write(this.itemNotFound);
+      } else {
+        this.out.write(this.runningTotalPrefix).writeAmount(cartService.getRunningTotal()).newLine();
+      }
+      this.metrics.scanHandled(System.nanoTime() - startTime);
+    } while (true);
+    this.out.flush();
   }
 
-  private int collectNumericInput(InputCondition<Integer> inputCondition, String rePromptMessage) {
-    int temp;
-    try {
-      temp = this.scanner.nextInt();
-    } catch (InputMismatchException e) {
-      this.scanner.nextLine(); // To prevent recursive loop by expecting user to input new value
-
-      this.out.printf("Invalid input supplied. %s%n", rePromptMessage);
-      return this.collectNumericInput(inputCondition, rePromptMessage);
+  @VisibleForTesting
+  protected void outputSummary(CartService cartService) {
+    this.println("The summary of items scanned are as follows");
+    this.out.newLine();
+
+    this.println("-----Scanned Items-----");
+    final Receipt receipt = cartService.getReceipt();
+    for (int line = 0; line < receipt.size(); line++) {
+      if (receipt.quantityAt(line) == 0) {
+        continue; // Every item on the line has been removed
+      }
+      this.out.write(receipt.quantityAt(line)).write(" x ").write(receipt.itemAt(line)).newLine();
     }
+    this.out.newLine();
 
-    this.scanner.nextLine();
-    if (inputCondition.valid(temp)) {
-      return temp;
+    this.println("-----Breakdown-----");
+    this.out.write("Total (prior to discounts) = ").writeAmount(cartService.getRunningTotal()).newLine();
+    this.out.write("Discounts = ").writeAmount(cartService.getTotalDiscount()).newLine();
+    this.out.write("Total to pay = ").writeAmount(cartService.getRunningTotal() - cartService.getTotalDiscount()).newLine();
+    this.out.flush();
+  }
+
+  private int collectNumericInput(IntPredicate inputCondition, String rePromptMessage) {
+    while (true) {
+      this.readLine();
+      if (this.input.isBlank()) {
+        continue; // Blank lines are skipped while waiting for a number
+      }
+
+      final long temp = this.input.parseInt();
+      if (temp == LineReader.NOT_A_NUMBER) {
+        this.out.write("Invalid input supplied. ").write(rePromptMessage).newLine();
+      } else if (inputCondition.test((int) temp)) {
+        return (int) temp;
+      } else {
+        this.println(rePromptMessage);
+      }
     }
-    this.out.println(rePromptMessage);
-    return this.collectNumericInput(inputCondition, rePromptMessage);
   }
 
   private String collectYOrNInput(String rePromptMessage) {
-    return this.collectInput((String temp) -> Arrays.asList(new String[]{"Y", "N"}).contains(temp), rePromptMessage);
+    return this.collectInput((String temp) -> "Y".equals(temp) || "N".equals(temp), rePromptMessage);
   }
 
-  private String collectInput(InputCondition<String> inputCondition, String rePromptMessage) {
-    final String temp = this.scanner.nextLine().toUpperCase();
+  private String collectInput(Predicate<String> inputCondition, String rePromptMessage) {
+    while (true) {
+      this.readLine();
+      final String temp = this.input.lineAsString().toUpperCase();
 
-    if (inputCondition.valid(temp)) {
-      return temp;
+      if (inputCondition.test(temp)) {
+        return temp;
+      }
+      this.println(rePromptMessage);
     }
-    this.out.println(rePromptMessage);
-    return this.collectInput(inputCondition, rePromptMessage);
   }
 
-  private String convertToGBP(int amountInPence) {
-    final NumberFormat formatter = NumberFormat.getCurrencyInstance(new Locale.Builder().setLanguage("en").setRegion("GB").build());
-    return formatter.format((double) amountInPence / 100);
+  /**
+   * Reads the next line of input, flushing any prompts first if the line has not arrived yet. When a till sends its
+   * scans ahead of the prompts, the responses are written together rather than flushed once per line.
+   */
+  private void readLine() {
+    if (!this.input.hasBufferedLine()) {
+      this.out.flush();
+    }
+    try {
+      if (!this.input.readLine()) {
+        throw new NoSuchElementException("No line found");
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
-}
 
-interface InputCondition<T> {
-  boolean valid(T input);
+  private void println(String text) {
+    this.out.write(text).newLine();
+  }
 }
\ No newline at end of file
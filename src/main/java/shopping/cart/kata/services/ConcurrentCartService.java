@@ -0,0 +1,178 @@
+package shopping.cart.kata.services;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.collections.ConcurrentOrdinalCounter;
+import shopping.cart.kata.collections.OrdinalIndex;
+import shopping.cart.kata.exceptions.ItemNotFoundException;
+import shopping.cart.kata.models.CartTotals;
+import shopping.cart.kata.models.ScanResult;
+
+/**
+ * A cart which can be fed by several scanners at once, such as a self-checkout and an attendant's handheld scanner.
+ *
+ * <p>Each scan increments the quantity of its SKU atomically and so observes the exact quantity it produced. This means
+ * exactly one scan completes each promotional bundle and applies its discount, however the scans interleave.
+ *
+ * <p>The running total and total discount are kept in striped {@link LongAdder}s, so scanners on different threads do
+ * not contend on a single counter. Each scan is bracketed by a count of the scans started and the scans completed. A
+ * snapshot reads the completed count, both totals and then the started count, and only accepts the totals when the two
+ * counts match, so it always contains both the price and discount of a scan or neither.
+ *
+ * <p>A snapshot retries a bounded number of times, so a display cannot spin for as long as the scanners keep the counts
+ * apart. After that it pauses the scanners with a lock, which a scan only takes while a snapshot is waiting for it.
+ */
+public class ConcurrentCartService {
+  static final int SNAPSHOT_ATTEMPTS = 64;
+
+  private final SkuCatalog catalog;
+
+  private final ConcurrentOrdinalCounter scannedItems;
+
+  private final LongAdder runningTotal;
+
+  private final LongAdder totalDiscount;
+
+  private final LongAdder scansStarted;
+
+  private final LongAdder scansCompleted;
+
+  private final ReentrantReadWriteLock scanLock;
+
+  private final AtomicInteger waitingSnapshots;
+
+  private final int snapshotAttempts;
+
+  public ConcurrentCartService(SkuCatalog catalog) {
+    this(catalog, SNAPSHOT_ATTEMPTS);
+  }
+
+  ConcurrentCartService(SkuCatalog catalog, int snapshotAttempts) {
+    this.catalog = catalog;
+    this.scannedItems = new ConcurrentOrdinalCounter(catalog);
+    this.runningTotal = new LongAdder();
+    this.totalDiscount = new LongAdder();
+    this.scansStarted = new LongAdder();
+    this.scansCompleted = new LongAdder();
+    this.scanLock = new ReentrantReadWriteLock();
+    this.waitingSnapshots = new AtomicInteger();
+    this.snapshotAttempts = snapshotAttempts;
+  }
+
+  public void addItem(String item) {
+    if (this.scanItem(item) == ScanResult.ITEM_NOT_FOUND) {
+      throw ItemNotFoundException.withoutStackTrace(String.format("No SKU found for item (%s)", item));
+    }
+  }
+
+  public ScanResult scanItem(CharSequence item) {
+    final int ordinal = this.catalog.ordinalOf(item);
+    if (ordinal == OrdinalIndex.NOT_FOUND) {
+      return ScanResult.ITEM_NOT_FOUND;
+    }
+    if (this.waitingSnapshots.get() == 0) {
+      this.record(ordinal);
+      return ScanResult.ADDED;
+    }
+
+    final Lock lock = this.scanLock.readLock();
+    lock.lock();
+    try {
+      this.record(ordinal);
+    } finally {
+      lock.unlock();
+    }
+    return ScanResult.ADDED;
+  }
+
+  /**
+   * Returns the running total and total discount read together, so the total to pay is consistent with the items
+   * included in the running total. A scan completes each counter after the one before it, so any scan seen in only one
+   * of the totals is counted as started but not completed, and the totals are read again.
+   *
+   * <p>When the totals are still being changed after {@value #SNAPSHOT_ATTEMPTS} reads, new scans are held back until
+   * the snapshot is taken. Only the scans which started before that can still be in progress, so the snapshot then
+   * waits for a bounded number of scans rather than for the scanners to pause on their own.
+   */
+  public CartTotals snapshot() {
+    for (int attempt = 0; attempt < this.snapshotAttempts; attempt++) {
+      final CartTotals totals = this.readTotals();
+      if (totals != null) {
+        return totals;
+      }
+      Thread.onSpinWait();
+    }
+
+    this.waitingSnapshots.incrementAndGet();
+    final Lock lock = this.scanLock.writeLock();
+    lock.lock();
+    try {
+      while (true) {
+        final CartTotals totals = this.readTotals();
+        if (totals != null) {
+          return totals;
+        }
+        Thread.onSpinWait();
+      }
+    } finally {
+      lock.unlock();
+      this.waitingSnapshots.decrementAndGet();
+    }
+  }
+
+  public long getRunningTotal() {
+    return this.runningTotal.sum();
+  }
+
+  public long getTotalDiscount() {
+    return this.totalDiscount.sum();
+  }
+
+  /**
+   * Returns a copy of the quantity scanned of each item.
+   */
+  public Map<String, Integer> getScannedItems() {
+    return this.scannedItems.snapshot();
+  }
+
+  private void record(int ordinal) {
+    final int updatedQuantity = this.scannedItems.increment(ordinal);
+    final int discountToBeApplied = this.determineDiscountToBeApplied(ordinal, updatedQuantity);
+
+    this.scansStarted.increment();
+    this.runningTotal.add(this.catalog.priceOf(ordinal));
+    if (discountToBeApplied != 0) {
+      this.totalDiscount.add(discountToBeApplied);
+    }
+    this.scansCompleted.increment();
+  }
+
+  /**
+   * Returns the totals if no scan was in progress while they were read, or {@code null} to read them again.
+   */
+  private CartTotals readTotals() {
+    final long completed = this.scansCompleted.sum();
+    final long runningTotal = this.runningTotal.sum();
+    final long totalDiscount = this.totalDiscount.sum();
+    if (this.scansStarted.sum() != completed) {
+      return null;
+    }
+    return CartTotals.builder()
+        .runningTotal(runningTotal)
+        .totalDiscount(totalDiscount)
+        .build();
+  }
+
+  private int determineDiscountToBeApplied(int ordinal, int quantity) {
+    final int promotionalQuantity = this.catalog.promotionalQuantityOf(ordinal);
+    if (promotionalQuantity == 0 || quantity % promotionalQuantity != 0) {
+      return 0;
+    }
+    return this.catalog.priceDiscountOf(ordinal);
+  }
+}
@@ -0,0 +1,44 @@
+package shopping.cart.kata.barcode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import shopping.cart.kata.catalog.ArraySkuCatalog;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.collections.OrdinalIndex;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BarcodeIndexTests {
+  @Test
+  public void shouldResolveEachBarcodeToItsOrdinal() {
+    // Given
+    final ArraySkuCatalog.Builder builder = ArraySkuCatalog.builder();
+    for (int product = 0; product < 1000; product++) {
+      final String digits = String.format("50000000%04d", product);
+      builder.add(digits + Barcodes.checkDigitOf(digits), 10 + product, 0, 0, 0);
+    }
+    final SkuCatalog catalog = builder.add("A", 50, 0, 0, 0).build();
+
+    // When
+    final BarcodeIndex barcodes = BarcodeIndex.of(catalog);
+
+    // Then
+    assertEquals(1000, barcodes.size());
+    for (int ordinal = 0; ordinal < 1000; ordinal++) {
+      assertEquals(ordinal, barcodes.ordinalOf(Barcodes.pack(catalog.itemOf(ordinal))));
+    }
+    assertEquals(OrdinalIndex.NOT_FOUND, barcodes.ordinalOf(Barcodes.pack("4006381333931")));
+    assertEquals(OrdinalIndex.NOT_FOUND, barcodes.ordinalOf(Barcodes.NOT_A_BARCODE));
+  }
+
+  @Test
+  public void shouldRejectTwoItemsWithTheSameBarcode() {
+    // Given
+    final SkuCatalog catalog = ArraySkuCatalog.builder().add("036000291452", 30, 0, 0, 0).add("0036000291452", 30, 0, 0, 0).build();
+
+    // When // Then
+    assertThrows(IllegalArgumentException.class, () -> BarcodeIndex.of(catalog));
+  }
+}
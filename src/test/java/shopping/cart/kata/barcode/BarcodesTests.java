@@ -0,0 +1,57 @@
+package shopping.cart.kata.barcode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BarcodesTests {
+  @Test
+  public void shouldPackAnEan13BarcodeAsItsDigits() {
+    // When
+    final long key = Barcodes.pack("4006381333931");
+
+    // Then
+    assertEquals(4006381333931L, key);
+  }
+
+  @Test
+  public void shouldPackAUpcABarcodeAsItsEan13Form() {
+    // When // Then
+    assertEquals(Barcodes.pack("0036000291452"), Barcodes.pack("036000291452"));
+    assertEquals(36000291452L, Barcodes.pack("036000291452"));
+  }
+
+  @Test
+  public void shouldRejectABarcodeWithTheWrongCheckDigit() {
+    // When // Then
+    for (int checkDigit = 0; checkDigit <= 9; checkDigit++) {
+      assertEquals(checkDigit == 1, Barcodes.isValid("400638133393" + checkDigit));
+      assertEquals(checkDigit == 2, Barcodes.isValid("03600029145" + checkDigit));
+    }
+  }
+
+  @Test
+  public void shouldRejectAnythingWhichIsNotABarcode() {
+    // When // Then
+    assertEquals(Barcodes.NOT_A_BARCODE, Barcodes.pack("A"));
+    assertEquals(Barcodes.NOT_A_BARCODE, Barcodes.pack(""));
+    assertEquals(Barcodes.NOT_A_BARCODE, Barcodes.pack("40063813339310"));
+    assertEquals(Barcodes.NOT_A_BARCODE, Barcodes.pack("4006381333931 "));
+    assertEquals(Barcodes.NOT_A_BARCODE, Barcodes.pack("40063813A3931"));
+    assertFalse(Barcodes.isValid("400638133393/"));
+  }
+
+  @Test
+  public void shouldCalculateTheCheckDigit() {
+    // When // Then
+    assertEquals(1, Barcodes.checkDigitOf("400638133393"));
+    assertEquals(7, Barcodes.checkDigitOf("590123412345"));
+    assertTrue(Barcodes.isValid("590123412345" + Barcodes.checkDigitOf("590123412345")));
+    assertThrows(IllegalArgumentException.class, () -> Barcodes.checkDigitOf("12345"));
+  }
+}
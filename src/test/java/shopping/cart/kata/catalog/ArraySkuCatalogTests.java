@@ -0,0 +1,133 @@
+package shopping.cart.kata.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import shopping.cart.kata.collections.OrdinalIndex;
+import shopping.cart.kata.models.Sku;
+import shopping.cart.kata.models.SkuSpecialPricing;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ArraySkuCatalogTests {
+
+  @Test
+  public void shouldAssignDenseOrdinalsInTheOrderSkusAreAdded() {
+    // When
+    final SkuCatalog catalog = SkuCatalog.from(this.skus());
+
+    // Then
+    assertEquals(2, catalog.size());
+    assertEquals(0, catalog.ordinalOf("A"));
+    assertEquals(1, catalog.ordinalOf("C"));
+    assertEquals("A", catalog.itemOf(0));
+    assertEquals("C", catalog.itemOf(1));
+  }
+
+  @Test
+  public void shouldStoreThePricingOfEachSku() {
+    // Given
+    final SkuCatalog catalog = SkuCatalog.from(this.skus());
+    final int a = catalog.ordinalOf("A");
+    final int c = catalog.ordinalOf("C");
+
+    // Then
+    assertEquals(50, catalog.priceOf(a));
+    assertTrue(catalog.hasPromotionalPricing(a));
+    assertEquals(3, catalog.promotionalQuantityOf(a));
+    assertEquals(130, catalog.promotionalPriceOf(a));
+    assertEquals(20, catalog.priceDiscountOf(a));
+
+    assertEquals(20, catalog.priceOf(c));
+    assertFalse(catalog.hasPromotionalPricing(c));
+    assertEquals(0, catalog.promotionalQuantityOf(c));
+  }
+
+  @Test
+  public void shouldRebuildTheSkuOfAnOrdinal() {
+    // Given
+    final SkuCatalog catalog = SkuCatalog.from(this.skus());
+
+    // When
+    final Sku a = catalog.skuOf(catalog.ordinalOf("A"));
+    final Sku c = catalog.skuOf(catalog.ordinalOf("C"));
+
+    // Then
+    assertEquals(50, a.getPrice());
+    assertNotNull(a.getSkuSpecialPricing());
+    assertEquals(3, a.getSkuSpecialPricing().getQuantity());
+    assertEquals(130, a.getSkuSpecialPricing().getOverriddenPrice());
+    assertEquals(20, a.getSkuSpecialPricing().getPriceDiscount());
+    assertEquals(20, c.getPrice());
+    assertNull(c.getSkuSpecialPricing());
+  }
+
+  @Test
+  public void shouldLookUpAnyCharSequence() {
+    // Given
+    final SkuCatalog catalog = SkuCatalog.from(this.skus());
+
+    // Then
+    assertEquals(0, catalog.ordinalOf(new StringBuilder("A")));
+    assertEquals(OrdinalIndex.NOT_FOUND, catalog.ordinalOf(new StringBuilder("Z")));
+    assertEquals(OrdinalIndex.NOT_FOUND, catalog.ordinalOf("a"));
+  }
+
+  @Test
+  public void shouldResolveEveryIdOfALargeCatalog() {
+    // Given
+    final ArraySkuCatalog.Builder builder = ArraySkuCatalog.builder();
+    for (int index = 0; index < 100_000; index++) {
+      builder.add("SKU" + index, index + 1, 0, 0, 0);
+    }
+
+    // When
+    final SkuCatalog catalog = builder.build();
+
+    // Then
+    assertEquals(100_000, catalog.size());
+    for (int index = 0; index < 100_000; index++) {
+      final int ordinal = catalog.ordinalOf("SKU" + index);
+      assertEquals(index, ordinal);
+      assertEquals(index + 1, catalog.priceOf(ordinal));
+    }
+    assertEquals(OrdinalIndex.NOT_FOUND, catalog.ordinalOf("SKU100000"));
+  }
+
+  @Test
+  public void shouldRejectDuplicateIds() {
+    // Given
+    final ArraySkuCatalog.Builder builder = ArraySkuCatalog.builder().add("A", 50, 0, 0, 0);
+
+    // When
+    // Then
+    assertThrows(IllegalArgumentException.class, () -> builder.add("A", 20, 0, 0, 0));
+  }
+
+  private Map<String, Sku> skus() {
+    final Map<String, Sku> skus = new LinkedHashMap<>();
+    skus.put(
+        "A",
+        Sku.builder()
+            .price(50)
+            .skuSpecialPricing(
+                SkuSpecialPricing.builder()
+                    .quantity(3)
+                    .overriddenPrice(130)
+                    .priceDiscount(20)
+                    .build()
+            )
+            .build()
+    );
+    skus.put("C", Sku.builder().price(20).build());
+    return skus;
+  }
+}
@@ -0,0 +1,87 @@
+package shopping.cart.kata.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class CatalogPublisherTests {
+  private final SkuCatalog original = ArraySkuCatalog.builder().add("A", 50, 0, 0, 0).build();
+
+  private final SkuCatalog updated = ArraySkuCatalog.builder().add("A", 45, 0, 0, 0).build();
+
+  @Test
+  public void shouldNumberEachPublishedVersion() {
+    // Given
+    final CatalogPublisher publisher = new CatalogPublisher(this.original);
+    final CatalogVersion pinned = publisher.current();
+
+    // When
+    final CatalogVersion published = publisher.publish(this.updated);
+
+    // Then
+    assertEquals(1, pinned.getVersion());
+    assertSame(this.original, pinned.getCatalog());
+    assertEquals(2, published.getVersion());
+    assertSame(published, publisher.current());
+    assertSame(this.updated, publisher.current().getCatalog());
+  }
+
+  @Test
+  public void shouldKeepTheCurrentVersionWhenTheBarcodesOfACatalogCannotBeIndexed() {
+    // Given
+    final SkuCatalog barcodes = ArraySkuCatalog.builder().add("5012345678900", 50, 0, 0, 0).build();
+    final SkuCatalog duplicateBarcodes = ArraySkuCatalog.builder().add("036000291452", 50, 0, 0, 0).add("0036000291452", 45, 0, 0, 0).build();
+    final CatalogPublisher publisher = new CatalogPublisher(barcodes, true);
+
+    // When
+    assertThrows(IllegalArgumentException.class, () -> publisher.publish(duplicateBarcodes));
+
+    // Then
+    assertEquals(1, publisher.current().getVersion());
+    assertSame(barcodes, publisher.current().getCatalog());
+    assertEquals(1, publisher.current().getBarcodes().size());
+    assertThrows(IllegalStateException.class, () -> new CatalogPublisher(this.original).current().getBarcodes());
+  }
+
+  @Test
+  public void shouldPublishTheCatalogWhenItsFileIsReplaced() throws Exception {
+    // Given
+    final Path directory = Files.createTempDirectory("catalogs");
+    final Path file = directory.resolve("skus.bin");
+    BinaryCatalogWriter.write(this.original, file);
+    final CatalogPublisher publisher = new CatalogPublisher(SkuCatalog.read(file));
+
+    try (CatalogFileWatcher watcher = new CatalogFileWatcher(file, publisher, Throwable::printStackTrace)) {
+      watcher.start();
+
+      // When
+      BinaryCatalogWriter.write(this.updated, file);
+
+      // Then
+      final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+      while (publisher.current().getVersion() == 1 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      final SkuCatalog reloaded = publisher.current().getCatalog();
+      assertTrue(publisher.current().getVersion() > 1);
+      assertEquals(45, reloaded.priceOf(reloaded.ordinalOf("A")));
+    } finally {
+      this.delete(file);
+      this.delete(directory);
+    }
+  }
+
+  private void delete(Path path) throws IOException {
+    Files.deleteIfExists(path);
+  }
+}
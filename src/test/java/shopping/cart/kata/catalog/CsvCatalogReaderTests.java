@@ -0,0 +1,71 @@
+package shopping.cart.kata.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class CsvCatalogReaderTests {
+
+  @Test
+  public void shouldReadSkusWithAndWithoutPromotionalPricing() throws IOException {
+    // When
+    final SkuCatalog catalog = this.read("# id,price,promotional quantity,promotional price\na,50,3,130\n\nC, 20\n");
+
+    // Then
+    assertEquals(2, catalog.size());
+    final int a = catalog.ordinalOf("A");
+    assertEquals(50, catalog.priceOf(a));
+    assertEquals(3, catalog.promotionalQuantityOf(a));
+    assertEquals(130, catalog.promotionalPriceOf(a));
+    assertEquals(20, catalog.priceDiscountOf(a));
+    final int c = catalog.ordinalOf("C");
+    assertEquals(20, catalog.priceOf(c));
+    assertEquals(0, catalog.promotionalQuantityOf(c));
+  }
+
+  @Test
+  public void shouldRejectAPriceOfZero() {
+    // When
+    // Then
+    assertThrows(IllegalArgumentException.class, () -> this.read("C,0\n"));
+  }
+
+  @Test
+  public void shouldRejectANonNumericPrice() {
+    // When
+    // Then
+    assertThrows(IllegalArgumentException.class, () -> this.read("C,D\n"));
+  }
+
+  @Test
+  public void shouldRejectAPromotionalPriceEqualToTheFullPrice() {
+    // When
+    // Then
+    assertThrows(IllegalArgumentException.class, () -> this.read("A,50,3,150\n"));
+  }
+
+  @Test
+  public void shouldRejectAPromotionalQuantityWhoseFullPriceIsTooLarge() {
+    // When
+    // Then
+    assertThrows(IllegalArgumentException.class, () -> this.read("A,1500000000,3,100\n"));
+  }
+
+  @Test
+  public void shouldRejectADuplicateId() {
+    // When
+    // Then
+    assertThrows(IllegalArgumentException.class, () -> this.read("A,50\na,20\n"));
+  }
+
+  private SkuCatalog read(String csv) throws IOException {
+    return CsvCatalogReader.read(new BufferedReader(new StringReader(csv)));
+  }
+}
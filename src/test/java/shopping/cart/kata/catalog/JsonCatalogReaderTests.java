@@ -0,0 +1,61 @@
+package shopping.cart.kata.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class JsonCatalogReaderTests {
+
+  @Test
+  public void shouldReadSkusWithAndWithoutPromotionalPricing() {
+    // Given
+    final String json = "[\n"
+        + "  {\"id\": \"a\", \"price\": 50, \"skuSpecialPricing\": {\"quantity\": 3, \"overriddenPrice\": 130}},\n"
+        + "  {\"id\": \"C\", \"description\": \"Tea \\\"bags\\\"\", \"tags\": [1, {\"x\": null}], \"price\": 20, \"skuSpecialPricing\": null}\n"
+        + "]";
+
+    // When
+    final SkuCatalog catalog = JsonCatalogReader.read(json);
+
+    // Then
+    assertEquals(2, catalog.size());
+    final int a = catalog.ordinalOf("A");
+    assertEquals(50, catalog.priceOf(a));
+    assertEquals(3, catalog.promotionalQuantityOf(a));
+    assertEquals(130, catalog.promotionalPriceOf(a));
+    assertEquals(20, catalog.priceDiscountOf(a));
+    final int c = catalog.ordinalOf("C");
+    assertEquals(20, catalog.priceOf(c));
+    assertEquals(0, catalog.promotionalQuantityOf(c));
+  }
+
+  @Test
+  public void shouldReadAnEmptyCatalog() {
+    // When
+    final SkuCatalog catalog = JsonCatalogReader.read(" [ ] ");
+
+    // Then
+    assertEquals(0, catalog.size());
+  }
+
+  @Test
+  public void shouldApplyTheSameRulesAsConfiguringSkus() {
+    // When // Then
+    assertThrows(IllegalArgumentException.class, () -> JsonCatalogReader.read("[{\"id\": \"A\", \"price\": 0}]"));
+    assertThrows(IllegalArgumentException.class, () -> JsonCatalogReader.read("[{\"price\": 50}]"));
+    assertThrows(IllegalArgumentException.class, () -> JsonCatalogReader.read("[{\"id\": \"A\", \"price\": 50, \"skuSpecialPricing\": {\"quantity\": 3, \"overriddenPrice\": 150}}]"));
+    assertThrows(IllegalArgumentException.class, () -> JsonCatalogReader.read("[{\"id\": \"A\", \"price\": 1500000000, \"skuSpecialPricing\": {\"quantity\": 3, \"overriddenPrice\": 100}}]"));
+    assertThrows(IllegalArgumentException.class, () -> JsonCatalogReader.read("[{\"id\": \"A\", \"price\": 50}, {\"id\": \"a\", \"price\": 30}]"));
+  }
+
+  @Test
+  public void shouldRejectMalformedJson() {
+    // When // Then
+    assertThrows(IllegalArgumentException.class, () -> JsonCatalogReader.read("[{\"id\": \"A\", \"price\": 50}"));
+    assertThrows(IllegalArgumentException.class, () -> JsonCatalogReader.read("[{\"id\": \"A\", \"price\": \"50\"}]"));
+    assertThrows(IllegalArgumentException.class, () -> JsonCatalogReader.read("[] []"));
+  }
+}
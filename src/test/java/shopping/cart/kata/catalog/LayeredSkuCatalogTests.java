@@ -0,0 +1,125 @@
+package shopping.cart.kata.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import shopping.cart.kata.services.CartService;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class LayeredSkuCatalogTests {
+  private final SkuCatalog national = ArraySkuCatalog.builder()
+      .add("A", 50, 3, 130, 20)
+      .add("B", 30, 2, 45, 15)
+      .add("C", 20, 0, 0, 0)
+      .add("D", 15, 0, 0, 0)
+      .build();
+
+  @Test
+  public void shouldReadThroughToTheBaseWhenTheStoreHasNoOverrides() {
+    // When
+    final LayeredSkuCatalog store = LayeredSkuCatalog.builder(this.national).build();
+
+    // Then
+    assertEquals(this.national.size(), store.size());
+    for (int ordinal = 0; ordinal < this.national.size(); ordinal++) {
+      assertEquals(ordinal, store.ordinalOf(this.national.itemOf(ordinal)));
+      assertEquals(this.national.priceOf(ordinal), store.priceOf(ordinal));
+      assertEquals(this.national.promotionalQuantityOf(ordinal), store.promotionalQuantityOf(ordinal));
+      assertEquals(this.national.promotionalPriceOf(ordinal), store.promotionalPriceOf(ordinal));
+      assertEquals(this.national.priceDiscountOf(ordinal), store.priceDiscountOf(ordinal));
+    }
+    assertEquals(SkuCatalog.NOT_FOUND, store.ordinalOf("Z"));
+  }
+
+  @Test
+  public void shouldOverrideThePricingOfTheStoreOnly() {
+    // Given
+    final LayeredSkuCatalog store = LayeredSkuCatalog.builder(this.national)
+        .add("C", 25, 0, 0, 0)
+        .add("D", 15, 4, 50, 10)
+        .add("E", 99, 0, 0, 0)
+        .build();
+
+    // When
+    final CartService cartService = new CartService(store);
+    cartService.addItem("A", 3);
+    cartService.addItem("C");
+    cartService.addItem("D", 4);
+    cartService.addItem("E");
+
+    // Then
+    assertEquals(150 + 25 + 60 + 99, cartService.getRunningTotal());
+    assertEquals(20 + 10, cartService.getTotalDiscount());
+    assertEquals(2, store.ordinalOf("C"));
+    assertEquals(4, store.ordinalOf("E"));
+    assertEquals("E", store.itemOf(4));
+    assertEquals(2, store.overrideCount());
+    assertEquals(1, store.additionCount());
+    assertEquals(20, this.national.priceOf(2));
+  }
+
+  @Test
+  public void shouldResolveThroughEachLayer() {
+    // Given
+    final LayeredSkuCatalog region = LayeredSkuCatalog.builder(this.national).add("A", 55, 3, 140, 25).add("E", 10, 0, 0, 0).build();
+
+    // When
+    final LayeredSkuCatalog store = LayeredSkuCatalog.builder(region).add("B", 35, 0, 0, 0).add("E", 12, 0, 0, 0).build();
+
+    // Then
+    assertEquals(55, store.priceOf(store.ordinalOf("A")));
+    assertEquals(25, store.priceDiscountOf(store.ordinalOf("A")));
+    assertEquals(35, store.priceOf(store.ordinalOf("B")));
+    assertEquals(0, store.promotionalQuantityOf(store.ordinalOf("B")));
+    assertEquals(12, store.priceOf(store.ordinalOf("E")));
+    assertEquals(10, region.priceOf(region.ordinalOf("E")));
+    assertEquals(0, store.additionCount());
+  }
+
+  @Test
+  public void shouldRejectTheSameSkuTwice() {
+    // Given
+    final LayeredSkuCatalog.Builder builder = LayeredSkuCatalog.builder(this.national).add("A", 60, 0, 0, 0).add("E", 10, 0, 0, 0);
+
+    // When // Then
+    assertThrows(IllegalArgumentException.class, () -> builder.add("A", 70, 0, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> builder.add("E", 70, 0, 0, 0));
+  }
+
+  @Test
+  public void shouldFlattenALargeOverlayIntoADenseCatalog() throws IOException {
+    // Given
+    final ArraySkuCatalog.Builder nationalBuilder = ArraySkuCatalog.builder();
+    final StringBuilder storePrices = new StringBuilder();
+    for (int index = 0; index < 1000; index++) {
+      nationalBuilder.add("SKU" + index, 100 + index, 0, 0, 0);
+      if (index % 4 == 0) {
+        storePrices.append("SKU").append(index).append(',').append(50 + index).append('\n');
+      }
+    }
+    final SkuCatalog national = nationalBuilder.build();
+    final LayeredSkuCatalog store = (LayeredSkuCatalog) CsvCatalogReader.read(new BufferedReader(new StringReader(storePrices.toString())), LayeredSkuCatalog.builder(national));
+
+    // When
+    final SkuCatalog compacted = store.compact();
+
+    // Then
+    assertTrue(compacted instanceof ArraySkuCatalog);
+    assertEquals(250, store.overrideCount());
+    for (int ordinal = 0; ordinal < national.size(); ordinal++) {
+      assertEquals(store.itemOf(ordinal), compacted.itemOf(ordinal));
+      assertEquals(ordinal % 4 == 0 ? 50 + ordinal : 100 + ordinal, compacted.priceOf(ordinal));
+      assertEquals(store.priceOf(ordinal), compacted.priceOf(ordinal));
+    }
+    final LayeredSkuCatalog smallStore = LayeredSkuCatalog.builder(national).add("SKU1", 1, 0, 0, 0).build();
+    assertSame(smallStore, smallStore.compact());
+  }
+}
@@ -0,0 +1,126 @@
+package shopping.cart.kata.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import shopping.cart.kata.io.AsciiSequence;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MappedSkuCatalogTests {
+
+  @Test
+  public void shouldReadTheCatalogItWasSavedFrom() throws IOException {
+    // Given
+    final SkuCatalog catalog = ArraySkuCatalog.builder()
+        .add("A", 50, 3, 130, 20)
+        .add("B", 30, 2, 45, 15)
+        .add("CAFÉ", 20, 0, 0, 0)
+        .build();
+    final Path file = this.file();
+
+    // When
+    BinaryCatalogWriter.write(catalog, file);
+    final MappedSkuCatalog mappedCatalog = MappedSkuCatalog.open(file);
+
+    // Then
+    assertEquals(catalog.size(), mappedCatalog.size());
+    for (int ordinal = 0; ordinal < catalog.size(); ordinal++) {
+      final String item = catalog.itemOf(ordinal);
+      assertEquals(item, mappedCatalog.itemOf(ordinal));
+      assertEquals(ordinal, mappedCatalog.ordinalOf(item));
+      assertEquals(catalog.priceOf(ordinal), mappedCatalog.priceOf(ordinal));
+      assertEquals(catalog.promotionalQuantityOf(ordinal), mappedCatalog.promotionalQuantityOf(ordinal));
+      assertEquals(catalog.promotionalPriceOf(ordinal), mappedCatalog.promotionalPriceOf(ordinal));
+      assertEquals(catalog.priceDiscountOf(ordinal), mappedCatalog.priceDiscountOf(ordinal));
+    }
+    assertEquals(SkuCatalog.NOT_FOUND, mappedCatalog.ordinalOf("Z"));
+    assertEquals(SkuCatalog.NOT_FOUND, mappedCatalog.ordinalOf("AB"));
+  }
+
+  @Test
+  public void shouldLookUpLargeCatalogsFromTheScannedBytes() {
+    // Given
+    final ArraySkuCatalog.Builder builder = ArraySkuCatalog.builder();
+    for (int index = 0; index < 10_000; index++) {
+      builder.add("SKU" + index, index + 1, 0, 0, 0);
+    }
+    final MappedSkuCatalog catalog = new MappedSkuCatalog(BinaryCatalogWriter.encode(builder.build()));
+    final AsciiSequence line = new AsciiSequence();
+
+    // When // Then
+    for (int index = 0; index < 10_000; index++) {
+      final ByteBuffer scanned = ByteBuffer.wrap(("sku" + index).getBytes(StandardCharsets.US_ASCII));
+      final int ordinal = catalog.ordinalOf(line.wrap(scanned, 0, scanned.limit()));
+      assertEquals(index, ordinal);
+      assertEquals(index + 1, catalog.priceOf(ordinal));
+    }
+  }
+
+  @Test
+  public void shouldSaveAnEmptyCatalog() throws IOException {
+    // Given
+    final Path file = this.file();
+
+    // When
+    BinaryCatalogWriter.write(ArraySkuCatalog.builder().build(), file);
+
+    // Then
+    final MappedSkuCatalog catalog = MappedSkuCatalog.open(file);
+    assertEquals(0, catalog.size());
+    assertEquals(SkuCatalog.NOT_FOUND, catalog.ordinalOf("A"));
+  }
+
+  @Test
+  public void shouldRejectAFileWhichIsNotACatalog() throws IOException {
+    // Given
+    final Path file = this.file();
+    Files.write(file, "A,50\nB,30\n".getBytes(StandardCharsets.US_ASCII));
+
+    // When // Then
+    assertThrows(IOException.class, () -> MappedSkuCatalog.open(file));
+  }
+
+  @Test
+  public void shouldRejectATruncatedCatalog() throws IOException {
+    // Given
+    final Path file = this.file();
+    BinaryCatalogWriter.write(ArraySkuCatalog.builder().add("A", 50, 0, 0, 0).build(), file);
+    final byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+    // When // Then
+    assertThrows(IOException.class, () -> MappedSkuCatalog.open(file));
+  }
+
+  @Test
+  public void shouldChooseTheReaderByFileExtension() throws IOException {
+    // Given
+    final Path csv = Files.createTempFile("catalog", ".csv");
+    csv.toFile().deleteOnExit();
+    Files.write(csv, "a,50,3,130\n".getBytes(StandardCharsets.US_ASCII));
+    final Path binary = this.file();
+
+    // When
+    BinaryCatalogWriter.write(SkuCatalog.read(csv), binary);
+    final SkuCatalog catalog = SkuCatalog.read(binary);
+
+    // Then
+    assertEquals(MappedSkuCatalog.class, catalog.getClass());
+    assertEquals(20, catalog.priceDiscountOf(catalog.ordinalOf("A")));
+  }
+
+  private Path file() throws IOException {
+    final Path file = Files.createTempFile("catalog", ".bin");
+    file.toFile().deleteOnExit();
+    return file;
+  }
+}
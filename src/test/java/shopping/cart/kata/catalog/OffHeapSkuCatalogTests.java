@@ -0,0 +1,100 @@
+package shopping.cart.kata.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import shopping.cart.kata.io.AsciiSequence;
+import shopping.cart.kata.services.CartService;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class OffHeapSkuCatalogTests {
+
+  @Test
+  public void shouldHoldTheSameSkusAsTheCatalogItWasCopiedFrom() {
+    // Given
+    final SkuCatalog catalog = ArraySkuCatalog.builder()
+        .add("A", 50, 3, 130, 20)
+        .add("B", 30, 2, 45, 15)
+        .add("CAFÉ", 20, 0, 0, 0)
+        .build();
+
+    // When
+    final OffHeapSkuCatalog offHeapCatalog = OffHeapSkuCatalog.copyOf(catalog);
+
+    // Then
+    assertEquals(catalog.size(), offHeapCatalog.size());
+    for (int ordinal = 0; ordinal < catalog.size(); ordinal++) {
+      final String item = catalog.itemOf(ordinal);
+      assertEquals(item, offHeapCatalog.itemOf(ordinal));
+      assertEquals(ordinal, offHeapCatalog.ordinalOf(item));
+      assertEquals(catalog.priceOf(ordinal), offHeapCatalog.priceOf(ordinal));
+      assertEquals(catalog.promotionalQuantityOf(ordinal), offHeapCatalog.promotionalQuantityOf(ordinal));
+      assertEquals(catalog.promotionalPriceOf(ordinal), offHeapCatalog.promotionalPriceOf(ordinal));
+      assertEquals(catalog.priceDiscountOf(ordinal), offHeapCatalog.priceDiscountOf(ordinal));
+    }
+    assertEquals(SkuCatalog.NOT_FOUND, offHeapCatalog.ordinalOf("Z"));
+    assertEquals(SkuCatalog.NOT_FOUND, offHeapCatalog.ordinalOf("AB"));
+    assertEquals(SkuCatalog.NOT_FOUND, offHeapCatalog.ordinalOf("CAFE"));
+  }
+
+  @Test
+  public void shouldGrowBeyondTheExpectedNumberOfSkus() {
+    // Given
+    final OffHeapSkuCatalog.Builder builder = OffHeapSkuCatalog.builder(4);
+
+    // When
+    for (int index = 0; index < 50_000; index++) {
+      builder.add("SKU" + index, index + 1, 0, 0, 0);
+    }
+    final OffHeapSkuCatalog catalog = builder.build();
+
+    // Then
+    final AsciiSequence line = new AsciiSequence();
+    for (int index = 0; index < 50_000; index++) {
+      final ByteBuffer scanned = ByteBuffer.wrap(("sku" + index).getBytes(StandardCharsets.US_ASCII));
+      final int ordinal = catalog.ordinalOf(line.wrap(scanned, 0, scanned.limit()));
+      assertEquals(index, ordinal);
+      assertEquals(index + 1, catalog.priceOf(ordinal));
+    }
+    // Records, IDs and a hash index which is at most a quarter full
+    assertTrue(catalog.offHeapSize() < 50_000L * (OffHeapSkuCatalog.RECORD_SIZE + 16 + 16) * 2);
+  }
+
+  @Test
+  public void shouldRejectDuplicateIds() {
+    // Given
+    final OffHeapSkuCatalog.Builder builder = OffHeapSkuCatalog.builder().add("A", 50, 0, 0, 0);
+
+    // When // Then
+    assertThrows(IllegalArgumentException.class, () -> builder.add("A", 60, 0, 0, 0));
+    builder.build();
+    assertThrows(IllegalStateException.class, () -> builder.add("B", 60, 0, 0, 0));
+  }
+
+  @Test
+  public void shouldReadACsvCatalogStraightOffTheHeap() throws IOException {
+    // Given
+    final BufferedReader reader = new BufferedReader(new StringReader("A,50,3,130\nB,30,2,45\nC,20\n"));
+
+    // When
+    final SkuCatalog catalog = CsvCatalogReader.read(reader, OffHeapSkuCatalog.builder());
+    final CartService cartService = new CartService(catalog);
+    cartService.addItem("A", 3);
+    cartService.addItem("B", 2);
+    cartService.addItem("C");
+
+    // Then
+    assertTrue(catalog instanceof OffHeapSkuCatalog);
+    assertEquals(230, cartService.getRunningTotal());
+    assertEquals(35, cartService.getTotalDiscount());
+  }
+}
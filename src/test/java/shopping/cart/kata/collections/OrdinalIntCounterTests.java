@@ -0,0 +1,62 @@
+package shopping.cart.kata.collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import shopping.cart.kata.catalog.ArraySkuCatalog;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class OrdinalIntCounterTests {
+  private final OrdinalIndex index = ArraySkuCatalog.builder()
+      .add("A", 50, 0, 0, 0)
+      .add("B", 30, 0, 0, 0)
+      .add("C", 20, 0, 0, 0)
+      .build();
+
+  @Test
+  public void shouldIncrementTheQuantityOfAnOrdinal() {
+    // Given
+    final OrdinalIntCounter counter = new OrdinalIntCounter(this.index);
+
+    // When
+    counter.increment(1);
+    final int quantity = counter.increment(1);
+
+    // Then
+    assertEquals(2, quantity);
+    assertEquals(2, counter.quantityOf(1));
+    assertEquals(2, counter.quantityOf("B"));
+    assertEquals(0, counter.quantityOf(0));
+    assertEquals(0, counter.quantityOf("Z"));
+    assertEquals(1, counter.size());
+  }
+
+  @Test
+  public void shouldIterateOrdinalsInTheOrderTheyWereFirstCounted() {
+    // Given
+    final OrdinalIntCounter counter = new OrdinalIntCounter(this.index);
+
+    // When
+    counter.increment(2);
+    counter.increment(0);
+    counter.increment(2);
+
+    // Then
+    assertEquals(2, counter.size());
+    assertEquals(2, counter.ordinalAt(0));
+    assertEquals(0, counter.ordinalAt(1));
+    assertEquals(0, counter.positionOf(2));
+    assertEquals(1, counter.positionOf(0));
+    assertEquals(OrdinalIndex.NOT_FOUND, counter.positionOf(1));
+
+    final Map<String, Integer> view = counter.asMap();
+    assertEquals(List.of("C", "A"), new ArrayList<>(view.keySet()));
+    assertEquals(2, view.get("C"));
+    assertEquals(1, view.get("A"));
+  }
+}
@@ -0,0 +1,59 @@
+package shopping.cart.kata.collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import shopping.cart.kata.catalog.ArraySkuCatalog;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class SparseOrdinalIntCounterTests {
+  private static final int CATALOG_SIZE = OrdinalCounter.DENSE_ORDINAL_LIMIT * 4;
+
+  private final OrdinalIndex index = this.catalog();
+
+  @Test
+  public void shouldBeChosenForLargeIndexes() {
+    // When
+    final OrdinalCounter counter = OrdinalCounter.forIndex(this.index);
+
+    // Then
+    assertTrue(counter instanceof SparseOrdinalIntCounter);
+  }
+
+  @Test
+  public void shouldCountOrdinalsInTheOrderTheyWereFirstCountedWhenGrowing() {
+    // Given
+    final SparseOrdinalIntCounter counter = new SparseOrdinalIntCounter(this.index);
+
+    // When
+    for (int ordinal = CATALOG_SIZE - 1; ordinal >= 0; ordinal -= 7) {
+      counter.increment(ordinal);
+      counter.increment(ordinal);
+    }
+
+    // Then
+    int position = 0;
+    for (int ordinal = CATALOG_SIZE - 1; ordinal >= 0; ordinal -= 7) {
+      assertEquals(ordinal, counter.ordinalAt(position));
+      assertEquals(2, counter.quantityAt(position));
+      assertEquals(2, counter.quantityOf(ordinal));
+      assertEquals(position, counter.positionOf(ordinal));
+      assertEquals("SKU" + ordinal, counter.itemAt(position));
+      position++;
+    }
+    assertEquals(position, counter.size());
+    assertEquals(0, counter.quantityOf(CATALOG_SIZE - 2));
+    assertEquals(OrdinalIndex.NOT_FOUND, counter.positionOf(CATALOG_SIZE - 2));
+    assertEquals(2, counter.quantityOf("SKU" + (CATALOG_SIZE - 1)));
+  }
+
+  private OrdinalIndex catalog() {
+    final ArraySkuCatalog.Builder builder = ArraySkuCatalog.builder(CATALOG_SIZE);
+    for (int ordinal = 0; ordinal < CATALOG_SIZE; ordinal++) {
+      builder.add("SKU" + ordinal, 10, 0, 0, 0);
+    }
+    return builder.build();
+  }
+}
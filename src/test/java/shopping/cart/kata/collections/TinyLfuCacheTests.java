@@ -0,0 +1,145 @@
+package shopping.cart.kata.collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TinyLfuCacheTests {
+  private static final long ONE_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+  @Test
+  public void shouldReturnTheCachedValue() {
+    // Given
+    final TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(10, ONE_MINUTE);
+
+    // When
+    cache.put("A", 1);
+    cache.put("A", 2);
+
+    // Then
+    assertEquals(2, cache.get("A"));
+    assertNull(cache.get("B"));
+    assertEquals(1, cache.size());
+    assertEquals(1, cache.hitCount());
+    assertEquals(1, cache.missCount());
+  }
+
+  @Test
+  public void shouldExpireEntriesAfterTheirTimeToLive() {
+    // Given
+    final AtomicLong time = new AtomicLong();
+    final TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(10, ONE_MINUTE, time::get);
+    cache.put("A", 1);
+
+    // When
+    time.addAndGet(ONE_MINUTE - 1);
+    final Integer beforeExpiry = cache.get("A");
+    time.addAndGet(1);
+
+    // Then
+    assertEquals(1, beforeExpiry);
+    assertNull(cache.get("A"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void shouldDropExpiredEntriesWhenNewEntriesArePut() {
+    // Given
+    final AtomicLong time = new AtomicLong();
+    final TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100, ONE_MINUTE, time::get);
+    for (int key = 0; key < 100; key++) {
+      cache.put(key, key);
+      cache.get(key);
+    }
+
+    // When
+    time.addAndGet(ONE_MINUTE);
+    cache.put(100, 100);
+    cache.put(101, 101);
+
+    // Then
+    assertEquals(2, cache.size());
+    assertEquals(100, cache.get(100));
+    assertEquals(101, cache.get(101));
+  }
+
+  @Test
+  public void shouldCountAnExpiredEntryBehindALiveOneUntilItIsRequested() {
+    // Given
+    final AtomicLong time = new AtomicLong();
+    final TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(10, ONE_MINUTE, time::get);
+    cache.put("A", 1);
+    time.addAndGet(ONE_MINUTE / 2);
+    cache.put("B", 2);
+    cache.put("C", 3);
+    cache.get("B");
+    cache.get("A");
+
+    // When
+    time.addAndGet(ONE_MINUTE / 2);
+    cache.put("D", 4);
+
+    // Then
+    assertEquals(4, cache.size());
+    assertNull(cache.get("A"));
+    assertEquals(3, cache.size());
+  }
+
+  @Test
+  public void shouldKeepFrequentlyRequestedKeysThroughAScanOfOneOffKeys() {
+    // Given
+    final TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100, ONE_MINUTE);
+    for (int key = 0; key < 90; key++) {
+      this.getOrPut(cache, key);
+    }
+    for (int round = 0; round < 4; round++) {
+      for (int key = 0; key < 90; key++) {
+        this.getOrPut(cache, key);
+      }
+    }
+
+    // When
+    for (int key = 1000; key < 3000; key++) {
+      this.getOrPut(cache, key);
+    }
+
+    // Then
+    int kept = 0;
+    for (int key = 0; key < 90; key++) {
+      kept += cache.get(key) != null ? 1 : 0;
+    }
+    assertTrue(kept >= 85, "kept " + kept);
+    assertTrue(cache.size() <= 100);
+  }
+
+  @Test
+  public void shouldNeverHoldMoreThanTheMaximumSize() {
+    // Given
+    final TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(1, ONE_MINUTE);
+
+    // When
+    for (int key = 0; key < 100; key++) {
+      this.getOrPut(cache, key % 7);
+    }
+
+    // Then
+    assertEquals(1, cache.size());
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertThrows(IllegalArgumentException.class, () -> new TinyLfuCache<>(0, ONE_MINUTE));
+  }
+
+  private void getOrPut(TinyLfuCache<Integer, Integer> cache, int key) {
+    if (cache.get(key) == null) {
+      cache.put(key, key);
+    }
+  }
+}
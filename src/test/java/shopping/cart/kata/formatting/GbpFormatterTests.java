@@ -0,0 +1,58 @@
+package shopping.cart.kata.formatting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class GbpFormatterTests {
+
+  @Test
+  public void shouldFormatAmountsInPence() {
+    // When
+    // Then
+    assertEquals("£0.00", GbpFormatter.format(0));
+    assertEquals("£0.05", GbpFormatter.format(5));
+    assertEquals("£0.50", GbpFormatter.format(50));
+    assertEquals("£2.45", GbpFormatter.format(245));
+    assertEquals("£1,000.00", GbpFormatter.format(100_000));
+    assertEquals("£1,234,567.89", GbpFormatter.format(123_456_789));
+    assertEquals("-£0.35", GbpFormatter.format(-35));
+    assertEquals("-£21,474,836.48", GbpFormatter.format(Integer.MIN_VALUE));
+    assertEquals("£92,233,720,368,547,758.07", GbpFormatter.format(Long.MAX_VALUE));
+    assertEquals("-£92,233,720,368,547,758.08", GbpFormatter.format(Long.MIN_VALUE));
+  }
+
+  @Test
+  public void shouldMatchTheGbCurrencyFormat() {
+    // Given
+    final NumberFormat numberFormat = NumberFormat.getCurrencyInstance(new Locale.Builder().setLanguage("en").setRegion("GB").build());
+    final SplittableRandom random = new SplittableRandom(11);
+
+    // When
+    // Then
+    for (int sample = 0; sample < 10_000; sample++) {
+      final int amountInPence = sample < 2_000 ? sample - 1_000 : random.nextInt();
+      assertEquals(numberFormat.format((double) amountInPence / 100), GbpFormatter.format(amountInPence));
+    }
+  }
+
+  @Test
+  public void shouldWriteTheAmountAsUtf8() {
+    // Given
+    final byte[] buffer = new byte[4 + GbpFormatter.MAX_UTF_8_LENGTH];
+
+    // When
+    final int end = GbpFormatter.writeTo(buffer, 4, -123_456_789);
+
+    // Then
+    assertEquals("-£1,234,567.89", new String(buffer, 4, end - 4, StandardCharsets.UTF_8));
+    assertEquals(GbpFormatter.MAX_UTF_8_LENGTH, GbpFormatter.writeTo(buffer, 0, Long.MIN_VALUE));
+  }
+}
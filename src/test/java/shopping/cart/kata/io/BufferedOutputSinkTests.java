@@ -0,0 +1,80 @@
+package shopping.cart.kata.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BufferedOutputSinkTests {
+
+  @Test
+  public void shouldOnlyWriteToTheStreamWhenFlushed() {
+    // Given
+    final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    final OutputSink sink = new BufferedOutputSink(stream, StandardCharsets.UTF_8);
+    final byte[] prompt = sink.encode("Please scan your next item");
+
+    // When
+    sink.write(prompt).newLine().write("Running total -- ").writeAmount(245).newLine();
+
+    // Then
+    assertEquals(0, stream.size());
+    sink.flush();
+    assertEquals("Please scan your next item" + System.lineSeparator() + "Running total -- £2.45" + System.lineSeparator(), stream.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void shouldWriteNumbers() {
+    // Given
+    final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    final OutputSink sink = new BufferedOutputSink(stream, StandardCharsets.UTF_8);
+
+    // When
+    sink.write(0).write(" ").write(3).write(" ").write(-42).write(" ").write(Long.MAX_VALUE).write(" ").write(Long.MIN_VALUE);
+    sink.flush();
+
+    // Then
+    assertEquals("0 3 -42 9223372036854775807 -9223372036854775808", stream.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void shouldWriteAmountsInOtherCharacterSets() {
+    // Given
+    final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    final OutputSink sink = new BufferedOutputSink(stream, StandardCharsets.ISO_8859_1);
+
+    // When
+    sink.writeAmount(-123_456);
+    sink.flush();
+
+    // Then
+    assertEquals("-£1,234.56", stream.toString(StandardCharsets.ISO_8859_1));
+  }
+
+  @Test
+  public void shouldWriteMoreThanTheBufferToAChannel() throws IOException {
+    // Given
+    final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    final OutputSink sink = new BufferedOutputSink(Channels.newChannel(stream));
+    final StringBuilder expected = new StringBuilder();
+    final String line = "x".repeat(1000);
+
+    // When
+    for (int index = 0; index < 100; index++) {
+      sink.write(line).write(index);
+      expected.append(line).append(index);
+    }
+    sink.write(expected.toString());
+    expected.append(expected);
+    sink.flush();
+
+    // Then
+    assertEquals(expected.toString(), stream.toString(StandardCharsets.UTF_8));
+  }
+}
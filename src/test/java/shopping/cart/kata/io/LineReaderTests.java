@@ -0,0 +1,103 @@
+package shopping.cart.kata.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class LineReaderTests {
+
+  @Test
+  public void shouldReadLinesWithEitherLineEnding() throws IOException {
+    // Given
+    final LineReader reader = this.readerOf("a\r\nbc\n\nd");
+
+    // When // Then
+    assertTrue(reader.readLine());
+    assertEquals("A", reader.line().toString());
+    assertTrue(reader.readLine());
+    assertEquals("BC", reader.line().toString());
+    assertTrue(reader.readLine());
+    assertEquals(0, reader.length());
+    assertTrue(reader.readLine());
+    assertEquals("D", reader.line().toString());
+    assertFalse(reader.readLine());
+  }
+
+  @Test
+  public void shouldReportWhetherTheNextLineHasBeenBuffered() throws IOException {
+    // Given
+    final LineReader reader = this.readerOf("a\nb\nc");
+
+    // When // Then
+    assertFalse(reader.hasBufferedLine());
+    assertTrue(reader.readLine());
+    assertTrue(reader.hasBufferedLine());
+    assertTrue(reader.readLine());
+    assertEquals("B", reader.line().toString());
+    assertFalse(reader.hasBufferedLine());
+  }
+
+  @Test
+  public void shouldReadLinesLongerThanTheBuffer() throws IOException {
+    // Given
+    final String longLine = "x".repeat(20_000);
+    final LineReader reader = this.readerOf(longLine + "\n" + longLine);
+
+    // When // Then
+    assertTrue(reader.readLine());
+    assertEquals(longLine, reader.lineAsString());
+    assertTrue(reader.readLine());
+    assertEquals(longLine, reader.lineAsString());
+    assertFalse(reader.readLine());
+  }
+
+  @Test
+  public void shouldParseTheFirstTokenAsAnInt() throws IOException {
+    // Given
+    final LineReader reader = this.readerOf("42\n  -7 apples\n+3\n2147483647\n-2147483648");
+
+    // When // Then
+    final long[] expected = new long[]{42, -7, 3, Integer.MAX_VALUE, Integer.MIN_VALUE};
+    for (long value : expected) {
+      assertTrue(reader.readLine());
+      assertEquals(value, reader.parseInt());
+    }
+  }
+
+  @Test
+  public void shouldNotParseInvalidInts() throws IOException {
+    // Given
+    final LineReader reader = this.readerOf("abc\n12a\n-\n\n2147483648\n99999999999999999999");
+
+    // When // Then
+    for (int line = 0; line < 6; line++) {
+      assertTrue(reader.readLine());
+      assertEquals(LineReader.NOT_A_NUMBER, reader.parseInt());
+    }
+  }
+
+  @Test
+  public void shouldDecodeNonAsciiLinesInTheCharsetOfTheInput() throws IOException {
+    // Given
+    final LineReader reader = this.readerOf("café\n \t");
+
+    // When // Then
+    assertTrue(reader.readLine());
+    assertFalse(reader.isAscii());
+    assertEquals("café", reader.lineAsString());
+    assertTrue(reader.readLine());
+    assertTrue(reader.isBlank());
+  }
+
+  private LineReader readerOf(String input) {
+    return new LineReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,72 @@
+package shopping.cart.kata.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MappedLineReaderTests {
+
+  @Test
+  public void shouldReadEachLineInUppercase() throws IOException {
+    // Given
+    final Path file = this.file("a\nBc\r\n\nd");
+
+    // When
+    final List<String> lines = this.readLines(file, 1024);
+
+    // Then
+    assertEquals(List.of("A", "BC", "", "D"), lines);
+  }
+
+  @Test
+  public void shouldReadLinesWhichSpanMappedWindows() throws IOException {
+    // Given
+    final StringBuilder content = new StringBuilder();
+    final List<String> expectedLines = new ArrayList<>();
+    for (int index = 0; index < 500; index++) {
+      final String line = "SKU" + index;
+      content.append(line).append('\n');
+      expectedLines.add(line);
+    }
+    final Path file = this.file(content.toString());
+
+    // When
+    final List<String> lines = this.readLines(file, 16);
+
+    // Then
+    assertEquals(expectedLines, lines);
+  }
+
+  @Test
+  public void shouldRejectALineLongerThanTheWindow() throws IOException {
+    // Given
+    final Path file = this.file("ABCDEFGHIJKLMNOPQRSTUVWXYZ\nA\n");
+
+    // When
+    // Then
+    assertThrows(IOException.class, () -> this.readLines(file, 8));
+  }
+
+  private List<String> readLines(Path file, long windowSize) throws IOException {
+    final List<String> lines = new ArrayList<>();
+    MappedLineReader.forEachLine(file, windowSize, line -> lines.add(line.toString()));
+    return lines;
+  }
+
+  private Path file(String content) throws IOException {
+    final Path file = Files.createTempFile("mapped-line-reader", ".txt");
+    file.toFile().deleteOnExit();
+    Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+    return file;
+  }
+}
@@ -0,0 +1,55 @@
+package shopping.cart.kata.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class CartSnapshotTests {
+
+  @Test
+  public void shouldRoundTripASnapshot() throws IOException {
+    // Given
+    final Path file = this.file();
+    final CartSnapshot snapshot = new CartSnapshot(7, new int[]{2, 0}, new int[]{3, 1}, new long[]{150, 20}, new long[]{20, 0});
+
+    // When
+    snapshot.writeTo(file);
+    final CartSnapshot read = CartSnapshot.readFrom(file);
+
+    // Then
+    assertEquals(7, read.getJournalPosition());
+    assertEquals(2, read.size());
+    assertEquals(2, read.ordinalAt(0));
+    assertEquals(3, read.quantityAt(0));
+    assertEquals(150, read.grossAt(0));
+    assertEquals(20, read.discountAt(0));
+    assertEquals(0, read.ordinalAt(1));
+    assertEquals(20, read.grossAt(1));
+  }
+
+  @Test
+  public void shouldRejectATruncatedSnapshot() throws IOException {
+    // Given
+    final Path file = this.file();
+    new CartSnapshot(1, new int[]{0}, new int[]{1}, new long[]{50}, new long[]{0}).writeTo(file);
+    final byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+
+    // When // Then
+    assertThrows(IOException.class, () -> CartSnapshot.readFrom(file));
+  }
+
+  private Path file() throws IOException {
+    final Path file = Files.createTempFile("cart-snapshot", ".bin");
+    file.toFile().deleteOnExit();
+    return file;
+  }
+}
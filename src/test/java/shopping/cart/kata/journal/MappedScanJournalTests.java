@@ -0,0 +1,151 @@
+package shopping.cart.kata.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MappedScanJournalTests {
+  private static final long CATALOG_FINGERPRINT = 0x5EEDL;
+
+  @Test
+  public void shouldReplayTheScansInTheOrderTheyWereRecorded() throws IOException {
+    // Given
+    final Path file = this.file();
+    final long startTime = System.currentTimeMillis();
+    final List<String> events = new ArrayList<>();
+
+    // When
+    try (MappedScanJournal journal = MappedScanJournal.open(file, 8, CATALOG_FINGERPRINT)) {
+      journal.append(2, 1, 50);
+      journal.append(0, 3, 20);
+      journal.replay((ordinal, quantity, price, timestampMillis) -> {
+        assertTrue(timestampMillis >= startTime);
+        events.add(String.format("%d x %d @ %d", quantity, ordinal, price));
+      });
+    }
+
+    // Then
+    assertEquals(List.of("1 x 2 @ 50", "3 x 0 @ 20"), events);
+    assertEquals(16 + 8 * 20, Files.size(file));
+  }
+
+  @Test
+  public void shouldCarryOnAppendingWhenReopened() throws IOException {
+    // Given
+    final Path file = this.file();
+    try (MappedScanJournal journal = MappedScanJournal.open(file, 8, CATALOG_FINGERPRINT)) {
+      journal.append(1, 1, 30);
+    }
+
+    // When
+    final List<Integer> ordinals = new ArrayList<>();
+    try (MappedScanJournal journal = MappedScanJournal.open(file, 1024, CATALOG_FINGERPRINT)) {
+      journal.append(3, 1, 15);
+
+      // Then
+      assertEquals(2, journal.size());
+      assertEquals(8, journal.capacity());
+      journal.replay(1, (ordinal, quantity, price, timestampMillis) -> ordinals.add(ordinal));
+    }
+    assertEquals(List.of(3), ordinals);
+  }
+
+  @Test
+  public void shouldIgnoreARecordTornByACrash() throws IOException {
+    // Given
+    final Path file = this.file();
+    try (MappedScanJournal journal = MappedScanJournal.open(file, 8, CATALOG_FINGERPRINT)) {
+      journal.append(1, 1, 30);
+      journal.append(2, 1, 40);
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      // Clear the quantity of the second record, which is written last
+      channel.write(ByteBuffer.allocate(4), 16 + 20 + 16);
+    }
+
+    // When
+    try (MappedScanJournal journal = MappedScanJournal.open(file, 8, CATALOG_FINGERPRINT)) {
+      // Then
+      assertEquals(1, journal.size());
+    }
+  }
+
+  @Test
+  public void shouldStartAgainOnceReset() throws IOException {
+    // Given
+    final Path file = this.file();
+    try (MappedScanJournal journal = MappedScanJournal.open(file, 8, CATALOG_FINGERPRINT)) {
+      journal.append(1, 1, 30);
+      journal.append(2, 1, 40);
+
+      // When
+      journal.reset(CATALOG_FINGERPRINT + 1);
+      journal.append(3, 1, 15);
+
+      // Then
+      assertEquals(1, journal.size());
+      assertEquals(CATALOG_FINGERPRINT + 1, journal.getCatalogFingerprint());
+    }
+    try (MappedScanJournal journal = MappedScanJournal.open(file, 8, CATALOG_FINGERPRINT)) {
+      final List<Integer> ordinals = new ArrayList<>();
+      journal.replay((ordinal, quantity, price, timestampMillis) -> ordinals.add(ordinal));
+      assertEquals(List.of(3), ordinals);
+      assertEquals(CATALOG_FINGERPRINT + 1, journal.getCatalogFingerprint());
+    }
+  }
+
+  @Test
+  public void shouldTakeTheCatalogFingerprintWhenReopenedWithoutScans() throws IOException {
+    // Given
+    final Path file = this.file();
+    try (MappedScanJournal journal = MappedScanJournal.open(file, 8, CATALOG_FINGERPRINT)) {
+      assertEquals(CATALOG_FINGERPRINT, journal.getCatalogFingerprint());
+    }
+
+    // When
+    try (MappedScanJournal journal = MappedScanJournal.open(file, 8, CATALOG_FINGERPRINT + 1)) {
+      // Then
+      assertEquals(CATALOG_FINGERPRINT + 1, journal.getCatalogFingerprint());
+    }
+  }
+
+  @Test
+  public void shouldRejectScansOnceFull() throws IOException {
+    // Given
+    try (MappedScanJournal journal = MappedScanJournal.open(this.file(), 1, CATALOG_FINGERPRINT)) {
+      journal.append(0, 1, 10);
+
+      // When // Then
+      assertThrows(IllegalStateException.class, () -> journal.append(0, 1, 10));
+    }
+  }
+
+  @Test
+  public void shouldRejectAFileWhichIsNotAJournal() throws IOException {
+    // Given
+    final Path file = this.file();
+    Files.write(file, "A,50\nB,30\n".getBytes());
+
+    // When // Then
+    assertThrows(IOException.class, () -> MappedScanJournal.open(file, 8, CATALOG_FINGERPRINT));
+  }
+
+  private Path file() throws IOException {
+    final Path file = Files.createTempFile("scan-journal", ".bin");
+    file.toFile().deleteOnExit();
+    return file;
+  }
+}
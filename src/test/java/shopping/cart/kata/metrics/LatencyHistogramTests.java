@@ -0,0 +1,65 @@
+package shopping.cart.kata.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class LatencyHistogramTests {
+
+  @Test
+  public void shouldRecordSmallValuesExactly() {
+    // Given
+    final LatencyHistogram histogram = new LatencyHistogram();
+
+    // When
+    for (int value = 1; value <= 50; value++) {
+      histogram.record(value);
+    }
+
+    // Then
+    assertEquals(50, histogram.getCount());
+    assertEquals(25, histogram.getValueAtPercentile(50));
+    assertEquals(50, histogram.getValueAtPercentile(100));
+    assertEquals(50, histogram.getMax());
+  }
+
+  @Test
+  public void shouldRecordLargeValuesWithinThePrecisionOfTheBuckets() {
+    // Given
+    final LatencyHistogram histogram = new LatencyHistogram();
+
+    // When
+    for (int value = 1; value <= 100_000; value++) {
+      histogram.record(value * 1000L);
+    }
+
+    // Then
+    final long p50 = histogram.getValueAtPercentile(50);
+    final long p99 = histogram.getValueAtPercentile(99);
+    assertTrue(Math.abs(p50 - 50_000_000L) <= 50_000_000L * 0.04, "p50 was " + p50);
+    assertTrue(Math.abs(p99 - 99_000_000L) <= 99_000_000L * 0.04, "p99 was " + p99);
+    assertEquals(100_000_000L, histogram.getMax());
+  }
+
+  @Test
+  public void shouldPlaceEveryValueInABucketWhichContainsIt() {
+    // When
+    // Then
+    for (long value = 1; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+      final int index = LatencyHistogram.indexOf(value);
+      assertTrue(LatencyHistogram.highestValueOf(index) >= value);
+      assertTrue(index == 0 || LatencyHistogram.highestValueOf(index - 1) < value);
+    }
+    assertTrue(LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(Long.MAX_VALUE)) == Long.MAX_VALUE);
+  }
+
+  @Test
+  public void shouldReportZeroWhenNothingHasBeenRecorded() {
+    // When
+    // Then
+    assertEquals(0, new LatencyHistogram().getValueAtPercentile(99));
+  }
+}
@@ -0,0 +1,90 @@
+package shopping.cart.kata.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import shopping.cart.kata.catalog.ArraySkuCatalog;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.services.CartService;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class RecordingCheckoutMetricsTests {
+  private final SkuCatalog catalog = ArraySkuCatalog.builder()
+      .add("A", 50, 3, 130, 20)
+      .add("B", 30, 2, 45, 15)
+      .build();
+
+  @Test
+  public void shouldRecordScansFromACart() {
+    // Given
+    final RecordingCheckoutMetrics metrics = new RecordingCheckoutMetrics();
+    final CartService cartService = new CartService(this.catalog, metrics);
+
+    // When
+    cartService.scanItem("A");
+    cartService.scanItem("B");
+    cartService.scanItem("Z");
+    cartService.scanItem("A", 2);
+
+    // Then
+    assertEquals(4, metrics.getItemsScanned());
+    assertEquals(1, metrics.getUnknownItemsScanned());
+    assertEquals(0.2, metrics.getUnknownItemRate());
+    assertEquals(20, metrics.getTotalDiscount());
+    assertEquals(Map.of("A", 3L, "B", 1L), metrics.getScansPerSku());
+    assertEquals(4, metrics.getScanLatency().getCount());
+  }
+
+  @Test
+  public void shouldCountTheScansOfEachSkuAcrossCatalogs() {
+    // Given
+    final RecordingCheckoutMetrics metrics = new RecordingCheckoutMetrics();
+    final ArraySkuCatalog.Builder largeCatalog = ArraySkuCatalog.builder();
+    for (int sku = 0; sku < 5_000; sku++) {
+      largeCatalog.add("SKU" + sku, 10, 0, 0, 0);
+    }
+    final CartService largeCart = new CartService(largeCatalog.build(), metrics);
+
+    // When
+    largeCart.scanItem("SKU4999");
+    largeCart.scanItem("SKU0");
+    for (int version = 0; version < 6; version++) {
+      new CartService(ArraySkuCatalog.builder().add("A", 50 + version, 0, 0, 0).build(), metrics).scanItem("A");
+    }
+    new CartService(this.catalog, metrics).scanItem("B", 2);
+
+    // Then
+    assertEquals(Map.of("SKU0", 1L, "SKU4999", 1L, "A", 6L, "B", 2L), metrics.getScansPerSku());
+  }
+
+  @Test
+  public void shouldExportTheMetricsThroughJmx() throws Exception {
+    // Given
+    final RecordingCheckoutMetrics metrics = new RecordingCheckoutMetrics();
+    final CartService cartService = new CartService(this.catalog, metrics);
+    cartService.scanItem("B");
+    cartService.scanItem("B");
+    final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName objectName = RecordingCheckoutMetrics.objectName("recording-checkout-metrics-tests");
+
+    // When
+    metrics.register("recording-checkout-metrics-tests");
+
+    // Then
+    try {
+      assertEquals(2L, mBeanServer.getAttribute(objectName, "ItemsScanned"));
+      assertEquals(15L, mBeanServer.getAttribute(objectName, "TotalDiscount"));
+      assertTrue((Long) mBeanServer.getAttribute(objectName, "ScanLatencyP99") >= 0);
+    } finally {
+      mBeanServer.unregisterMBean(objectName);
+    }
+  }
+}
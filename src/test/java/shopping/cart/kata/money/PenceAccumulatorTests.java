@@ -0,0 +1,85 @@
+package shopping.cart.kata.money;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PenceAccumulatorTests {
+  @Test
+  public void shouldAddPastTheRangeOfAnInt() {
+    // Given
+    final PenceAccumulator accumulator = new PenceAccumulator();
+
+    // When
+    for (int scan = 0; scan < 3; scan++) {
+      accumulator.add(Integer.MAX_VALUE);
+    }
+
+    // Then
+    assertEquals(3L * Integer.MAX_VALUE, accumulator.longValue());
+    assertTrue(accumulator.fitsInLong());
+  }
+
+  @Test
+  public void shouldWidenPastTheRangeOfALongAndNarrowBack() {
+    // Given
+    final PenceAccumulator accumulator = new PenceAccumulator().add(Long.MAX_VALUE);
+
+    // When
+    accumulator.add(Long.MAX_VALUE).add(2);
+
+    // Then
+    assertFalse(accumulator.fitsInLong());
+    assertEquals(BigInteger.valueOf(Long.MAX_VALUE).shiftLeft(1).add(BigInteger.TWO), accumulator.toBigInteger());
+    assertThrows(ArithmeticException.class, accumulator::longValue);
+
+    accumulator.add(Long.MIN_VALUE);
+    assertFalse(accumulator.fitsInLong());
+    accumulator.add(Long.MIN_VALUE);
+    assertTrue(accumulator.fitsInLong());
+    assertEquals(0, accumulator.longValue());
+  }
+
+  @Test
+  public void shouldDetectOverflowWhenAddingNegativeAmounts() {
+    // Given
+    final PenceAccumulator accumulator = new PenceAccumulator().add(Long.MIN_VALUE);
+
+    // When
+    accumulator.add(-1);
+
+    // Then
+    assertEquals(BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.ONE), accumulator.toBigInteger());
+    assertEquals(accumulator.toBigInteger().toString(), accumulator.toString());
+  }
+
+  @Test
+  public void shouldAddAnotherAccumulator() {
+    // Given
+    final PenceAccumulator wide = new PenceAccumulator().add(Long.MAX_VALUE).add(Long.MAX_VALUE);
+    final PenceAccumulator accumulator = new PenceAccumulator().add(5);
+
+    // When
+    accumulator.add(wide).add(new PenceAccumulator().add(-5));
+
+    // Then
+    assertEquals(wide.toBigInteger(), accumulator.toBigInteger());
+    accumulator.reset();
+    assertEquals(0, accumulator.longValue());
+  }
+
+  @Test
+  public void shouldPriceQuantitiesWithoutOverflowing() {
+    // When // Then
+    assertEquals(4_294_967_294L, PenceAccumulator.priceOf(Integer.MAX_VALUE, 2));
+    assertTrue(PenceAccumulator.fitsInInt(Integer.MAX_VALUE));
+    assertFalse(PenceAccumulator.fitsInInt(Integer.MAX_VALUE + 1L));
+  }
+}
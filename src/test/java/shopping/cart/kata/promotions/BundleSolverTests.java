@@ -0,0 +1,173 @@
+package shopping.cart.kata.promotions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import shopping.cart.kata.catalog.ArraySkuCatalog;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.collections.OrdinalIntCounter;
+import shopping.cart.kata.services.CartService;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BundleSolverTests {
+  private final SkuCatalog catalog = ArraySkuCatalog.builder()
+      .add("A", 50, 0, 0, 0)
+      .add("B", 40, 0, 0, 0)
+      .add("C", 30, 0, 0, 0)
+      .add("D", 60, 0, 0, 0)
+      .add("E", 20, 0, 0, 0)
+      .build();
+
+  @Test
+  public void shouldBundleTheMostExpensiveItems() {
+    // Given
+    final BundleSolver solver = BundleSolver.builder(this.catalog).deal(3, 100, "A", "B", "C").build();
+    final CartService cartService = new CartService(this.catalog, PromotionEngine.builder(this.catalog).add(solver).build());
+
+    // When
+    this.scan(cartService, "C", "C", "A", "B");
+
+    // Then
+    assertEquals(150, cartService.getRunningTotal());
+    assertEquals(50 + 40 + 30 - 100, cartService.getTotalDiscount());
+  }
+
+  @Test
+  public void shouldChooseBetweenOverlappingDeals() {
+    // Given
+    final BundleSolver solver = BundleSolver.builder(this.catalog)
+        .deal(2, 60, "A", "D")
+        .deal(2, 50, "A", "B")
+        .build();
+    final CartService cartService = new CartService(this.catalog, PromotionEngine.builder(this.catalog).add(solver).build());
+
+    // When
+    this.scan(cartService, "A", "D", "B");
+
+    // Then
+    // A can only count towards one deal, and bundling it with D saves 50 against 40 with B
+    assertEquals(50, cartService.getTotalDiscount());
+    this.scan(cartService, "B", "A");
+    assertEquals(50 + 40, cartService.getTotalDiscount());
+  }
+
+  @Test
+  public void shouldGiveUpABundleWhenRegroupingTheItemsSavesMore() {
+    // Given
+    final BundleSolver solver = BundleSolver.builder(this.catalog)
+        .deal(2, 70, "A", "D")
+        .deal(3, 100, "A", "B", "C")
+        .build();
+    final CartService cartService = new CartService(this.catalog, PromotionEngine.builder(this.catalog).add(solver).build());
+
+    // When
+    this.scan(cartService, "A", "B", "C");
+
+    // Then
+    assertEquals(20, cartService.getTotalDiscount());
+    // A is worth more with D, even though B and C are left out of any bundle
+    this.scan(cartService, "D");
+    assertEquals(40, cartService.getTotalDiscount());
+  }
+
+  @Test
+  public void shouldMatchEveryWayOfAssigningItemsToDeals() {
+    // Given
+    final SplittableRandom random = new SplittableRandom(19L);
+    for (int round = 0; round < 200; round++) {
+      final int deals = 1 + random.nextInt(3);
+      final int[][] eligible = new int[deals][];
+      final int[] sizes = new int[deals];
+      final int[] prices = new int[deals];
+      final BundleSolver.Builder builder = BundleSolver.builder(this.catalog);
+      for (int deal = 0; deal < deals; deal++) {
+        eligible[deal] = random.ints(1 + random.nextInt(3), 0, this.catalog.size()).distinct().toArray();
+        sizes[deal] = 1 + random.nextInt(3);
+        prices[deal] = 10 + random.nextInt(40 * sizes[deal]);
+        final String[] items = new String[eligible[deal].length];
+        for (int index = 0; index < items.length; index++) {
+          items[index] = this.catalog.itemOf(eligible[deal][index]);
+        }
+        builder.deal(sizes[deal], prices[deal], items);
+      }
+      final BundleSolver solver = builder.build();
+      final BundleSolver.Solution solution = solver.newState();
+      final OrdinalIntCounter basket = new OrdinalIntCounter(this.catalog);
+
+      // When // Then
+      final int[] units = new int[8];
+      for (int unit = 0; unit < units.length; unit++) {
+        units[unit] = random.nextInt(this.catalog.size());
+        basket.add(units[unit], 1);
+        final int expected = this.bestByEnumeration(units, unit + 1, eligible, sizes, prices, 0, new int[deals]);
+        assertEquals(expected, solver.discountFor(this.catalog, basket, solution), "round " + round + " unit " + unit);
+        assertEquals(expected, solver.discountFor(this.catalog, basket), "cold solve, round " + round + " unit " + unit);
+      }
+    }
+  }
+
+  @Test
+  public void shouldKeepDiscountsBeyondTheRangeOfAnInt() {
+    // Given
+    final BundleSolver solver = BundleSolver.builder(this.catalog).deal(2, 50, "A", "B").build();
+    final CartService cartService = new CartService(this.catalog, PromotionEngine.builder(this.catalog).add(solver).build());
+
+    // When
+    cartService.addItem("A", 200_000_000);
+    cartService.addItem("B", 200_000_000);
+
+    // Then
+    assertEquals(200_000_000L * (50 + 40 - 50), cartService.getTotalDiscount());
+  }
+
+  @Test
+  public void shouldRejectInvalidDeals() {
+    // When // Then
+    assertThrows(IllegalArgumentException.class, () -> BundleSolver.builder(this.catalog).deal(2, 50, "Z"));
+    assertThrows(IllegalArgumentException.class, () -> BundleSolver.builder(this.catalog).deal(0, 50, "A"));
+    assertThrows(IllegalArgumentException.class, () -> BundleSolver.builder(this.catalog).deal(2, 50));
+  }
+
+  /**
+   * Tries every way of putting each unit towards one of its deals, or none, keeping the best where every deal is made
+   * of whole bundles.
+   */
+  private int bestByEnumeration(int[] units, int count, int[][] eligible, int[] sizes, int[] prices, int unit, int[] assigned) {
+    if (unit == count) {
+      int saving = 0;
+      for (int deal = 0; deal < sizes.length; deal++) {
+        if (assigned[deal] % sizes[deal] != 0) {
+          return Integer.MIN_VALUE;
+        }
+        saving -= assigned[deal] / sizes[deal] * prices[deal];
+      }
+      return saving;
+    }
+
+    int best = this.bestByEnumeration(units, count, eligible, sizes, prices, unit + 1, assigned);
+    for (int deal = 0; deal < sizes.length; deal++) {
+      for (int ordinal : eligible[deal]) {
+        if (ordinal == units[unit]) {
+          assigned[deal]++;
+          final int rest = this.bestByEnumeration(units, count, eligible, sizes, prices, unit + 1, assigned);
+          assigned[deal]--;
+          if (rest != Integer.MIN_VALUE) {
+            best = Math.max(best, rest + this.catalog.priceOf(units[unit]));
+          }
+          break;
+        }
+      }
+    }
+    return best;
+  }
+
+  private void scan(CartService cartService, String... items) {
+    for (String item : items) {
+      cartService.addItem(item);
+    }
+  }
+}
@@ -0,0 +1,180 @@
+package shopping.cart.kata.promotions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import shopping.cart.kata.catalog.ArraySkuCatalog;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.collections.OrdinalCounter;
+import shopping.cart.kata.services.CartService;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PromotionEngineTests {
+  private final SkuCatalog catalog = ArraySkuCatalog.builder()
+      .add("A", 50, 0, 0, 0)
+      .add("B", 30, 2, 45, 15)
+      .add("SANDWICH", 250, 0, 0, 0)
+      .add("WRAP", 300, 0, 0, 0)
+      .add("CRISPS", 80, 0, 0, 0)
+      .add("WATER", 100, 0, 0, 0)
+      .add("SMOOTHIE", 200, 0, 0, 0)
+      .build();
+
+  @Test
+  public void shouldApplyAMultiBuy() {
+    // Given
+    final CartService cartService = this.cartService(PromotionEngine.builder(this.catalog).multiBuy("A", 3, 130).build());
+
+    // When
+    this.scan(cartService, "A", "A", "A", "A", "A", "A", "A");
+
+    // Then
+    assertEquals(350, cartService.getRunningTotal());
+    assertEquals(40, cartService.getTotalDiscount());
+  }
+
+  @Test
+  public void shouldGiveItemsFreeForEveryQuantityBought() {
+    // Given
+    final CartService cartService = this.cartService(PromotionEngine.builder(this.catalog).buyXGetYFree("A", 2, 1).build());
+
+    // When
+    this.scan(cartService, "A", "A", "A", "A", "A");
+
+    // Then
+    assertEquals(50, cartService.getTotalDiscount());
+    this.scan(cartService, "A");
+    assertEquals(100, cartService.getTotalDiscount());
+  }
+
+  @Test
+  public void shouldLowerThePriceOfEveryItemOnceATierIsReached() {
+    // Given
+    final CartService cartService = this.cartService(
+        PromotionEngine.builder(this.catalog).tieredPrice("A", new int[]{3, 5}, new int[]{45, 40}).build()
+    );
+
+    // When // Then
+    this.scan(cartService, "A", "A");
+    assertEquals(0, cartService.getTotalDiscount());
+    this.scan(cartService, "A");
+    assertEquals(15, cartService.getTotalDiscount());
+    this.scan(cartService, "A", "A");
+    assertEquals(50, cartService.getTotalDiscount());
+  }
+
+  @Test
+  public void shouldTakeAPercentageOffTheCombinedPrice() {
+    // Given
+    final CartService cartService = this.cartService(PromotionEngine.builder(this.catalog).percentageOff(15, "A", "B").build());
+
+    // When
+    this.scan(cartService, "A", "B", "B");
+
+    // Then
+    // 15% of £1.10 plus the 15p catalog discount on two Bs
+    assertEquals(16 + 15, cartService.getTotalDiscount());
+  }
+
+  @Test
+  public void shouldMakeMealsFromTheMostExpensiveItemsOfEachGroup() {
+    // Given
+    final CartService cartService = this.cartService(
+        PromotionEngine.builder(this.catalog)
+            .mealDeal(350, new String[]{"SANDWICH", "WRAP"}, new String[]{"CRISPS"}, new String[]{"WATER", "SMOOTHIE"})
+            .build()
+    );
+
+    // When // Then
+    this.scan(cartService, "SANDWICH", "CRISPS");
+    assertEquals(0, cartService.getTotalDiscount());
+    this.scan(cartService, "WATER");
+    assertEquals(430 - 350, cartService.getTotalDiscount());
+    this.scan(cartService, "WRAP", "SMOOTHIE");
+    // Only one bag of crisps, so the wrap and smoothie replace the sandwich and water in the single meal
+    assertEquals(580 - 350, cartService.getTotalDiscount());
+    this.scan(cartService, "CRISPS");
+    assertEquals(580 - 350 + 430 - 350, cartService.getTotalDiscount());
+  }
+
+  @Test
+  public void shouldOnlyEvaluateThePromotionsOfTheScannedSku() {
+    // Given
+    final AtomicInteger evaluations = new AtomicInteger();
+    final int a = this.catalog.ordinalOf("A");
+    final PromotionEngine promotions = PromotionEngine.builder(this.catalog)
+        .add(new Promotion() {
+          @Override
+          public int[] ordinals() {
+            return new int[]{a};
+          }
+
+          @Override
+          public long discountFor(SkuCatalog catalog, OrdinalCounter basket) {
+            evaluations.incrementAndGet();
+            return 0;
+          }
+        })
+        .multiBuy("B", 3, 80)
+        .build();
+    final CartService cartService = this.cartService(promotions);
+
+    // When
+    this.scan(cartService, "B", "B", "B", "A");
+
+    // Then
+    assertEquals(1, evaluations.get());
+    assertEquals(15 + 10, cartService.getTotalDiscount());
+  }
+
+  @Test
+  public void shouldRejectPromotionsForAnotherCatalog() {
+    // Given
+    final PromotionEngine promotions = PromotionEngine.builder(this.catalog).multiBuy("A", 3, 130).build();
+    final SkuCatalog otherCatalog = ArraySkuCatalog.builder().add("A", 50, 0, 0, 0).build();
+
+    // When // Then
+    assertThrows(IllegalArgumentException.class, () -> new CartService(otherCatalog, promotions));
+    assertThrows(IllegalArgumentException.class, () -> PromotionEngine.builder(this.catalog).multiBuy("Z", 3, 130));
+    assertThrows(IllegalArgumentException.class, () -> PromotionEngine.builder(this.catalog).mealDeal(100, new String[]{"A"}, new String[]{"A", "B"}));
+  }
+
+  @Test
+  public void shouldKeepDiscountsBeyondTheRangeOfAnInt() {
+    // Given
+    final CartService buyOneGetOneFree = this.cartService(PromotionEngine.builder(this.catalog).buyXGetYFree("A", 1, 1).build());
+    final CartService halfPrice = this.cartService(PromotionEngine.builder(this.catalog).percentageOff(50, "A").build());
+    final CartService multiBuy = this.cartService(PromotionEngine.builder(this.catalog).multiBuy("A", 2, 50).build());
+    final CartService tiered = this.cartService(PromotionEngine.builder(this.catalog).tieredPrice("A", new int[]{1}, new int[]{25}).build());
+    final CartService mealDeal = this.cartService(PromotionEngine.builder(this.catalog).mealDeal(50, new String[]{"A"}, new String[]{"CRISPS"}).build());
+
+    // When
+    buyOneGetOneFree.addItem("A", 200_000_000);
+    halfPrice.addItem("A", 200_000_000);
+    multiBuy.addItem("A", 200_000_000);
+    tiered.addItem("A", 200_000_000);
+    mealDeal.addItem("A", 200_000_000);
+    mealDeal.addItem("CRISPS", 200_000_000);
+
+    // Then
+    assertEquals(5_000_000_000L, buyOneGetOneFree.getTotalDiscount());
+    assertEquals(5_000_000_000L, halfPrice.getTotalDiscount());
+    assertEquals(5_000_000_000L, multiBuy.getTotalDiscount());
+    assertEquals(5_000_000_000L, tiered.getTotalDiscount());
+    assertEquals(16_000_000_000L, mealDeal.getTotalDiscount());
+  }
+
+  private CartService cartService(PromotionEngine promotions) {
+    return new CartService(this.catalog, promotions);
+  }
+
+  private void scan(CartService cartService, String... items) {
+    for (String item : items) {
+      cartService.addItem(item);
+    }
+  }
+}
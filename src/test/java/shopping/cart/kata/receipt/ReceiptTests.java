@@ -0,0 +1,107 @@
+package shopping.cart.kata.receipt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import shopping.cart.kata.catalog.ArraySkuCatalog;
+import shopping.cart.kata.catalog.SkuCatalog;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ReceiptTests {
+  private final SkuCatalog catalog = ArraySkuCatalog.builder()
+      .add("A", 50, 3, 130, 20)
+      .add("C", 20, 0, 0, 0)
+      .build();
+
+  @Test
+  public void shouldKeepEachLineUpToDate() {
+    // Given
+    final Receipt receipt = new Receipt(this.catalog, ReceiptListener.NONE);
+
+    // When
+    receipt.add(0, 1, 1, 20, 0);
+    receipt.add(1, 0, 2, 100, 0);
+    receipt.add(1, 0, 1, 50, 20);
+
+    // Then
+    assertEquals(2, receipt.size());
+    assertEquals("C", receipt.itemAt(0));
+    assertEquals(1, receipt.quantityAt(0));
+    assertEquals(20, receipt.grossAt(0));
+    assertEquals(0, receipt.discountAt(0));
+    assertEquals(20, receipt.netAt(0));
+    assertEquals("A", receipt.itemAt(1));
+    assertEquals(3, receipt.quantityAt(1));
+    assertEquals(150, receipt.grossAt(1));
+    assertEquals(20, receipt.discountAt(1));
+    assertEquals(130, receipt.netAt(1));
+    assertEquals(50, receipt.unitPriceAt(1));
+  }
+
+  @Test
+  public void shouldKeepTheUnitPriceOfALineWhenItemsAreRemoved() {
+    // Given
+    final Receipt receipt = new Receipt(this.catalog, ReceiptListener.NONE);
+    receipt.add(0, 0, 3, 150, 20);
+
+    // When
+    receipt.add(0, 0, -3, -150, -20);
+
+    // Then
+    assertEquals(0, receipt.quantityAt(0));
+    assertEquals(50, receipt.unitPriceAt(0));
+  }
+
+  @Test
+  public void shouldPassEachChangedLineToTheListener() {
+    // Given
+    final List<String> changes = new ArrayList<>();
+    final Receipt receipt = new Receipt(this.catalog, (changed, line, previousQuantity) -> changes.add(
+        String.format("%d:%s %d -> %d", line, changed.itemAt(line), previousQuantity, changed.quantityAt(line))
+    ));
+
+    // When
+    receipt.add(0, 0, 1, 50, 0);
+    receipt.add(1, 1, 1, 20, 0);
+    receipt.add(0, 0, 2, 100, 20);
+
+    // Then
+    assertEquals(List.of("0:A 0 -> 1", "1:C 0 -> 1", "0:A 1 -> 3"), changes);
+  }
+
+  @Test
+  public void shouldGrowPastItsInitialCapacity() {
+    // Given
+    final ArraySkuCatalog.Builder builder = ArraySkuCatalog.builder();
+    for (int index = 0; index < 100; index++) {
+      builder.add("SKU" + index, index + 1, 0, 0, 0);
+    }
+    final Receipt receipt = new Receipt(builder.build(), ReceiptListener.NONE);
+
+    // When
+    for (int ordinal = 0; ordinal < 100; ordinal++) {
+      receipt.add(ordinal, ordinal, 2, 2 * (ordinal + 1), 0);
+    }
+
+    // Then
+    assertEquals(100, receipt.size());
+    assertEquals("SKU99", receipt.itemAt(99));
+    assertEquals(200, receipt.grossAt(99));
+  }
+
+  @Test
+  public void shouldRejectALineForAnotherOrdinal() {
+    // Given
+    final Receipt receipt = new Receipt(this.catalog, ReceiptListener.NONE);
+    receipt.add(0, 0, 1, 50, 0);
+
+    // When // Then
+    assertThrows(IllegalArgumentException.class, () -> receipt.add(0, 1, 1, 20, 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> receipt.quantityAt(1));
+  }
+}
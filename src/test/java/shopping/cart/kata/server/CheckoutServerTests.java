@@ -0,0 +1,146 @@
+package shopping.cart.kata.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import shopping.cart.kata.catalog.ArraySkuCatalog;
+import shopping.cart.kata.catalog.CatalogPublisher;
+import shopping.cart.kata.metrics.CheckoutMetrics;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class CheckoutServerTests {
+
+  private CatalogPublisher catalogs;
+
+  private CheckoutServer checkoutServer;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    this.catalogs = new CatalogPublisher(
+        ArraySkuCatalog.builder()
+            .add("A", 50, 3, 130, 20)
+            .add("B", 30, 2, 45, 15)
+            .add("C", 20, 0, 0, 0)
+            .add("D", 15, 0, 0, 0)
+            .build()
+    );
+    this.checkoutServer = new CheckoutServer(this.catalogs, 0, CheckoutMetrics.NONE);
+    this.checkoutServer.start();
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    this.checkoutServer.close();
+  }
+
+  @Test
+  public void shouldRunACheckoutSessionAgainstTheSharedCatalog() throws Exception {
+    // When
+    final String response = this.runSession("A", "a", "B", "A", "Z", "");
+
+    // Then
+    final String[] expectedResponse = new String[]{
+        "Welcome to kata shopping basket by Rob Pearson",
+        "",
+        "SKUs have been configured. Please proceed to scanning items",
+        "",
+        "Please scan your next item. Press enter when all items have been scanned",
+        "Running total -- £0.50",
+        "Please scan your next item. Press enter when all items have been scanned",
+        "Running total -- £1.00",
+        "Please scan your next item. Press enter when all items have been scanned",
+        "Running total -- £1.30",
+        "Please scan your next item. Press enter when all items have been scanned",
+        "Running total -- £1.80",
+        "Please scan your next item. Press enter when all items have been scanned",
+        "Sorry I wasn't able to find that product",
+        "Please scan your next item. Press enter when all items have been scanned",
+        "The summary of items scanned are as follows",
+        "",
+        "-----Scanned Items-----",
+        "3 x A",
+        "1 x B",
+        "",
+        "-----Breakdown-----",
+        "Total (prior to discounts) = £1.80",
+        "Discounts = £0.20",
+        "Total to pay = £1.60"
+    };
+    assertEquals(String.join("\n", expectedResponse), response);
+  }
+
+  @Test
+  public void shouldKeepConcurrentSessionsIndependent() throws Exception {
+    // Given
+    final ExecutorService tills = Executors.newFixedThreadPool(16);
+    final List<Future<String>> sessions = new ArrayList<>();
+
+    // When
+    for (int session = 0; session < 64; session++) {
+      final String item = session % 2 == 0 ? "A" : "B";
+      sessions.add(tills.submit(() -> this.runSession(item, item, item, "")));
+    }
+
+    // Then
+    for (int session = 0; session < sessions.size(); session++) {
+      final String response = sessions.get(session).get(30, TimeUnit.SECONDS);
+      final String expectedTotalToPay = session % 2 == 0 ? "Total to pay = £1.30" : "Total to pay = £0.75";
+      assertEquals(expectedTotalToPay, response.substring(response.lastIndexOf('\n') + 1));
+    }
+    tills.shutdown();
+  }
+
+  @Test
+  public void shouldPriceNewSessionsAgainstAPublishedCatalogWhileSessionsInProgressKeepTheirPrices() throws Exception {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.checkoutServer.getPort())) {
+      // Given
+      final OutputStream out = socket.getOutputStream();
+      final BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+      out.write("A\n".getBytes(StandardCharsets.UTF_8));
+      out.flush();
+      String line;
+      do {
+        line = in.readLine();
+      } while (!line.startsWith("Running total"));
+
+      // When
+      this.catalogs.publish(ArraySkuCatalog.builder().add("A", 70, 0, 0, 0).build());
+      final String newSession = this.runSession("A", "");
+      out.write("A\n\n".getBytes(StandardCharsets.UTF_8));
+      out.flush();
+      final String sessionInProgress = in.lines().collect(Collectors.joining("\n")).trim();
+
+      // Then
+      assertEquals("Total to pay = £0.70", newSession.substring(newSession.lastIndexOf('\n') + 1));
+      assertEquals("Total to pay = £1.00", sessionInProgress.substring(sessionInProgress.lastIndexOf('\n') + 1));
+    }
+  }
+
+  private String runSession(String... scans) throws Exception {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.checkoutServer.getPort())) {
+      final OutputStream out = socket.getOutputStream();
+      out.write((String.join("\n", scans) + "\n").getBytes(StandardCharsets.UTF_8));
+      out.flush();
+
+      final BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+      return in.lines().collect(Collectors.joining("\n")).trim();
+    }
+  }
+}
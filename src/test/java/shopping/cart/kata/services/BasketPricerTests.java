@@ -0,0 +1,74 @@
+package shopping.cart.kata.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import shopping.cart.kata.catalog.ArraySkuCatalog;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.models.CartTotals;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BasketPricerTests {
+  private final SkuCatalog catalog = ArraySkuCatalog.builder()
+      .add("A", 50, 3, 130, 20)
+      .add("B", 30, 2, 45, 15)
+      .add("C", 20, 0, 0, 0)
+      .add("D", 15, 0, 0, 0)
+      .build();
+
+  @Test
+  public void shouldPriceEachBasket() {
+    // Given
+    final List<List<String>> baskets = List.of(
+        List.of("A", "A", "B", "A", "B", "C", "D"),
+        List.of(),
+        List.of("B", "Z", "B")
+    );
+
+    // When
+    final List<CartTotals> totals = new BasketPricer(this.catalog).price(baskets);
+
+    // Then
+    assertEquals(3, totals.size());
+    assertEquals(245, totals.get(0).getRunningTotal());
+    assertEquals(35, totals.get(0).getTotalDiscount());
+    assertEquals(0, totals.get(1).getRunningTotal());
+    assertEquals(60, totals.get(2).getRunningTotal());
+    assertEquals(15, totals.get(2).getTotalDiscount());
+  }
+
+  @Test
+  public void shouldPriceManyBasketsInParallelInTheSameOrderAsACart() {
+    // Given
+    final SplittableRandom random = new SplittableRandom(7);
+    final String[] items = new String[]{"A", "B", "C", "D", "Z"};
+    final List<List<String>> baskets = new ArrayList<>();
+    for (int basket = 0; basket < 10_000; basket++) {
+      final List<String> scans = new ArrayList<>();
+      for (int scan = random.nextInt(30); scan > 0; scan--) {
+        scans.add(items[random.nextInt(items.length)]);
+      }
+      baskets.add(scans);
+    }
+    final ForkJoinPool pool = new ForkJoinPool(4);
+
+    // When
+    final List<CartTotals> totals = new BasketPricer(this.catalog, pool).price(baskets);
+    pool.shutdown();
+
+    // Then
+    assertEquals(baskets.size(), totals.size());
+    for (int basket = 0; basket < baskets.size(); basket++) {
+      final CartService cartService = new CartService(this.catalog);
+      baskets.get(basket).forEach(cartService::scanItem);
+      assertEquals(cartService.getRunningTotal(), totals.get(basket).getRunningTotal());
+      assertEquals(cartService.getTotalDiscount(), totals.get(basket).getTotalDiscount());
+    }
+  }
+}
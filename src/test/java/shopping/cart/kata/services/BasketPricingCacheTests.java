@@ -0,0 +1,198 @@
+package shopping.cart.kata.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import shopping.cart.kata.catalog.ArraySkuCatalog;
+import shopping.cart.kata.catalog.CatalogPublisher;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.exceptions.ItemNotFoundException;
+import shopping.cart.kata.models.PricedBasket;
+import shopping.cart.kata.promotions.PromotionEngine;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BasketPricingCacheTests {
+  private final SkuCatalog catalog = ArraySkuCatalog.builder()
+      .add("A", 50, 3, 130, 20)
+      .add("B", 30, 2, 45, 15)
+      .add("C", 20, 0, 0, 0)
+      .add("D", 15, 0, 0, 0)
+      .build();
+
+  @Test
+  public void shouldHitTheCacheForTheSameBasketInAnyOrder() {
+    // Given
+    final BasketPricingCache cache = new BasketPricingCache(this.catalog, 100, Duration.ofMinutes(5));
+    final PricedBasket first = cache.price(this.basket("C", 1, "A", 4, "B", 2));
+
+    // When
+    final PricedBasket second = cache.price(this.basket("B", 2, "C", 1, "A", 4));
+
+    // Then
+    assertSame(first, second);
+    assertEquals(200 + 60 + 20, second.getRunningTotal());
+    assertEquals(20 + 15, second.getTotalDiscount());
+    assertEquals("A", second.getLines().get(0).getItem());
+    assertEquals(4, second.getLines().get(0).getQuantity());
+    assertEquals(180, second.getLines().get(0).getNet());
+    assertEquals(1, cache.hitCount());
+    assertEquals(1, cache.missCount());
+  }
+
+  @Test
+  public void shouldPriceEachBasketTheSameAsAFreshComputation() {
+    // Given
+    final BasketPricingCache cache = new BasketPricingCache(this.catalog, 16, Duration.ofMinutes(5));
+    final SplittableRandom random = new SplittableRandom(25L);
+
+    // When // Then
+    for (int round = 0; round < 500; round++) {
+      final Map<String, Integer> basket = new LinkedHashMap<>();
+      for (int item = 0; item < 1 + random.nextInt(4); item++) {
+        basket.put(this.catalog.itemOf(random.nextInt(this.catalog.size())), 1 + random.nextInt(4));
+      }
+      this.assertSamePricing(cache.priceUncached(basket), cache.price(basket));
+    }
+    assertEquals(500, cache.hitCount() + cache.missCount());
+  }
+
+  @Test
+  public void shouldRepriceBasketsWhenANewCatalogVersionIsPublished() {
+    // Given
+    final CatalogPublisher catalogs = new CatalogPublisher(this.catalog);
+    final BasketPricingCache cache = new BasketPricingCache(catalogs, 100, Duration.ofMinutes(5));
+    final PricedBasket before = cache.price(this.basket("A", 3));
+
+    // When
+    catalogs.publish(ArraySkuCatalog.builder().add("A", 40, 3, 100, 20).build());
+    final PricedBasket after = cache.price(this.basket("A", 3));
+
+    // Then
+    assertEquals(1, before.getCatalogVersion());
+    assertEquals(2, after.getCatalogVersion());
+    assertEquals(100, after.getTotalToPay());
+    assertEquals(1, cache.size());
+    assertEquals(0, cache.hitCount());
+  }
+
+  @Test
+  public void shouldPriceBasketsWithThePromotionsOfEachCatalogVersion() {
+    // Given
+    final CatalogPublisher catalogs = new CatalogPublisher(this.catalog);
+    final BasketPricingCache cache = new BasketPricingCache(
+        catalogs,
+        catalog -> PromotionEngine.builder(catalog).buyXGetYFree("C", 1, 1).build(),
+        100,
+        Duration.ofMinutes(5)
+    );
+    final PricedBasket before = cache.price(this.basket("C", 2, "D", 1));
+
+    // When
+    catalogs.publish(ArraySkuCatalog.builder().add("C", 30, 0, 0, 0).add("D", 15, 0, 0, 0).build());
+    final PricedBasket after = cache.price(this.basket("C", 2, "D", 1));
+
+    // Then
+    assertEquals(20, before.getTotalDiscount());
+    assertEquals(40 + 15 - 20, before.getTotalToPay());
+    assertEquals(30, after.getTotalDiscount());
+    assertEquals(60 + 15 - 30, after.getTotalToPay());
+    this.assertSamePricing(cache.priceUncached(this.basket("D", 1, "C", 2)), cache.price(this.basket("D", 1, "C", 2)));
+    assertEquals(1, cache.hitCount());
+  }
+
+  @Test
+  public void shouldNotCacheAPricingOfAVersionReplacedWhileItWasPriced() {
+    // Given
+    final CatalogPublisher catalogs = new CatalogPublisher(this.catalog);
+    final AtomicReference<BasketPricingCache> cache = new AtomicReference<>();
+    final SkuCatalog publishingWhilePriced = new SkuCatalog() {
+      @Override
+      public int size() {
+        return BasketPricingCacheTests.this.catalog.size();
+      }
+
+      @Override
+      public int ordinalOf(CharSequence item) {
+        return BasketPricingCacheTests.this.catalog.ordinalOf(item);
+      }
+
+      @Override
+      public String itemOf(int ordinal) {
+        return BasketPricingCacheTests.this.catalog.itemOf(ordinal);
+      }
+
+      @Override
+      public int priceOf(int ordinal) {
+        // Another basket is priced against a newer version, emptying the cache, while this one is priced
+        catalogs.publish(BasketPricingCacheTests.this.catalog);
+        cache.get().priceUncached(BasketPricingCacheTests.this.basket("C", 1));
+        return BasketPricingCacheTests.this.catalog.priceOf(ordinal);
+      }
+
+      @Override
+      public int promotionalQuantityOf(int ordinal) {
+        return BasketPricingCacheTests.this.catalog.promotionalQuantityOf(ordinal);
+      }
+
+      @Override
+      public int promotionalPriceOf(int ordinal) {
+        return BasketPricingCacheTests.this.catalog.promotionalPriceOf(ordinal);
+      }
+
+      @Override
+      public int priceDiscountOf(int ordinal) {
+        return BasketPricingCacheTests.this.catalog.priceDiscountOf(ordinal);
+      }
+    };
+    cache.set(new BasketPricingCache(catalogs, 100, Duration.ofMinutes(5)));
+    catalogs.publish(publishingWhilePriced);
+
+    // When
+    final PricedBasket priced = cache.get().price(this.basket("A", 1));
+
+    // Then
+    assertEquals(2, priced.getCatalogVersion());
+    assertEquals(0, cache.get().size());
+  }
+
+  @Test
+  public void shouldRejectUnknownItemsAndQuantities() {
+    // Given
+    final BasketPricingCache cache = new BasketPricingCache(this.catalog, 100, Duration.ofMinutes(5));
+
+    // When // Then
+    assertThrows(ItemNotFoundException.class, () -> cache.price(this.basket("Z", 1)));
+    assertThrows(IllegalArgumentException.class, () -> cache.price(this.basket("A", 0)));
+    assertEquals(0, cache.size());
+  }
+
+  private void assertSamePricing(PricedBasket expected, PricedBasket actual) {
+    assertEquals(expected.getCatalogVersion(), actual.getCatalogVersion());
+    assertEquals(expected.getRunningTotal(), actual.getRunningTotal());
+    assertEquals(expected.getTotalDiscount(), actual.getTotalDiscount());
+    assertEquals(expected.getLines().size(), actual.getLines().size());
+    for (int line = 0; line < expected.getLines().size(); line++) {
+      assertEquals(expected.getLines().get(line).getItem(), actual.getLines().get(line).getItem());
+      assertEquals(expected.getLines().get(line).getQuantity(), actual.getLines().get(line).getQuantity());
+      assertEquals(expected.getLines().get(line).getGross(), actual.getLines().get(line).getGross());
+      assertEquals(expected.getLines().get(line).getDiscount(), actual.getLines().get(line).getDiscount());
+    }
+  }
+
+  private Map<String, Integer> basket(Object... itemsAndQuantities) {
+    final Map<String, Integer> basket = new LinkedHashMap<>();
+    for (int index = 0; index < itemsAndQuantities.length; index += 2) {
+      basket.put((String) itemsAndQuantities[index], (Integer) itemsAndQuantities[index + 1]);
+    }
+    return basket;
+  }
+}
@@ -0,0 +1,91 @@
+package shopping.cart.kata.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import shopping.cart.kata.catalog.ArraySkuCatalog;
+import shopping.cart.kata.catalog.SkuCatalog;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BatchCheckoutServiceTests {
+  private final SkuCatalog catalog = ArraySkuCatalog.builder()
+      .add("A", 50, 3, 130, 20)
+      .add("B", 30, 2, 45, 15)
+      .add("C", 20, 0, 0, 0)
+      .add("D", 15, 0, 0, 0)
+      .build();
+
+  @Test
+  public void shouldSummariseEachBasketInTheTransactionLog() throws IOException {
+    // Given
+    final Path transactions = this.transactions(String.join("\n",
+        "A", "A", "B", "A", "B", "C", "D", "",
+        "b", "z", "B", "",
+        "",
+        "C"
+    ));
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // When
+    final int baskets = new BatchCheckoutService(this.catalog, out).run(transactions);
+
+    // Then
+    final String[] expectedResponse = new String[]{
+        "basket,items,unknown_items,total,discount,total_to_pay",
+        "1,7,0,245,35,210",
+        "2,2,1,60,15,45",
+        "3,1,0,20,0,20"
+    };
+    assertEquals(3, baskets);
+    assertEquals(String.join("\n", expectedResponse), out.toString(StandardCharsets.UTF_8).trim());
+  }
+
+  @Test
+  public void shouldScanItemsWithNonAsciiIds() throws IOException {
+    // Given
+    final SkuCatalog catalog = ArraySkuCatalog.builder()
+        .add("CAFÉ", 120, 0, 0, 0)
+        .add("A", 50, 0, 0, 0)
+        .build();
+    final Path transactions = this.transactions("CAFÉ\ncafé\nA\n");
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // When
+    new BatchCheckoutService(catalog, out).run(transactions);
+
+    // Then
+    final String[] expectedResponse = new String[]{
+        "basket,items,unknown_items,total,discount,total_to_pay",
+        "1,3,0,290,0,290"
+    };
+    assertEquals(String.join("\n", expectedResponse), out.toString(StandardCharsets.UTF_8).trim());
+  }
+
+  @Test
+  public void shouldOnlyWriteTheHeaderForAnEmptyTransactionLog() throws IOException {
+    // Given
+    final Path transactions = this.transactions("");
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // When
+    final int baskets = new BatchCheckoutService(this.catalog, out).run(transactions);
+
+    // Then
+    assertEquals(0, baskets);
+    assertEquals(BatchCheckoutService.HEADER, out.toString(StandardCharsets.UTF_8).trim());
+  }
+
+  private Path transactions(String content) throws IOException {
+    final Path file = Files.createTempFile("transactions", ".log");
+    file.toFile().deleteOnExit();
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+}
@@ -1,13 +1,30 @@
 package shopping.cart.kata.services;
 
+import shopping.cart.kata.barcode.BarcodeIndex;
+import shopping.cart.kata.barcode.Barcodes;
+import shopping.cart.kata.catalog.ArraySkuCatalog;
+import shopping.cart.kata.catalog.SkuCatalog;
 import shopping.cart.kata.exceptions.ItemNotFoundException;
+import shopping.cart.kata.journal.CartSnapshot;
+import shopping.cart.kata.journal.MappedScanJournal;
+import shopping.cart.kata.metrics.CheckoutMetrics;
+import shopping.cart.kata.models.ScanResult;
 import shopping.cart.kata.models.Sku;
 import shopping.cart.kata.models.SkuSpecialPricing;
+import shopping.cart.kata.receipt.Receipt;
+import shopping.cart.kata.receipt.ReceiptListener;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -100,10 +117,378 @@ public class CartServiceTests {
     assertEquals(15, this.cartService.getTotalDiscount());
   }
 
+  @Test
+  public void scanAQuantityOfAnItemToGetDiscount() {
+    // When
+    this.cartService.addItem("A", 7);
+
+    // Then
+    assertEquals(350, this.cartService.getRunningTotal());
+    assertEquals(40, this.cartService.getTotalDiscount());
+    assertEquals(Map.of("A", 7), this.cartService.getScannedItems());
+  }
+
+  @Test
+  public void scanAQuantityOfAnItemToCompleteABundle() {
+    // When
+    this.cartService.addItem("A");
+    this.cartService.addItem("A", 2);
+
+    // Then
+    assertEquals(150, this.cartService.getRunningTotal());
+    assertEquals(20, this.cartService.getTotalDiscount());
+  }
+
+  @Test
+  public void shouldKeepTotalsBeyondTheRangeOfAnInt() {
+    // Given
+    final CartService wholesaleCart = new CartService(ArraySkuCatalog.builder().add("PALLET", 2_000_000_000, 2, 2_000_000_000, 2_000_000_000).build());
+
+    // When
+    wholesaleCart.addItem("PALLET", 3);
+    wholesaleCart.addItem("PALLET");
+
+    // Then
+    assertEquals(8_000_000_000L, wholesaleCart.getRunningTotal());
+    assertEquals(4_000_000_000L, wholesaleCart.getTotalDiscount());
+    assertEquals(8_000_000_000L, wholesaleCart.getReceipt().grossAt(0));
+  }
+
+  @Test
+  public void shouldRejectAQuantityWhichIsNotGreaterThanZero() {
+    // When
+    // Then
+    assertThrows(IllegalArgumentException.class, () -> this.cartService.addItem("A", 0));
+  }
+
+  @Test
+  public void scanABatchOfItemsToGetDiscount() {
+    // Given
+    this.cartService.addItem("B");
+
+    // When
+    this.cartService.addItems(new String[]{"A", "B", "A", "C", "B", "A", "A", "D", "B"});
+
+    // Then
+    assertEquals(4 * 50 + 4 * 30 + 20 + 15, this.cartService.getRunningTotal());
+    assertEquals(20 + 2 * 15, this.cartService.getTotalDiscount());
+    assertEquals(Map.of("A", 4, "B", 4, "C", 1, "D", 1), this.cartService.getScannedItems());
+  }
+
+  @Test
+  public void shouldLeaveTheCartUnchangedWhenABatchContainsAnInvalidSku() {
+    // When
+    assertThrows(ItemNotFoundException.class, () -> this.cartService.addItems(new String[]{"A", "Z", "B"}));
+
+    // Then
+    assertEquals(0, this.cartService.getRunningTotal());
+    assertTrue(this.cartService.getScannedItems().isEmpty());
+  }
+
+  @Test
+  public void shouldTakeTheDiscountBackWhenARemovalBreaksABundle() {
+    // Given
+    this.cartService.addItem("A", 3);
+    this.cartService.addItem("C");
+
+    // When
+    this.cartService.removeItem("A");
+
+    // Then
+    assertEquals(120, this.cartService.getRunningTotal());
+    assertEquals(0, this.cartService.getTotalDiscount());
+    assertEquals(2, this.cartService.getReceipt().quantityAt(0));
+    assertEquals(100, this.cartService.getReceipt().netAt(0));
+    this.cartService.addItem("A");
+    assertEquals(20, this.cartService.getTotalDiscount());
+  }
+
+  @Test
+  public void shouldCorrectTheQuantityOfAnItem() {
+    // Given
+    this.cartService.addItem("B");
+    this.cartService.addItem("C");
+
+    // When
+    this.cartService.setQuantity("B", 5);
+
+    // Then
+    assertEquals(170, this.cartService.getRunningTotal());
+    assertEquals(30, this.cartService.getTotalDiscount());
+    this.cartService.setQuantity("B", 0);
+    assertEquals(20, this.cartService.getRunningTotal());
+    assertEquals(0, this.cartService.getTotalDiscount());
+    assertEquals(Map.of("C", 1), this.cartService.getScannedItems());
+    this.cartService.setQuantity("D", 0);
+    assertEquals(Map.of("C", 1), this.cartService.getScannedItems());
+  }
+
+  @Test
+  public void shouldRejectRemovingMoreThanTheCartHolds() {
+    // Given
+    this.cartService.addItem("A");
+
+    // When // Then
+    assertThrows(IllegalArgumentException.class, () -> this.cartService.removeItem("A", 2));
+    assertThrows(IllegalArgumentException.class, () -> this.cartService.removeItem("B"));
+    assertThrows(IllegalArgumentException.class, () -> this.cartService.removeItem("A", 0));
+    assertThrows(IllegalArgumentException.class, () -> this.cartService.setQuantity("A", -1));
+    assertThrows(ItemNotFoundException.class, () -> this.cartService.removeItem("Z"));
+    assertEquals(50, this.cartService.getRunningTotal());
+  }
+
+  @Test
+  public void shouldScanItemsByBarcode() {
+    // Given
+    final SkuCatalog catalog = ArraySkuCatalog.builder().add("4006381333931", 50, 2, 80, 20).build();
+    final CartService cartService = new CartService(catalog);
+    final BarcodeIndex barcodes = BarcodeIndex.of(catalog);
+
+    // When
+    cartService.scanBarcode(Barcodes.pack("4006381333931"), barcodes);
+    cartService.scanBarcode(Barcodes.pack("4006381333931"), barcodes);
+
+    // Then
+    assertEquals(100, cartService.getRunningTotal());
+    assertEquals(20, cartService.getTotalDiscount());
+    assertEquals(ScanResult.ITEM_NOT_FOUND, cartService.scanBarcode(Barcodes.pack("5901234123457"), barcodes));
+    final BarcodeIndex otherBarcodes = BarcodeIndex.of(ArraySkuCatalog.builder().add("4006381333931", 50, 0, 0, 0).build());
+    assertThrows(IllegalArgumentException.class, () -> cartService.scanBarcode(Barcodes.pack("4006381333931"), otherBarcodes));
+  }
+
+  @Test
+  public void shouldTrackTheQuantityOfEachScannedItem() {
+    // When
+    this.cartService.addItem("B");
+    this.cartService.addItem("A");
+    this.cartService.addItem("B");
+
+    // Then
+    assertEquals(Map.of("A", 1, "B", 2), this.cartService.getScannedItems());
+  }
+
   @Test
   public void shouldThrowItemNotFoundExceptionWhenInvalidSkuIsSupplied() {
     // When
     // Then
     assertThrows(ItemNotFoundException.class, () -> this.cartService.addItem("Z"));
   }
-}
+
+  @Test
+  public void scanItemsAgainstACatalog() {
+    // Given
+    final CartService catalogCartService = new CartService(
+        ArraySkuCatalog.builder()
+            .add("A", 50, 3, 130, 20)
+            .add("C", 20, 0, 0, 0)
+            .build()
+    );
+
+    // When
+    catalogCartService.addItem("A");
+    catalogCartService.addItem("C");
+    catalogCartService.addItem("A");
+    catalogCartService.addItem("A");
+
+    // Then
+    assertEquals(170, catalogCartService.getRunningTotal());
+    assertEquals(20, catalogCartService.getTotalDiscount());
+    assertEquals(Map.of("A", 3, "C", 1), catalogCartService.getScannedItems());
+  }
+
+  @Test
+  public void shouldReportAnUnknownItemWithoutTrackingIt() {
+    // When
+    final ScanResult scanResult = this.cartService.scanItem("Z");
+
+    // Then
+    assertEquals(ScanResult.ITEM_NOT_FOUND, scanResult);
+    assertEquals(0, this.cartService.getRunningTotal());
+    assertTrue(this.cartService.getScannedItems().isEmpty());
+  }
+
+  @Test
+  public void shouldNotCaptureAStackTraceWhenInvalidSkuIsSupplied() {
+    // When
+    final ItemNotFoundException exception = assertThrows(ItemNotFoundException.class, () -> this.cartService.addItem("Z"));
+
+    // Then
+    assertEquals("No SKU found for item (Z)", exception.getMessage());
+    assertEquals(0, exception.getStackTrace().length);
+  }
+
+  @Test
+  public void shouldKeepTheReceiptUpToDateWhileScanning() {
+    // Given
+    final List<Integer> changedLines = new ArrayList<>();
+    final CartService cartService = new CartService(
+        ArraySkuCatalog.builder().add("A", 50, 3, 130, 20).add("C", 20, 0, 0, 0).build(),
+        CheckoutMetrics.NONE,
+        (receipt, line, previousQuantity) -> changedLines.add(line)
+    );
+
+    // When
+    cartService.addItem("A");
+    cartService.addItem("C");
+    cartService.addItem("A", 2);
+    cartService.addItems(new String[]{"C", "A"});
+
+    // Then
+    final Receipt receipt = cartService.getReceipt();
+    assertEquals(List.of(0, 1, 0, 1, 0), changedLines);
+    assertEquals(2, receipt.size());
+    assertEquals("A", receipt.itemAt(0));
+    assertEquals(4, receipt.quantityAt(0));
+    assertEquals(200, receipt.grossAt(0));
+    assertEquals(20, receipt.discountAt(0));
+    assertEquals("C", receipt.itemAt(1));
+    assertEquals(2, receipt.quantityAt(1));
+    assertEquals(40, receipt.netAt(1));
+    assertEquals(cartService.getRunningTotal() - cartService.getTotalDiscount(), receipt.netAt(0) + receipt.netAt(1));
+  }
+
+  @Test
+  public void shouldRecoverACartFromItsJournal() throws IOException {
+    // Given
+    final SkuCatalog catalog = ArraySkuCatalog.builder().add("A", 50, 3, 130, 20).add("B", 30, 2, 45, 15).add("C", 20, 0, 0, 0).build();
+    final Path journalFile = Files.createTempFile("cart-journal", ".bin");
+    journalFile.toFile().deleteOnExit();
+    final Path snapshotFile = Files.createTempFile("cart-snapshot", ".bin");
+    snapshotFile.toFile().deleteOnExit();
+    final String[] items = new String[]{"A", "B", "C", "A", "B"};
+
+    try (MappedScanJournal journal = MappedScanJournal.open(journalFile, 1024, catalog.fingerprint())) {
+      final CartService cartService = new CartService(catalog, CheckoutMetrics.NONE, ReceiptListener.NONE, journal);
+      for (int index = 0; index < 500; index++) {
+        cartService.addItem(items[index % items.length]);
+        if (index == 399) {
+          cartService.snapshot().writeTo(snapshotFile);
+        }
+      }
+
+      // When
+      final CartService replayed = CartService.recover(catalog, journal);
+      final CartService resumed = CartService.recover(catalog, journal, CartSnapshot.readFrom(snapshotFile));
+
+      // Then
+      for (CartService recovered : List.of(replayed, resumed)) {
+        assertEquals(cartService.getRunningTotal(), recovered.getRunningTotal());
+        assertEquals(cartService.getTotalDiscount(), recovered.getTotalDiscount());
+        assertEquals(cartService.getScannedItems(), recovered.getScannedItems());
+        assertEquals(cartService.getReceipt().netAt(2), recovered.getReceipt().netAt(2));
+      }
+      assertEquals(400, CartSnapshot.readFrom(snapshotFile).getJournalPosition());
+
+      resumed.addItem("C");
+      assertEquals(501, journal.size());
+    }
+  }
+
+  @Test
+  public void shouldRecoverRemovalsFromTheJournal() throws IOException {
+    // Given
+    final SkuCatalog catalog = ArraySkuCatalog.builder().add("A", 50, 3, 130, 20).add("B", 30, 2, 45, 15).build();
+    final Path journalFile = Files.createTempFile("cart-journal", ".bin");
+    journalFile.toFile().deleteOnExit();
+
+    try (MappedScanJournal journal = MappedScanJournal.open(journalFile, 16, catalog.fingerprint())) {
+      final CartService cartService = new CartService(catalog, CheckoutMetrics.NONE, ReceiptListener.NONE, journal);
+      cartService.addItem("A", 3);
+      cartService.addItem("B", 2);
+      cartService.removeItem("A");
+      cartService.setQuantity("B", 1);
+
+      // When
+      final CartService recovered = CartService.recover(catalog, journal);
+
+      // Then
+      assertEquals(130, recovered.getRunningTotal());
+      assertEquals(0, recovered.getTotalDiscount());
+      assertEquals(cartService.getScannedItems(), recovered.getScannedItems());
+    }
+  }
+
+  @Test
+  public void shouldRejectRecoveringAJournalAgainstADifferentCatalog() throws IOException {
+    // Given
+    final SkuCatalog catalog = ArraySkuCatalog.builder().add("A", 50, 0, 0, 0).add("B", 30, 0, 0, 0).build();
+    final SkuCatalog reordered = ArraySkuCatalog.builder().add("B", 30, 0, 0, 0).add("A", 50, 0, 0, 0).build();
+    final Path journalFile = Files.createTempFile("cart-journal", ".bin");
+    journalFile.toFile().deleteOnExit();
+
+    try (MappedScanJournal journal = MappedScanJournal.open(journalFile, 16, catalog.fingerprint())) {
+      new CartService(catalog, CheckoutMetrics.NONE, ReceiptListener.NONE, journal).addItem("A");
+
+      // When // Then
+      assertThrows(IllegalStateException.class, () -> CartService.recover(reordered, journal));
+    }
+  }
+
+  @Test
+  public void shouldRejectRecoveringAJournalAgainstARepricedCatalog() throws IOException {
+    // Given
+    final SkuCatalog catalog = ArraySkuCatalog.builder().add("A", 50, 3, 130, 20).add("B", 30, 0, 0, 0).build();
+    final SkuCatalog repriced = ArraySkuCatalog.builder().add("A", 40, 0, 0, 0).add("B", 30, 0, 0, 0).build();
+    final SkuCatalog promotionChanged = ArraySkuCatalog.builder().add("A", 50, 2, 90, 10).add("B", 30, 0, 0, 0).build();
+    final Path journalFile = Files.createTempFile("cart-journal", ".bin");
+    journalFile.toFile().deleteOnExit();
+
+    try (MappedScanJournal journal = MappedScanJournal.open(journalFile, 16, catalog.fingerprint())) {
+      new CartService(catalog, CheckoutMetrics.NONE, ReceiptListener.NONE, journal).addItem("A", 3);
+
+      // When // Then
+      assertThrows(IllegalStateException.class, () -> CartService.recover(repriced, journal));
+      assertThrows(IllegalStateException.class, () -> CartService.recover(promotionChanged, journal));
+      final CartService recovered = CartService.recover(catalog, journal);
+      recovered.removeItem("A", 3);
+      assertEquals(0, recovered.getRunningTotal());
+      assertEquals(0, recovered.getTotalDiscount());
+    }
+  }
+
+  @Test
+  public void shouldStartANewBasketOnceTheJournalIsReset() throws IOException {
+    // Given
+    final SkuCatalog catalog = ArraySkuCatalog.builder().add("A", 50, 0, 0, 0).add("B", 30, 0, 0, 0).build();
+    final Path journalFile = Files.createTempFile("cart-journal", ".bin");
+    journalFile.toFile().deleteOnExit();
+
+    try (MappedScanJournal journal = MappedScanJournal.open(journalFile, 16, catalog.fingerprint())) {
+      new CartService(catalog, CheckoutMetrics.NONE, ReceiptListener.NONE, journal).addItem("A", 2);
+      final CartService unresetCart = new CartService(catalog, CheckoutMetrics.NONE, ReceiptListener.NONE, journal);
+      assertEquals(1, unresetCart.snapshot().getJournalPosition());
+
+      // When
+      journal.reset(catalog.fingerprint());
+      final CartService nextCart = new CartService(catalog, CheckoutMetrics.NONE, ReceiptListener.NONE, journal);
+      nextCart.addItem("B");
+
+      // Then
+      final CartService recovered = CartService.recover(catalog, journal);
+      assertEquals(30, recovered.getRunningTotal());
+      assertEquals(Map.of("B", 1), recovered.getScannedItems());
+    }
+  }
+
+  @Test
+  public void shouldNotAllocateWhenScanningItems() {
+    // Given
+    final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    final long threadId = Thread.currentThread().getId();
+    final String[] items = new String[]{"A", "B", "C", "D", "Z"};
+    final int scans = 100_000;
+    for (int index = 0; index < scans; index++) {
+      this.cartService.scanItem(items[index % items.length]);
+    }
+
+    // When
+    final long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+    for (int index = 0; index < scans; index++) {
+      this.cartService.scanItem(items[index % items.length]);
+    }
+    final long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+    // Then
+    assertTrue(allocatedBytes < scans, String.format("Expected no allocation per scan but %d bytes were allocated over %d scans", allocatedBytes, scans));
+  }
+}
\ No newline at end of file
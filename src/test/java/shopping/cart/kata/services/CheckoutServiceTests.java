@@ -2,6 +2,10 @@ package shopping.cart.kata.services;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import shopping.cart.kata.barcode.BarcodeIndex;
+import shopping.cart.kata.catalog.ArraySkuCatalog;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.formatting.GbpFormatter;
 import shopping.cart.kata.models.Sku;
 import shopping.cart.kata.models.SkuSpecialPricing;
 
@@ -14,6 +18,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -22,6 +27,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class CheckoutServiceTests {
+  private static final String QUANTITY_RE_PROMPT = "Please enter the number of items required to qualify for the discount. The value must be greater than 0 and the full price of the items no more than " + GbpFormatter.format(Integer.MAX_VALUE);
 
   @Test
   public void shouldConfigureOneSkuWithoutSpecialPricing() {
@@ -227,7 +233,7 @@ public class CheckoutServiceTests {
         "Please enter the price of the item (in pence)",
         "Does the item have promotional pricing?. Please enter Y or N",
         "Please enter the number of items required to qualify for the discount",
-        "Please enter the number of items required to qualify for the discount. The value must be greater than 0",
+        QUANTITY_RE_PROMPT,
         "Please enter the promotional price (in pence)",
         "I have stored that item. Would you like to configure any more SKUs? Please enter Y or N"
     };
@@ -237,6 +243,44 @@ public class CheckoutServiceTests {
     assertSkuWithSpecialPricing(skus, "B", 30, 2, 45, 15);
   }
 
+  @Test
+  public void shouldRePromptWhenTheFullPriceOfTheQuantityDoesNotFitInAnInt() {
+    // Given
+    final String[] userInput = new String[]{
+        "B",
+        "1000000000",
+        "Y",
+        "3",
+        "2",
+        "45",
+        "N",
+    };
+    final InputStream inputStream = new ByteArrayInputStream(String.join("\n", userInput).getBytes());
+    final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    final PrintStream printStream = new PrintStream(byteArrayOutputStream);
+    final CheckoutServiceTestSubject testSubject = new CheckoutServiceTestSubject(inputStream, printStream);
+
+    // When
+    final Map<String, Sku> skus = testSubject.configureSkus();
+
+    // Then
+    final String[] expectedResponse = new String[]{
+        "Before we start I need you to configure the SKUs",
+        "",
+        "Please enter the ID of the item",
+        "Please enter the price of the item (in pence)",
+        "Does the item have promotional pricing?. Please enter Y or N",
+        "Please enter the number of items required to qualify for the discount",
+        QUANTITY_RE_PROMPT,
+        "Please enter the promotional price (in pence)",
+        "I have stored that item. Would you like to configure any more SKUs? Please enter Y or N"
+    };
+    assertEquals(String.join("\n", expectedResponse), byteArrayOutputStream.toString().trim());
+
+    assertEquals(1, skus.keySet().size());
+    assertSkuWithSpecialPricing(skus, "B", 1000000000, 2, 45, 1999999955);
+  }
+
   @Test
   public void shouldRePromptWhenANonNumericValueIsSuppliedForTheQuantity() {
     // Given
@@ -265,7 +309,7 @@ public class CheckoutServiceTests {
         "Please enter the price of the item (in pence)",
         "Does the item have promotional pricing?. Please enter Y or N",
         "Please enter the number of items required to qualify for the discount",
-        "Invalid input supplied. Please enter the number of items required to qualify for the discount. The value must be greater than 0",
+        "Invalid input supplied. " + QUANTITY_RE_PROMPT,
         "Please enter the promotional price (in pence)",
         "I have stored that item. Would you like to configure any more SKUs? Please enter Y or N"
     };
@@ -389,6 +433,31 @@ public class CheckoutServiceTests {
     assertSkuWithSpecialPricing(skus, "B", 30, 2, 45, 15);
   }
 
+  @Test
+  public void shouldKeepRePromptingThroughALongRunOfInvalidInput() {
+    // Given
+    final int invalidInputs = 100_000;
+    final StringBuilder userInput = new StringBuilder("C\n");
+    for (int index = 0; index < invalidInputs; index++) {
+      userInput.append("abc\n");
+    }
+    userInput.append("20\nN\nN");
+    final InputStream inputStream = new ByteArrayInputStream(userInput.toString().getBytes());
+    final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    final PrintStream printStream = new PrintStream(byteArrayOutputStream);
+    final CheckoutServiceTestSubject testSubject = new CheckoutServiceTestSubject(inputStream, printStream);
+
+    // When
+    final Map<String, Sku> skus = testSubject.configureSkus();
+
+    // Then
+    final String rePrompt = "Invalid input supplied. Please enter the price of the item (in pence). The value must be greater than 0";
+    assertEquals(invalidInputs, byteArrayOutputStream.toString().split(Pattern.quote(rePrompt), -1).length - 1);
+
+    assertEquals(1, skus.keySet().size());
+    assertSkuWithoutSpecialPricing(skus, "C", 20);
+  }
+
   @Test
   public void shouldRePromptWhenZIsEnteredForThePromotionalPricingQuestion() {
     // Given
@@ -527,6 +596,42 @@ public class CheckoutServiceTests {
     assertEquals(String.join("\n", expectedResponse), byteArrayOutputStream.toString().trim());
   }
 
+  @Test
+  public void shouldScanBarcodesAndRejectThoseWithAWrongCheckDigit() {
+    // Given
+    final String[] userInput = new String[]{
+        "4006381333931",
+        "4006381333932",
+        "036000291452",
+        "5901234123457",
+        "\n"
+    };
+    final InputStream inputStream = new ByteArrayInputStream(String.join("\n", userInput).getBytes());
+    final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    final PrintStream printStream = new PrintStream(byteArrayOutputStream);
+    final CheckoutServiceTestSubject testSubject = new CheckoutServiceTestSubject(inputStream, printStream);
+    final SkuCatalog catalog = ArraySkuCatalog.builder().add("4006381333931", 50, 0, 0, 0).add("0036000291452", 30, 0, 0, 0).build();
+
+    // When
+    testSubject.scanBarcodes(new CartService(catalog), BarcodeIndex.of(catalog));
+
+    // Then
+    final String[] expectedResponse = new String[]{
+        "SKUs have been configured. Please proceed to scanning items",
+        "",
+        "Please scan your next item. Press enter when all items have been scanned",
+        "Running total -- £0.50",
+        "Please scan your next item. Press enter when all items have been scanned",
+        "Sorry that barcode is not valid. Please scan the item again",
+        "Please scan your next item. Press enter when all items have been scanned",
+        "Running total -- £0.80",
+        "Please scan your next item. Press enter when all items have been scanned",
+        "Sorry I wasn't able to find that product",
+        "Please scan your next item. Press enter when all items have been scanned"
+    };
+    assertEquals(String.join("\n", expectedResponse), byteArrayOutputStream.toString().trim());
+  }
+
   @Test
   public void shouldScanTwoDifferentItemsAndDisplayRunningTotal() {
     // Given
@@ -617,6 +722,36 @@ public class CheckoutServiceTests {
     assertEquals(String.join("\n", expectedResponse), byteArrayOutputStream.toString().trim());
   }
 
+  @Test
+  public void shouldLeaveItemsWhichHaveAllBeenRemovedOffTheSummary() {
+    // Given
+    final InputStream inputStream = new ByteArrayInputStream(new byte[0]);
+    final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    final PrintStream printStream = new PrintStream(byteArrayOutputStream);
+    final CheckoutServiceTestSubject testSubject = new CheckoutServiceTestSubject(inputStream, printStream);
+    final CartService cartService = this.configuredCartService();
+    cartService.addItem("A");
+    cartService.addItem("B");
+    cartService.removeItem("A");
+
+    // When
+    testSubject.outputSummary(cartService);
+
+    // Then
+    final String[] expectedResponse = new String[]{
+        "The summary of items scanned are as follows",
+        "",
+        "-----Scanned Items-----",
+        "1 x B",
+        "",
+        "-----Breakdown-----",
+        "Total (prior to discounts) = £0.30",
+        "Discounts = £0.00",
+        "Total to pay = £0.30"
+    };
+    assertEquals(String.join("\n", expectedResponse), byteArrayOutputStream.toString().trim());
+  }
+
   @Test
   public void configureOneSkuWithSpecialPricingAndScanZeroItems() {
     // Given
@@ -858,4 +993,12 @@ class CheckoutServiceTestSubject extends CheckoutService {
   public void scanItems(CartService cartService) {
     super.scanItems(cartService);
   }
+
+  public void scanBarcodes(CartService cartService, BarcodeIndex barcodes) {
+    super.scanBarcodes(cartService, barcodes);
+  }
+
+  public void outputSummary(CartService cartService) {
+    super.outputSummary(cartService);
+  }
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+package shopping.cart.kata.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import shopping.cart.kata.catalog.ArraySkuCatalog;
+import shopping.cart.kata.catalog.SkuCatalog;
+import shopping.cart.kata.exceptions.ItemNotFoundException;
+import shopping.cart.kata.models.CartTotals;
+import shopping.cart.kata.models.ScanResult;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ConcurrentCartServiceTests {
+  private static final int SCANNERS = 4;
+
+  private static final int SCANS_PER_SCANNER = 100_000;
+
+  private SkuCatalog catalog;
+
+  private ConcurrentCartService cartService;
+
+  @BeforeEach
+  public void setup() {
+    this.catalog = ArraySkuCatalog.builder()
+        .add("A", 50, 3, 130, 20)
+        .add("B", 30, 2, 45, 15)
+        .add("C", 20, 0, 0, 0)
+        .add("D", 15, 0, 0, 0)
+        .build();
+    this.cartService = new ConcurrentCartService(this.catalog);
+  }
+
+  @Test
+  public void scanItemsToGetDiscount() {
+    // When
+    this.cartService.addItem("B");
+    this.cartService.addItem("A");
+    this.cartService.addItem("B");
+
+    // Then
+    assertEquals(110, this.cartService.getRunningTotal());
+    assertEquals(15, this.cartService.getTotalDiscount());
+    assertEquals(Map.of("A", 1, "B", 2), this.cartService.getScannedItems());
+  }
+
+  @Test
+  public void shouldReportAnUnknownItem() {
+    // When
+    // Then
+    assertEquals(ScanResult.ITEM_NOT_FOUND, this.cartService.scanItem("Z"));
+    assertThrows(ItemNotFoundException.class, () -> this.cartService.addItem("Z"));
+  }
+
+  @Test
+  public void shouldNotLoseScansOrDiscountsFromConcurrentScanners() throws Exception {
+    // Given
+    final String[] items = new String[]{"A", "B", "C", "D"};
+    final ExecutorService executorService = Executors.newFixedThreadPool(SCANNERS);
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Future<?>> scanners = new ArrayList<>();
+
+    // When
+    for (int scanner = 0; scanner < SCANNERS; scanner++) {
+      final int offset = scanner;
+      scanners.add(executorService.submit(() -> {
+        start.await();
+        for (int index = 0; index < SCANS_PER_SCANNER; index++) {
+          this.cartService.scanItem(items[(index + offset) % items.length]);
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> scanner : scanners) {
+      scanner.get(30, TimeUnit.SECONDS);
+    }
+    executorService.shutdown();
+
+    // Then
+    final int quantityPerItem = SCANNERS * SCANS_PER_SCANNER / items.length;
+    assertEquals(Map.of("A", quantityPerItem, "B", quantityPerItem, "C", quantityPerItem, "D", quantityPerItem), this.cartService.getScannedItems());
+    assertEquals(quantityPerItem * (50 + 30 + 20 + 15), this.cartService.getRunningTotal());
+    assertEquals((quantityPerItem / 3) * 20 + (quantityPerItem / 2) * 15, this.cartService.getTotalDiscount());
+  }
+
+  @Test
+  public void shouldKeepTotalsBeyondTheRangeOfAnInt() {
+    // Given
+    final ConcurrentCartService cartService = new ConcurrentCartService(ArraySkuCatalog.builder()
+        .add("A", 2_000_000_000, 2, 1_000_000_000, 1_000_000_000)
+        .build());
+
+    // When
+    cartService.addItem("A");
+    cartService.addItem("A");
+
+    // Then
+    final CartTotals totals = cartService.snapshot();
+    assertEquals(4_000_000_000L, totals.getRunningTotal());
+    assertEquals(1_000_000_000L, totals.getTotalDiscount());
+    assertEquals(3_000_000_000L, totals.getTotalToPay());
+    assertEquals(4_000_000_000L, cartService.getRunningTotal());
+  }
+
+  @Test
+  public void shouldApplyThePromotionalDiscountOncePerBundleUnderContention() throws Exception {
+    this.assertConsistentSnapshotsUnderContention(this.cartService);
+  }
+
+  @Test
+  public void shouldTakeConsistentSnapshotsByHoldingBackScansOnceOutOfAttempts() throws Exception {
+    this.assertConsistentSnapshotsUnderContention(new ConcurrentCartService(this.catalog, 0));
+  }
+
+  private void assertConsistentSnapshotsUnderContention(ConcurrentCartService cartService) throws Exception {
+    // Given
+    final ExecutorService executorService = Executors.newFixedThreadPool(SCANNERS);
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Future<?>> scanners = new ArrayList<>();
+    final AtomicBoolean scanning = new AtomicBoolean(true);
+    final List<CartTotals> inconsistentSnapshots = new ArrayList<>();
+    final Thread display = new Thread(() -> {
+      while (scanning.get()) {
+        final CartTotals totals = cartService.snapshot();
+        if (totals.getRunningTotal() % 50 != 0 || totals.getTotalDiscount() % 20 != 0 || totals.getTotalToPay() < 0) {
+          inconsistentSnapshots.add(totals);
+        }
+      }
+    });
+
+    // When
+    display.start();
+    for (int scanner = 0; scanner < SCANNERS; scanner++) {
+      scanners.add(executorService.submit(() -> {
+        start.await();
+        for (int index = 0; index < SCANS_PER_SCANNER; index++) {
+          cartService.scanItem("A");
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> scanner : scanners) {
+      scanner.get(30, TimeUnit.SECONDS);
+    }
+    scanning.set(false);
+    display.join();
+    executorService.shutdown();
+
+    // Then
+    final int quantity = SCANNERS * SCANS_PER_SCANNER;
+    final CartTotals totals = cartService.snapshot();
+    assertEquals(quantity * 50, totals.getRunningTotal());
+    assertEquals((quantity / 3) * 20, totals.getTotalDiscount());
+    assertTrue(inconsistentSnapshots.isEmpty());
+  }
+}